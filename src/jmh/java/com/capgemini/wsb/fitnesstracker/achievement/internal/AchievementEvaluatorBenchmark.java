@@ -0,0 +1,93 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt oceny reguł osiągnięć ({@link AchievementEvaluator}) dla kolejnego treningu użytkownika, który ma już
+ * {@code history} treningów w kolejnych dniach. Stan reguł został zbudowany z całej historii, a każde wywołanie
+ * dopisuje trening z następnego dnia do trzech reguł (pojedynczy dystans, dystans miesięczny, seria dni) oraz
+ * poprawia dystans poprzedniego treningu. Czas na trening powinien być taki sam dla każdej długości historii.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AchievementEvaluatorBenchmark {
+
+    private static final long DAY = 86_400_000L;
+    private static final long FIRST_DAY = 1_577_836_800_000L;
+    private static final long USER_ID = 42L;
+
+    private static final List<AchievementRule> RULES = List.of(
+            new AchievementRule("FIRST_10K_RUN", AchievementRuleKind.SINGLE_TRAINING_DISTANCE, ActivityType.RUNNING, 10),
+            new AchievementRule("RUNNING_100KM_MONTH", AchievementRuleKind.MONTHLY_DISTANCE, ActivityType.RUNNING, 100),
+            new AchievementRule("STREAK_7_DAYS", AchievementRuleKind.DAILY_STREAK, null, 7));
+
+    @Param({"10", "1000", "100000"})
+    private int history;
+
+    private final AchievementEvaluator evaluator = new AchievementEvaluator(ZoneId.of("UTC"));
+
+    private AchievementProgress[] progress;
+    private TrainingSnapshot last;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        progress = new AchievementProgress[RULES.size()];
+        for (int rule = 0; rule < RULES.size(); rule++) {
+            progress[rule] = new AchievementProgress(USER_ID, RULES.get(rule).code());
+        }
+        for (nextId = 1; nextId <= history; nextId++) {
+            last = training(nextId);
+            for (int rule = 0; rule < RULES.size(); rule++) {
+                evaluator.evaluate(RULES.get(rule), progress[rule], null, last);
+            }
+        }
+    }
+
+    @Benchmark
+    public void newTraining(Blackhole blackhole) {
+        last = training(nextId++);
+        for (int rule = 0; rule < RULES.size(); rule++) {
+            blackhole.consume(evaluator.evaluate(RULES.get(rule), progress[rule], null, last));
+        }
+    }
+
+    @Benchmark
+    public void updatedTraining(Blackhole blackhole) {
+        TrainingSnapshot updated = new TrainingSnapshot(last.id(), USER_ID, last.startTime(), last.endTime(),
+                last.activityType(), last.distance() + 0.1, last.averageSpeed());
+        for (int rule = 0; rule < RULES.size(); rule++) {
+            blackhole.consume(evaluator.evaluate(RULES.get(rule), progress[rule], last, updated));
+        }
+        last = updated;
+    }
+
+    private static TrainingSnapshot training(long id) {
+        Date start = new Date(FIRST_DAY + (id - 1) * DAY);
+        return new TrainingSnapshot(id, USER_ID, start, new Date(start.getTime() + 3_600_000L),
+                ActivityType.RUNNING, 5.0, 10.0);
+    }
+}
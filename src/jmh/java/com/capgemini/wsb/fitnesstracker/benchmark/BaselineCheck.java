@@ -0,0 +1,160 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.OperatingSystemMXBean;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Porównuje wyniki JMH (format JSON, {@code -rf json}) z zapisanym wynikiem bazowym i kończy się kodem 1,
+ * jeżeli któryś benchmark jest wolniejszy od bazowego o więcej niż zadaną tolerancję.
+ * <p>
+ * Użycie: {@code BaselineCheck <wynik.json> <bazowy.json> [tolerancja]}, domyślna tolerancja to 0.10 (10%).
+ * Benchmarki nieobecne w wyniku bazowym są tylko wypisywane. Jeżeli wynik bazowy zmierzono na innej JVM
+ * (wersja JDK, maszyna wirtualna, argumenty) albo na innej maszynie, porównanie jest wypisywane z ostrzeżeniem,
+ * bo różnice mogą wynikać ze środowiska, a nie ze zmiany kodu.
+ * <p>
+ * Jeżeli wyniku bazowego jeszcze nie ma, bieżący wynik zostaje zapisany jako bazowy, a obok niego (plik
+ * {@code .properties} o tej samej nazwie) opis maszyny, na której go zmierzono: system, architektura, liczba
+ * procesorów i pamięć. Ustawienia JMH (iteracje, czasy, forki, argumenty JVM) są częścią samego wyniku.
+ * <p>
+ * W profilu {@code jmh} porównanie wykonywane jest w fazie {@code verify}, zaraz po uruchomieniu benchmarków.
+ */
+public final class BaselineCheck {
+
+    private static final double DEFAULT_TOLERANCE = 0.10;
+    private static final String[] MACHINE_PROPERTIES = {"os.name", "os.version", "os.arch"};
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <result.json> <baseline.json> [tolerance]");
+            System.exit(2);
+        }
+        Path resultPath = Path.of(args[0]);
+        Path baselinePath = Path.of(args[1]);
+        if (!Files.exists(baselinePath)) {
+            record(resultPath, baselinePath);
+            return;
+        }
+        warnOnDifferentMachine(machinePath(baselinePath));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> results = index(objectMapper.readTree(resultPath.toFile()));
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselinePath.toFile()));
+        warnOnDifferentEnvironment(results, baseline);
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(results).entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            double score = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (expected == null) {
+                System.out.printf("NEW         %-90s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double expectedScore = expected.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = higherIsBetter ? expectedScore / score - 1 : score / expectedScore - 1;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-11s %-90s %12.3f %s (baseline %.3f, %+.1f%%)%n",
+                    regressed ? "REGRESSION" : "OK", entry.getKey(), score, unit, expectedScore, change * 100);
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    private static void record(Path resultPath, Path baselinePath) throws IOException {
+        Files.copy(resultPath, baselinePath);
+        Path machinePath = machinePath(baselinePath);
+        try (Writer writer = Files.newBufferedWriter(machinePath)) {
+            machine().store(writer, "Machine the JMH baseline was recorded on");
+        }
+        System.out.println("Baseline " + baselinePath + " did not exist, recorded " + resultPath + " as the baseline"
+                + " and the machine description in " + machinePath + "; commit both files");
+    }
+
+    private static void warnOnDifferentMachine(Path machinePath) throws IOException {
+        if (!Files.exists(machinePath)) {
+            System.out.println("WARNING: " + machinePath + " does not exist, the baseline machine is unknown");
+            return;
+        }
+        Properties expected = new Properties();
+        try (Reader reader = Files.newBufferedReader(machinePath)) {
+            expected.load(reader);
+        }
+        Properties measured = machine();
+        if (!measured.equals(expected)) {
+            System.out.println("WARNING: baseline was recorded on " + new TreeMap<>(expected)
+                    + ", results come from " + new TreeMap<>(measured));
+        }
+    }
+
+    private static Properties machine() {
+        Properties machine = new Properties();
+        for (String property : MACHINE_PROPERTIES) {
+            machine.setProperty(property, System.getProperty(property));
+        }
+        Runtime runtime = Runtime.getRuntime();
+        machine.setProperty("processors", Integer.toString(runtime.availableProcessors()));
+        machine.setProperty("memory.mb", Long.toString(physicalMemory() / (1024 * 1024)));
+        return machine;
+    }
+
+    private static long physicalMemory() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean os) {
+            return os.getTotalMemorySize();
+        }
+        return 0;
+    }
+
+    private static Path machinePath(Path baselinePath) {
+        String name = baselinePath.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return baselinePath.resolveSibling((extension > 0 ? name.substring(0, extension) : name) + ".properties");
+    }
+
+    private static void warnOnDifferentEnvironment(Map<String, JsonNode> results, Map<String, JsonNode> baseline) {
+        if (results.isEmpty() || baseline.isEmpty()) {
+            return;
+        }
+        String measured = environment(results.values().iterator().next());
+        String expected = environment(baseline.values().iterator().next());
+        if (!measured.equals(expected)) {
+            System.out.println("WARNING: baseline was recorded on " + expected + ", results come from " + measured);
+        }
+    }
+
+    private static String environment(JsonNode run) {
+        return run.path("vmName").asText() + " " + run.path("vmVersion").asText()
+                + " (JDK " + run.path("jdkVersion").asText() + ", args " + run.path("jvmArgs") + ")";
+    }
+
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> index = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            index.put(key.toString(), run);
+        }
+        return index;
+    }
+
+}
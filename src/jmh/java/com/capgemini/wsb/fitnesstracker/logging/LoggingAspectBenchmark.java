@@ -0,0 +1,125 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Narzut {@link LoggingAspect} na wywołanie metody serwisu zwracającej listę DTO, w porównaniu z wywołaniem bez aspektu
+ * i z poprzednią wersją aspektu ({@link LegacyLoggingAspect}), która logowała {@code toString()} całego wyniku.
+ * Appendery są odłączane, więc mierzony jest koszt po stronie aspektu, a nie zapisu na konsolę.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    @Param({"INFO", "WARN"})
+    private String level;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private BenchmarkService plain;
+    private BenchmarkService legacy;
+    private BenchmarkService current;
+
+    @Setup
+    public void setUp() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.toLevel(level));
+
+        List<TrainingDto> trainings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Date start = new Date(1_700_000_000_000L + i * 86_400_000L);
+            trainings.add(new TrainingDto((long) i, start, new Date(start.getTime() + 3_600_000L), "RUNNING", 10.0, 10.0));
+        }
+        plain = new BenchmarkService(trainings);
+        legacy = proxy(plain, new LegacyLoggingAspect());
+        current = proxy(plain, new LoggingAspect(new LoggingProperties(1.0, Map.of())));
+    }
+
+    @Benchmark
+    public List<TrainingDto> withoutAspect() {
+        return plain.findAllTrainings();
+    }
+
+    @Benchmark
+    public List<TrainingDto> legacyAspect() {
+        return legacy.findAllTrainings();
+    }
+
+    @Benchmark
+    public List<TrainingDto> currentAspect() {
+        return current.findAllTrainings();
+    }
+
+    private static BenchmarkService proxy(BenchmarkService target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Service
+    public static class BenchmarkService {
+
+        private final List<TrainingDto> trainings;
+
+        public BenchmarkService(List<TrainingDto> trainings) {
+            this.trainings = trainings;
+        }
+
+        public List<TrainingDto> findAllTrainings() {
+            return trainings;
+        }
+    }
+
+    /**
+     * Aspekt logowania w wersji sprzed przebudowy, zachowany jako punkt odniesienia.
+     */
+    @Aspect
+    public static class LegacyLoggingAspect {
+
+        private static final org.slf4j.Logger logger = LoggerFactory.getLogger(LegacyLoggingAspect.class);
+
+        @Before("execution(public * com.capgemini.wsb.fitnesstracker..*.*(..)) && within(@org.springframework.stereotype.Service *)")
+        public void logMethodCall(JoinPoint joinPoint) {
+            logger.info("Before method: " + joinPoint.getSignature().toShortString());
+        }
+
+        @AfterReturning(pointcut = "execution(public * com.capgemini.wsb.fitnesstracker..*.*(..)) && within(@org.springframework.stereotype.Service *)", returning = "result")
+        public void logMethodReturn(JoinPoint joinPoint, Object result) {
+            logger.info("After method: " + joinPoint.getSignature().toShortString() + " returned: " + result);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mierzy skany {@link TrainingColumns}: agregację wszystkich treningów według typu aktywności, agregację
+ * treningów jednego typu w miesiącach roku oraz agregację treningów jednego użytkownika. Treningi rozłożone są
+ * losowo na rok i {@value #USERS} użytkowników.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class TrainingColumnsBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final LocalDate YEAR_START = LocalDate.of(2024, 1, 1);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Param({"1000000", "10000000"})
+    private int trainings;
+
+    private TrainingColumns columns;
+    private long from;
+    private long to;
+    private long[] months;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        from = epochMillis(YEAR_START);
+        to = epochMillis(YEAR_START.plusYears(1));
+        months = new long[13];
+        for (int month = 0; month < months.length; month++) {
+            months[month] = epochMillis(YEAR_START.plusMonths(month));
+        }
+        columns = new TrainingColumns(trainings);
+        SplittableRandom random = new SplittableRandom(42);
+        ActivityType[] activityTypes = ActivityType.values();
+        for (long id = 1; id <= trainings; id++) {
+            long start = random.nextLong(from, to);
+            double distance = random.nextDouble(1.0, 40.0);
+            double averageSpeed = random.nextDouble(4.0, 30.0);
+            columns.put(new TrainingSnapshot(id, random.nextLong(1, USERS + 1), new Date(start),
+                    new Date(start + (long) (distance / averageSpeed * 3_600_000L)),
+                    activityTypes[random.nextInt(activityTypes.length)], distance, averageSpeed));
+        }
+    }
+
+    @Benchmark
+    public ColumnAggregates distanceByActivity() {
+        return columns.aggregateByActivity(from, to, null, null);
+    }
+
+    @Benchmark
+    public ColumnAggregates runningByMonth() {
+        return columns.aggregateByPeriod(months, null, ActivityType.RUNNING);
+    }
+
+    @Benchmark
+    public ColumnAggregates userByActivity() {
+        return columns.aggregateByActivity(from, to, 42L, null);
+    }
+
+    private static long epochMillis(LocalDate date) {
+        return date.atStartOfDay(ZONE).toInstant().toEpochMilli();
+    }
+}
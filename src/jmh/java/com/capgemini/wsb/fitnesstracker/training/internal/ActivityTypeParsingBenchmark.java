@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt parsowania typu aktywności przez {@link ActivityType#valueOf(String)}, również dla nieznanej nazwy,
+ * która kończy się wyjątkiem (ścieżka błędnego żądania w {@link TrainingMapper#toEntity(TrainingDto)}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ActivityTypeParsingBenchmark {
+
+    private final String[] names = {"RUNNING", "CYCLING", "WALKING", "SWIMMING", "TENNIS"};
+    private int next;
+
+    @Benchmark
+    public ActivityType valueOf() {
+        String name = names[next];
+        next = (next + 1) % names.length;
+        return ActivityType.valueOf(name);
+    }
+
+    @Benchmark
+    public ActivityType valueOfUnknown() {
+        try {
+            return ActivityType.valueOf("ROWING");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
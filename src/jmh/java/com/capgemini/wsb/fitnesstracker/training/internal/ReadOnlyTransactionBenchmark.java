@@ -0,0 +1,145 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Porównuje odczyt strony treningów i strony użytkowników w transakcji tylko do odczytu z odczytem w zwykłej
+ * transakcji. Transakcja tylko do odczytu odtwarza ustawienia, które dla {@code @Transactional(readOnly = true)}
+ * nakłada Spring: sesja domyślnie tylko do odczytu (bez migawek do wykrywania zmian) i ręczny tryb opróżniania
+ * (zatwierdzenie bez przeglądania encji). Baza H2 w pamięci zawiera {@value #USERS} użytkowników
+ * i {@value #TRAININGS} treningów.
+ * <p>
+ * Alokację na żądanie pokazuje profiler GC ({@code gc.alloc.rate.norm}):
+ * {@code -Djmh.args="ReadOnlyTransaction -prof gc -rf json -rff target/jmh-result.json"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int TRAININGS = 20_000;
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Training.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:read_only_benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .buildSessionFactory();
+        SplittableRandom random = new SplittableRandom(42);
+        ActivityType[] activityTypes = ActivityType.values();
+        sessionFactory.inTransaction(session -> {
+            User[] users = new User[USERS];
+            for (int i = 0; i < USERS; i++) {
+                users[i] = new User("John", "Doe" + i, LocalDate.of(1990, 1, 1).plusDays(i), "john" + i + "@example.com");
+                session.persist(users[i]);
+            }
+            long start = LocalDate.of(2024, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            for (int i = 0; i < TRAININGS; i++) {
+                long startTime = start + random.nextLong(365L * 24 * 3_600_000L);
+                session.persist(new Training(users[random.nextInt(USERS)], new Date(startTime),
+                        new Date(startTime + 3_600_000L), activityTypes[random.nextInt(activityTypes.length)],
+                        random.nextDouble(1.0, 40.0), random.nextDouble(4.0, 30.0)));
+                if (i % 1_000 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<Training> trainingsReadWrite() {
+        return inTransaction(false, this::trainingPage);
+    }
+
+    @Benchmark
+    public List<Training> trainingsReadOnly() {
+        return inTransaction(true, this::trainingPage);
+    }
+
+    @Benchmark
+    public List<User> usersReadWrite() {
+        return inTransaction(false, this::userPage);
+    }
+
+    @Benchmark
+    public List<User> usersReadOnly() {
+        return inTransaction(true, this::userPage);
+    }
+
+    private List<Training> trainingPage(Session session) {
+        return session.createSelectionQuery("from Training t where t.id > :afterId order by t.id", Training.class)
+                .setParameter("afterId", 0L)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    private List<User> userPage(Session session) {
+        return session.createSelectionQuery("from User u where u.id > :afterId order by u.id", User.class)
+                .setParameter("afterId", 0L)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    /**
+     * Wykonuje odczyt w transakcji i zatwierdza ją; przy zwykłej transakcji zatwierdzenie porównuje każdą
+     * wczytaną encję z jej migawką.
+     */
+    private <T> T inTransaction(boolean readOnly, Function<Session, T> work) {
+        try (Session session = sessionFactory.openSession()) {
+            if (readOnly) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            Transaction transaction = session.beginTransaction();
+            T result = work.apply(session);
+            transaction.commit();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt serializacji listy {@link TrainingDto} mapperem skonfigurowanym tak jak w Spring MVC, w formacie JSON
+ * oraz w binarnych formatach CBOR i Smile ({@code web.internal.CborHttpMessageConverter},
+ * {@code SmileHttpMessageConverter}). Rozmiar zakodowanej listy wypisywany jest na początku każdej konfiguracji.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrainingDtoSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    private ObjectWriter writer;
+    private List<TrainingDto> trainings;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(format.factory()).build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TrainingDto.class));
+        ActivityType[] activityTypes = ActivityType.values();
+        trainings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Date start = new Date(1_700_000_000_000L + i * 86_400_000L);
+            trainings.add(new TrainingDto((long) i, start, new Date(start.getTime() + 3_600_000L),
+                    activityTypes[i % activityTypes.length].name(), 5.0 + i % 20, 8.0 + i % 7));
+        }
+        System.out.printf("%n%s, %d trainings: %d bytes%n", format, size, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(trainings);
+    }
+
+    public enum Format {
+        JSON {
+            @Override
+            JsonFactory factory() {
+                return new JsonFactory();
+            }
+        },
+        CBOR {
+            @Override
+            JsonFactory factory() {
+                return new CBORFactory();
+            }
+        },
+        SMILE {
+            @Override
+            JsonFactory factory() {
+                return new SmileFactory().configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+            }
+        };
+
+        abstract JsonFactory factory();
+    }
+
+}
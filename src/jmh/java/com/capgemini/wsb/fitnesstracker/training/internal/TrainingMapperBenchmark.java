@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt mapowania {@link Training} na {@link TrainingDto} i odwrotnie ({@link TrainingMapper}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrainingMapperBenchmark {
+
+    private final TrainingMapper mapper = new TrainingMapper();
+
+    private Training training;
+    private TrainingDto dto;
+
+    @Setup
+    public void setUp() {
+        Date start = new Date(1_700_000_000_000L);
+        Date end = new Date(start.getTime() + 3_600_000L);
+        training = new Training(null, start, end, ActivityType.RUNNING, 10.5, 10.5);
+        training.setId(42L);
+        dto = new TrainingDto(42L, start, end, ActivityType.CYCLING.name(), 40.0, 25.0);
+    }
+
+    @Benchmark
+    public TrainingDto toDto() {
+        return mapper.toDto(training);
+    }
+
+    @Benchmark
+    public Training toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+}
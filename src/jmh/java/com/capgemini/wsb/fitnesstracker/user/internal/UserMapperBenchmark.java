@@ -0,0 +1,65 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt mapowania {@link User} na {@link UserDto} i odwrotnie ({@link UserMapper}), osobno dla DTO z identyfikatorem
+ * (aktualizacja) i bez niego (tworzenie). Punktem odniesienia dla {@code toEntity} jest
+ * {@link #plainConstruction()}, czyli samo utworzenie encji konstruktorem.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    private final UserMapper mapper = new UserMapper();
+
+    private User user;
+    private UserDto dtoWithId;
+    private UserDto dtoWithoutId;
+
+    @Setup
+    public void setUp() {
+        LocalDate birthdate = LocalDate.of(1990, 5, 17);
+        user = new User("Jan", "Kowalski", birthdate, "jan.kowalski@domain.com");
+        dtoWithId = new UserDto(42L, "Jan", "Kowalski", birthdate, "jan.kowalski@domain.com");
+        dtoWithoutId = new UserDto(null, "Jan", "Kowalski", birthdate, "jan.kowalski@domain.com");
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return mapper.toDto(user);
+    }
+
+    @Benchmark
+    public User plainConstruction() {
+        return new User(dtoWithId.firstName(), dtoWithId.lastName(), dtoWithId.birthdate(), dtoWithId.email());
+    }
+
+    @Benchmark
+    public User toEntityWithId() {
+        return mapper.toEntity(dtoWithId);
+    }
+
+    @Benchmark
+    public User toEntityWithoutId() {
+        return mapper.toEntity(dtoWithoutId);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównuje {@link UserSearchIndex} z zapytaniem {@code LOWER(email) LIKE LOWER('%x%')}, które generuje
+ * {@link UserRepository#findByEmailContainingIgnoreCase(String)}, na tabeli H2 z {@value #USERS} użytkownikami.
+ * Zapytania obejmują rzadki fragment adresu, prefiks nazwiska i fragment występujący w każdym adresie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final String[] FIRST_NAMES = {"jan", "anna", "piotr", "katarzyna", "tomasz", "ewa", "marek", "zofia"};
+    private static final String[] LAST_NAMES = {"kowalski", "nowak", "wisniewski", "wojcik", "kaminski", "lewandowska"};
+
+    @Param({"ski42", "nowak1", "example"})
+    private String query;
+
+    private UserSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        VarHandle userId = MethodHandles.privateLookupIn(User.class, MethodHandles.lookup())
+                .findVarHandle(User.class, "id", Long.class);
+        index = new UserSearchIndex();
+        connection = DriverManager.getConnection("jdbc:h2:mem:user_search_benchmark");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, first_name varchar(255), "
+                    + "last_name varchar(255), birthdate date, email varchar(255) unique)");
+        }
+        Random random = new Random(42);
+        LocalDate birthdate = LocalDate.of(1990, 1, 1);
+        try (PreparedStatement insert = connection.prepareStatement("insert into users values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= USERS; id++) {
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + random.nextInt(1000);
+                String email = firstName + "." + lastName + "." + id + "@example.com";
+                User user = new User(firstName, lastName, birthdate, email);
+                userId.set(user, id);
+                index.put(user);
+                insert.setLong(1, id);
+                insert.setString(2, firstName);
+                insert.setString(3, lastName);
+                insert.setObject(4, birthdate);
+                insert.setString(5, email);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        likeQuery = connection.prepareStatement("select id, first_name, last_name, birthdate, email from users "
+                + "where lower(email) like lower(?) escape '\\'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> searchIndex() {
+        return index.search(query, UserSearchIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        likeQuery.setString(1, "%" + query + "%");
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Czasy odpowiedzi (w mikrosekundach) i liczba błędów dla każdej operacji. Każdy klient ma własny rejestrator,
+ * więc zapis nie wymaga synchronizacji; po pomiarze rejestratory są łączone metodą {@link #merge(LatencyRecorder)}.
+ */
+final class LatencyRecorder {
+
+    private final long[][] samples = new long[Operation.values().length][];
+    private final int[] counts = new int[Operation.values().length];
+    private final long[] errors = new long[Operation.values().length];
+
+    LatencyRecorder() {
+        Arrays.setAll(samples, i -> new long[1024]);
+    }
+
+    void record(Operation operation, long micros) {
+        int index = operation.ordinal();
+        if (counts[index] == samples[index].length) {
+            samples[index] = Arrays.copyOf(samples[index], counts[index] * 2);
+        }
+        samples[index][counts[index]++] = micros;
+    }
+
+    void recordError(Operation operation) {
+        errors[operation.ordinal()]++;
+    }
+
+    void merge(LatencyRecorder other) {
+        for (Operation operation : Operation.values()) {
+            int index = operation.ordinal();
+            for (int i = 0; i < other.counts[index]; i++) {
+                record(operation, other.samples[index][i]);
+            }
+            errors[index] += other.errors[index];
+        }
+    }
+
+    /**
+     * Zwraca posortowane czasy odpowiedzi operacji.
+     */
+    long[] sortedSamples(Operation operation) {
+        long[] sorted = Arrays.copyOf(samples[operation.ordinal()], counts[operation.ordinal()]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    long errors(Operation operation) {
+        return errors[operation.ordinal()];
+    }
+}
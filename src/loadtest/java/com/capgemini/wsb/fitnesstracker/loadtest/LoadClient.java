@@ -0,0 +1,149 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Klient testu obciążeniowego działający w zamkniętej pętli: losuje operację zgodnie z wagami, wysyła żądanie
+ * i czeka na pełną odpowiedź przed wysłaniem kolejnego. Odpowiedź z kodem innym niż 2xx lub błąd połączenia
+ * liczone są jako błąd.
+ * <p>
+ * Aktualizowane są wyłącznie treningi utworzone wcześniej przez tego samego klienta, żeby nie zmieniać danych
+ * wygenerowanych na starcie (aktualizacja treningu odłącza go od użytkownika). Dopóki klient nie utworzył żadnego
+ * treningu, zamiast aktualizacji wykonuje utworzenie.
+ */
+final class LoadClient {
+
+    private static final String[] ACTIVITY_TYPES = {"RUNNING", "CYCLING", "WALKING", "SWIMMING", "TENNIS"};
+    private static final int MAX_OWN_TRAININGS = 1000;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final Dataset dataset;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final SplittableRandom random;
+    private final List<Long> ownTrainings = new ArrayList<>();
+
+    LoadClient(HttpClient httpClient, ObjectMapper objectMapper, URI baseUri, Dataset dataset, LoadTestSettings settings,
+               SplittableRandom random) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.random = random;
+        this.operations = settings.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += settings.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Wysyła żądania do upływu terminu.
+     *
+     * @param deadlineNanos termin zakończenia według {@link System#nanoTime()}
+     * @return czasy odpowiedzi i błędy zarejestrowane przez klienta
+     */
+    LatencyRecorder run(long deadlineNanos) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        while (System.nanoTime() < deadlineNanos) {
+            Operation operation = nextOperation();
+            HttpRequest request = request(operation);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                if (response.statusCode() / 100 != 2) {
+                    recorder.recordError(operation);
+                    continue;
+                }
+                recorder.record(operation, micros);
+                if (operation == Operation.CREATE_TRAINING) {
+                    remember(objectMapper.readTree(response.body()).path("id").asLong());
+                }
+            } catch (IOException e) {
+                recorder.recordError(operation);
+            }
+        }
+        return recorder;
+    }
+
+    private Operation nextOperation() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                Operation operation = operations[i];
+                return operation == Operation.UPDATE_TRAINING && ownTrainings.isEmpty() ? Operation.CREATE_TRAINING : operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not cover roll " + roll);
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case TRAININGS_BY_USER -> get("/api/trainings/user/" + dataset.randomUserId(random));
+            case COMPLETED_TRAININGS -> get("/api/trainings/completed?date=" + dataset.completedAfter());
+            case USER_BY_ID -> get("/v1/users/" + dataset.randomUserId(random));
+            case CREATE_TRAINING -> json("/api/trainings", "POST");
+            case UPDATE_TRAINING -> json("/api/trainings/" + ownTrainings.get(random.nextInt(ownTrainings.size())), "PUT");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private HttpRequest json(String path, String method) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(trainingJson()))
+                .build();
+    }
+
+    private String trainingJson() {
+        long end = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(random.nextInt(24 * 30));
+        long minutes = 20 + random.nextInt(100);
+        double speed = 5 + random.nextDouble() * 20;
+        return String.format(Locale.ROOT,
+                "{\"startTime\":%d,\"endTime\":%d,\"activityType\":\"%s\",\"distance\":%.2f,\"averageSpeed\":%.2f}",
+                end - TimeUnit.MINUTES.toMillis(minutes), end, ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)],
+                speed * minutes / 60, speed);
+    }
+
+    private void remember(long trainingId) {
+        if (ownTrainings.size() < MAX_OWN_TRAININGS) {
+            ownTrainings.add(trainingId);
+        } else {
+            ownTrainings.set(random.nextInt(MAX_OWN_TRAININGS), trainingId);
+        }
+    }
+
+    /**
+     * Zakres identyfikatorów wygenerowanych użytkowników i data używana w zapytaniu o zakończone treningi.
+     */
+    record Dataset(long minUserId, long maxUserId, LocalDate completedAfter) {
+
+        long randomUserId(SplittableRandom random) {
+            return random.nextLong(minUserId, maxUserId + 1);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test obciążeniowy REST API. Uruchamia aplikację na losowym porcie z profilem {@code loadSyntheticData}
+ * (dane generowane przez {@code SyntheticDataLoader}), a następnie przez zadany czas wysyła żądania z wielu
+ * równoległych klientów według mieszanki operacji ({@link Operation}) i wypisuje przepustowość oraz percentyle czasu
+ * odpowiedzi dla każdego endpointu. Klienci i aplikacja działają w jednej maszynie wirtualnej, więc wynik obejmuje
+ * pełną obsługę HTTP, ale nie opóźnienia sieci.
+ * <p>
+ * Ustawienia opisuje {@link LoadTestSettings}; uruchomienie opisane jest w README.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings;
+        try {
+            settings = LoadTestSettings.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        try (ConfigurableApplicationContext context = start(settings)) {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            LoadClient.Dataset dataset = dataset(context.getBean(JdbcTemplate.class), settings);
+            URI baseUri = URI.create("http://localhost:" + port);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            List<LoadClient> clients = new ArrayList<>(settings.clients());
+            for (int i = 0; i < settings.clients(); i++) {
+                SplittableRandom random = new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + i);
+                clients.add(new LoadClient(httpClient, objectMapper, baseUri, dataset, settings, random));
+            }
+
+            System.out.printf("Users %d-%d, %d clients, warmup %s, measurement %s, mix %s%n", dataset.minUserId(),
+                    dataset.maxUserId(), settings.clients(), settings.warmup(), settings.duration(), settings.mix());
+            run(clients, settings.warmup());
+            long start = System.nanoTime();
+            LatencyRecorder recorder = run(clients, settings.duration());
+            new LoadTestReport(recorder, Duration.ofNanos(System.nanoTime() - start)).print(System.out);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestSettings settings) {
+        Map<String, Object> arguments = Map.of(
+                "spring.profiles.active", "loadSyntheticData",
+                "server.port", 0,
+                "server.tomcat.threads.max", Math.max(200, settings.clients()),
+                "fitnesstracker.synthetic-data.users", settings.users(),
+                "fitnesstracker.synthetic-data.trainings-per-user", settings.trainingsPerUser(),
+                "fitnesstracker.synthetic-data.seed", settings.seed(),
+                "logging.level.com.capgemini.wsb.fitnesstracker", "WARN",
+                "logging.level.com.capgemini.wsb.fitnesstracker.loader", "INFO");
+        return new SpringApplicationBuilder(FitnessTracker.class)
+                .run(arguments.entrySet().stream()
+                        .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                        .toArray(String[]::new));
+    }
+
+    private static LoadClient.Dataset dataset(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+        Long minUserId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        Long maxUserId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        if (minUserId == null || maxUserId == null) {
+            throw new IllegalStateException("No users were generated");
+        }
+        return new LoadClient.Dataset(minUserId, maxUserId, LocalDate.now().minusDays(settings.completedDays()));
+    }
+
+    /**
+     * Uruchamia wszystkich klientów na czas trwania fazy i łączy ich wyniki.
+     */
+    private static LatencyRecorder run(List<LoadClient> clients, Duration duration) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        if (duration.isZero()) {
+            return recorder;
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients.size());
+        try {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>(clients.size());
+            for (LoadClient client : clients) {
+                futures.add(executor.submit(() -> client.run(deadline)));
+            }
+            for (Future<LatencyRecorder> future : futures) {
+                recorder.merge(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test client failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return recorder;
+    }
+}
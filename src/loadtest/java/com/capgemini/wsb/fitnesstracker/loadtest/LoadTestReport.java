@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Raport z pomiaru: przepustowość i percentyle czasu odpowiedzi dla każdego endpointu oraz łącznie.
+ * Percentyle liczone są metodą najbliższej rangi z wszystkich zarejestrowanych próbek.
+ */
+final class LoadTestReport {
+
+    private static final String HEADER = "%-34s %9s %7s %10s %9s %9s %9s %9s %9s%n";
+    private static final String ROW = "%-34s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+
+    private final LatencyRecorder recorder;
+    private final Duration elapsed;
+
+    LoadTestReport(LatencyRecorder recorder, Duration elapsed) {
+        this.recorder = recorder;
+        this.elapsed = elapsed;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf(Locale.ROOT, "Measured %.1f s%n", seconds);
+        out.printf(Locale.ROOT, HEADER, "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long[] all = new long[0];
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            long[] samples = recorder.sortedSamples(operation);
+            long errors = recorder.errors(operation);
+            if (samples.length == 0 && errors == 0) {
+                continue;
+            }
+            printRow(out, operation.endpoint(), samples, errors, seconds);
+            all = concat(all, samples);
+            allErrors += errors;
+        }
+        Arrays.sort(all);
+        printRow(out, "total", all, allErrors, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, long[] sorted, long errors, double seconds) {
+        out.printf(Locale.ROOT, ROW, name, sorted.length, errors, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                percentile(sorted, 1.0));
+    }
+
+    /**
+     * Zwraca percentyl w milisekundach z posortowanych próbek w mikrosekundach.
+     */
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
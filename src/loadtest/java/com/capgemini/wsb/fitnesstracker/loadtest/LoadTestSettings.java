@@ -0,0 +1,88 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ustawienia testu obciążeniowego przekazywane jako argumenty {@code klucz=wartość}, np.
+ * {@code clients=64 duration=2m mix=trainingsByUser:50,createTraining:50}. Pominięte operacje w {@code mix}
+ * mają wagę 0.
+ *
+ * @param users liczba generowanych użytkowników
+ * @param trainingsPerUser średnia liczba treningów na użytkownika
+ * @param seed ziarno generatora danych i obciążenia
+ * @param clients liczba równoległych klientów, każdy wysyła kolejne żądanie po otrzymaniu odpowiedzi
+ * @param warmup czas rozgrzewki, której wyniki są pomijane
+ * @param duration czas pomiaru
+ * @param completedDays liczba dni wstecz, od której szukane są zakończone treningi
+ * @param mix wagi operacji
+ */
+record LoadTestSettings(int users, int trainingsPerUser, long seed, int clients, Duration warmup, Duration duration,
+                        int completedDays, Map<Operation, Integer> mix) {
+
+    private static final Set<String> KEYS = Set.of("users", "trainingsPerUser", "seed", "clients", "warmup",
+            "duration", "completedDays", "mix");
+
+    LoadTestSettings {
+        if (users <= 0 || clients <= 0 || trainingsPerUser < 0 || completedDays < 0) {
+            throw new IllegalArgumentException("users and clients must be positive, trainingsPerUser and completedDays must not be negative");
+        }
+        if (duration.isZero() || duration.isNegative() || warmup.isNegative()) {
+            throw new IllegalArgumentException("duration must be positive and warmup must not be negative");
+        }
+        if (mix.values().stream().anyMatch(weight -> weight < 0) || mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix weights must not be negative and at least one must be positive");
+        }
+        mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+    }
+
+    static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String key = separator < 0 ? arg : arg.substring(0, separator);
+            if (separator < 0 || !KEYS.contains(key)) {
+                throw new IllegalArgumentException("Expected key=value with key in " + KEYS + ", got: " + arg);
+            }
+            values.put(key, arg.substring(separator + 1));
+        }
+        return new LoadTestSettings(
+                Integer.parseInt(values.getOrDefault("users", "20000")),
+                Integer.parseInt(values.getOrDefault("trainingsPerUser", "20")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("clients", "32")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("completedDays", "1")),
+                values.containsKey("mix") ? parseMix(values.get("mix")) : defaultMix());
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, 0);
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.strip().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in mix, got: " + entry);
+            }
+            weights.put(Operation.byKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight());
+        }
+        return weights;
+    }
+}
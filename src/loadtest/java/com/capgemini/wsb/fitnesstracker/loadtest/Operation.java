@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Operacje wykonywane przez klientów testu obciążeniowego, z domyślnymi wagami w mieszance obciążenia.
+ */
+enum Operation {
+
+    TRAININGS_BY_USER("trainingsByUser", "GET /api/trainings/user/{userId}", 45),
+    COMPLETED_TRAININGS("completedTrainings", "GET /api/trainings/completed", 10),
+    USER_BY_ID("userById", "GET /v1/users/{id}", 20),
+    CREATE_TRAINING("createTraining", "POST /api/trainings", 15),
+    UPDATE_TRAINING("updateTraining", "PUT /api/trainings/{trainingId}", 10);
+
+    private final String key;
+    private final String endpoint;
+    private final int defaultWeight;
+
+    Operation(String key, String endpoint, int defaultWeight) {
+        this.key = key;
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    static Operation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key
+                        + ", expected one of " + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * Osiągnięcie przyznane użytkownikowi. Każde osiągnięcie przyznawane jest użytkownikowi co najwyżej raz.
+ */
+@Entity
+@Table(name = "achievement", uniqueConstraints = @UniqueConstraint(name = "uk_achievement_user_code", columnNames = {"user_id", "code"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class Achievement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Column(name = "code", nullable = false)
+    private String code;
+
+    @Column(name = "awarded_at", nullable = false)
+    private Date awardedAt;
+
+    /**
+     * Tworzy osiągnięcie przyznane użytkownikowi.
+     *
+     * @param user Użytkownik, któremu przyznano osiągnięcie.
+     * @param code Kod reguły osiągnięcia.
+     * @param awardedAt Czas przyznania.
+     */
+    public Achievement(User user, String code, Date awardedAt) {
+        this.user = user;
+        this.code = code;
+        this.awardedAt = awardedAt;
+    }
+}
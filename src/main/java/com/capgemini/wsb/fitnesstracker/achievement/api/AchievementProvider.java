@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import java.util.List;
+
+public interface AchievementProvider {
+
+    /**
+     * Retrieves the achievements awarded to the user with the given ID, in the order they were awarded.
+     *
+     * @param userId id of the user
+     * @return list of the user's achievements, empty if none were awarded yet
+     */
+    List<Achievement> findAchievementsByUserId(Long userId);
+
+}
@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Kontroler REST udostępniający osiągnięcia użytkowników.
+ */
+@RestController
+@RequestMapping("/v1/achievements")
+class AchievementController {
+
+    private final AchievementServiceImpl achievementService;
+    private final AchievementMapper achievementMapper;
+
+    /**
+     * Konstruktor dla AchievementController, wstrzykujący serwis osiągnięć i mapper.
+     *
+     * @param achievementService Serwis osiągnięć.
+     * @param achievementMapper Mapper do konwersji encji osiągnięć na DTO.
+     */
+    AchievementController(AchievementServiceImpl achievementService, AchievementMapper achievementMapper) {
+        this.achievementService = achievementService;
+        this.achievementMapper = achievementMapper;
+    }
+
+    /**
+     * Pobiera osiągnięcia użytkownika w kolejności przyznania.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return ResponseEntity z listą osiągnięć.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<AchievementDto>> getAchievements(@PathVariable Long userId) {
+        return ResponseEntity.ok(achievementService.findAchievementsByUserId(userId).stream()
+                .map(achievementMapper::toDto)
+                .toList());
+    }
+}
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) reprezentujący osiągnięcie użytkownika.
+ *
+ * @param code Kod osiągnięcia.
+ * @param awardedAt Czas przyznania.
+ */
+public record AchievementDto(String code, Date awardedAt) {}
@@ -0,0 +1,81 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Przekazuje zatwierdzone zapisy treningów do oceny reguł osiągnięć poza wątkiem obsługującym żądanie.
+ * Oceny wykonuje jeden wątek, więc zdarzenia są przetwarzane w kolejności zatwierdzenia, a stan reguł
+ * nie wymaga synchronizacji. Kolejka jest ograniczona - gdy jest pełna, wątek zgłaszający czeka na wolne miejsce.
+ */
+@Component
+@Slf4j
+class AchievementEngine {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final AchievementServiceImpl achievementService;
+    private final ThreadPoolExecutor executor;
+
+    AchievementEngine(AchievementServiceImpl achievementService, AchievementProperties properties) {
+        this.achievementService = achievementService;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "achievement-engine");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                AchievementEngine::enqueueBlocking);
+    }
+
+    /**
+     * Kolejkuje ocenę zatwierdzonego zapisu treningu.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        executor.execute(() -> evaluate(event));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Achievement engine stopped with {} pending evaluations", executor.shutdownNow().size());
+        }
+    }
+
+    private void evaluate(TrainingSavedEvent event) {
+        try {
+            List<Achievement> awarded = achievementService.evaluate(event);
+            awarded.forEach(achievement ->
+                    log.info("Awarded achievement {} to user {}", achievement.getCode(), event.current().userId()));
+        } catch (RuntimeException e) {
+            log.error("Achievement evaluation failed for training {}", event.current().id(), e);
+        }
+    }
+
+    private static void enqueueBlocking(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Achievement engine is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for achievement queue", e);
+        }
+    }
+}
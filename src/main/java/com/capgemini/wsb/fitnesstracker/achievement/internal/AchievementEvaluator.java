@@ -0,0 +1,85 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Przyrostowa ocena reguł osiągnięć. Każde wywołanie aktualizuje wyłącznie stan jednej reguły jednego użytkownika
+ * i wykonuje stałą liczbę operacji, niezależnie od historii treningów.
+ * Treningi dopisane wstecz (starsze niż zapamiętany miesiąc lub dzień serii) nie zmieniają stanu.
+ */
+final class AchievementEvaluator {
+
+    private final ZoneId zone;
+
+    AchievementEvaluator(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Uwzględnia zapis treningu w stanie reguły.
+     *
+     * @param rule reguła
+     * @param progress stan reguły użytkownika, modyfikowany w miejscu
+     * @param previous stan treningu przed zmianą lub {@code null} dla nowego treningu
+     * @param current stan treningu po zmianie
+     * @return {@code true}, jeśli reguła została spełniona
+     */
+    boolean evaluate(AchievementRule rule,
+                     AchievementProgress progress,
+                     @Nullable TrainingSnapshot previous,
+                     TrainingSnapshot current) {
+        return switch (rule.kind()) {
+            case SINGLE_TRAINING_DISTANCE -> rule.appliesTo(current.activityType()) && current.distance() >= rule.threshold();
+            case MONTHLY_DISTANCE -> evaluateMonthlyDistance(rule, progress, previous, current);
+            case DAILY_STREAK -> previous == null && evaluateStreak(rule, progress, current);
+        };
+    }
+
+    private boolean evaluateMonthlyDistance(AchievementRule rule,
+                                            AchievementProgress progress,
+                                            @Nullable TrainingSnapshot previous,
+                                            TrainingSnapshot current) {
+        if (previous != null && rule.appliesTo(previous.activityType())
+                && month(previous).equals(progress.getPeriodStart())) {
+            progress.setAmount(progress.getAmount() - previous.distance());
+        }
+        if (rule.appliesTo(current.activityType())) {
+            LocalDate month = month(current);
+            if (progress.getPeriodStart() == null || month.isAfter(progress.getPeriodStart())) {
+                progress.setPeriodStart(month);
+                progress.setAmount(current.distance());
+            } else if (month.equals(progress.getPeriodStart())) {
+                progress.setAmount(progress.getAmount() + current.distance());
+            }
+        }
+        return progress.getAmount() >= rule.threshold();
+    }
+
+    private boolean evaluateStreak(AchievementRule rule, AchievementProgress progress, TrainingSnapshot current) {
+        if (!rule.appliesTo(current.activityType())) {
+            return false;
+        }
+        LocalDate day = day(current);
+        LocalDate lastDay = progress.getLastDay();
+        if (lastDay == null || day.isAfter(lastDay.plusDays(1))) {
+            progress.setStreak(1);
+            progress.setLastDay(day);
+        } else if (day.equals(lastDay.plusDays(1))) {
+            progress.setStreak(progress.getStreak() + 1);
+            progress.setLastDay(day);
+        }
+        return progress.getStreak() >= rule.threshold();
+    }
+
+    private LocalDate day(TrainingSnapshot training) {
+        return training.startTime().toInstant().atZone(zone).toLocalDate();
+    }
+
+    private LocalDate month(TrainingSnapshot training) {
+        return day(training).withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import org.springframework.stereotype.Component;
+
+/**
+ * Komponent odpowiedzialny za mapowanie encji {@link Achievement} na {@link AchievementDto}.
+ */
+@Component
+class AchievementMapper {
+
+    /**
+     * Konwertuje encję osiągnięcia na DTO.
+     *
+     * @param achievement Encja osiągnięcia.
+     * @return DTO osiągnięcia.
+     */
+    AchievementDto toDto(Achievement achievement) {
+        return new AchievementDto(achievement.getCode(), achievement.getAwardedAt());
+    }
+}
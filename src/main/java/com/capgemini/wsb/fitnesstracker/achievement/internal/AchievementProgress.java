@@ -0,0 +1,54 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Stan reguły osiągnięcia dla jednego użytkownika. Rozmiar stanu nie zależy od liczby treningów użytkownika:
+ * reguły miesięczne pamiętają tylko bieżący miesiąc i sumę dystansu, a serie - ostatni dzień i długość serii.
+ */
+@Entity
+@Table(name = "achievement_progress", uniqueConstraints = @UniqueConstraint(
+        name = "uk_achievement_progress_user_rule", columnNames = {"user_id", "rule_code"}))
+@Getter
+@Setter(AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class AchievementProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Column(name = "rule_code", nullable = false)
+    private String ruleCode;
+
+    @Nullable
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "amount", nullable = false)
+    private double amount;
+
+    @Nullable
+    @Column(name = "last_day")
+    private LocalDate lastDay;
+
+    @Column(name = "streak", nullable = false)
+    private int streak;
+
+    AchievementProgress(long userId, String ruleCode) {
+        this.userId = userId;
+        this.ruleCode = ruleCode;
+    }
+}
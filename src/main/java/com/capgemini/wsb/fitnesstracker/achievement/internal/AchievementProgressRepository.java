@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repozytorium JPA dla encji {@link AchievementProgress}.
+ */
+interface AchievementProgressRepository extends JpaRepository<AchievementProgress, Long> {
+
+    /**
+     * @return Stan reguł jeszcze nieprzyznanych użytkownikowi osiągnięć - co najwyżej jeden wiersz na regułę.
+     */
+    List<AchievementProgress> findByUserId(long userId);
+}
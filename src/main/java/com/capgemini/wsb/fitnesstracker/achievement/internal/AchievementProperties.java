@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Konfiguracja silnika osiągnięć.
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.achievements")
+@Getter
+class AchievementProperties {
+
+    /**
+     * Reguły, według których przyznawane są osiągnięcia.
+     */
+    private final List<AchievementRule> rules;
+
+    /**
+     * Maksymalna liczba treningów oczekujących na ocenę; po jej osiągnięciu zapis kolejnych czeka na zwolnienie miejsca.
+     */
+    private final int queueCapacity;
+
+    AchievementProperties(@DefaultValue List<AchievementRule> rules, @DefaultValue("10000") int queueCapacity) {
+        this.rules = rules;
+        this.queueCapacity = queueCapacity;
+    }
+
+}
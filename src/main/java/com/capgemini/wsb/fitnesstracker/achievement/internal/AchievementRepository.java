@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repozytorium JPA dla encji {@link Achievement}.
+ */
+interface AchievementRepository extends JpaRepository<Achievement, Long> {
+
+    /**
+     * @return Osiągnięcia użytkownika w kolejności przyznania.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Achievement> findByUserIdOrderByAwardedAtAsc(Long userId);
+
+    /**
+     * @return Kody osiągnięć przyznanych już użytkownikowi.
+     */
+    @Query("select a.code from Achievement a where a.user.id = :userId")
+    Set<String> findCodesByUserId(Long userId);
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+/**
+ * Deklaratywna reguła osiągnięcia, wczytywana z konfiguracji aplikacji.
+ *
+ * @param code unikalny kod osiągnięcia
+ * @param kind rodzaj reguły
+ * @param activityType typ aktywności, którego dotyczy reguła, lub {@code null} dla wszystkich typów
+ * @param threshold próg - dystans dla reguł dystansowych lub liczba dni dla serii
+ */
+record AchievementRule(String code, AchievementRuleKind kind, @Nullable ActivityType activityType, double threshold) {
+
+    /**
+     * Informuje, czy reguła dotyczy podanego typu aktywności.
+     *
+     * @param type typ aktywności treningu
+     * @return {@code true}, jeśli trening jest brany pod uwagę przez regułę
+     */
+    boolean appliesTo(ActivityType type) {
+        return activityType == null || activityType == type;
+    }
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+/**
+ * Rodzaj reguły osiągnięcia. Każdy rodzaj wymaga stałej ilości stanu na użytkownika.
+ */
+enum AchievementRuleKind {
+
+    /**
+     * Pojedynczy trening o dystansie co najmniej równym progowi.
+     */
+    SINGLE_TRAINING_DISTANCE,
+
+    /**
+     * Łączny dystans w jednym miesiącu kalendarzowym co najmniej równy progowi.
+     */
+    MONTHLY_DISTANCE,
+
+    /**
+     * Treningi w kolejnych dniach przez liczbę dni co najmniej równą progowi.
+     */
+    DAILY_STREAK
+}
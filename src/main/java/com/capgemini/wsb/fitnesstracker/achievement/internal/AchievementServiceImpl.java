@@ -0,0 +1,100 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serwis przyznający osiągnięcia na podstawie deklaratywnych reguł z konfiguracji.
+ * Ocena treningu czyta jedynie kody przyznanych osiągnięć i stan reguł użytkownika (co najwyżej jeden wiersz
+ * na regułę), nigdy historię jego treningów. Stan reguły jest usuwany po przyznaniu osiągnięcia.
+ */
+@Service
+@Transactional(readOnly = true)
+class AchievementServiceImpl implements AchievementProvider {
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    @Autowired
+    private AchievementProgressRepository progressRepository;
+
+    @Autowired
+    private AchievementProperties properties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AchievementEvaluator evaluator = new AchievementEvaluator(ZoneId.systemDefault());
+
+    /**
+     * Zwraca osiągnięcia użytkownika w kolejności przyznania.
+     *
+     * @param userId identyfikator użytkownika
+     * @return lista osiągnięć użytkownika
+     */
+    @Override
+    public List<Achievement> findAchievementsByUserId(Long userId) {
+        return achievementRepository.findByUserIdOrderByAwardedAtAsc(userId);
+    }
+
+    /**
+     * Ocenia zapisany trening względem wszystkich reguł, których osiągnięcia użytkownik jeszcze nie otrzymał.
+     * Jeśli trening zmienił właściciela, jest traktowany jak nowy trening nowego właściciela.
+     *
+     * @param event zdarzenie zapisu treningu
+     * @return osiągnięcia przyznane w wyniku tej oceny
+     */
+    @Transactional
+    public List<Achievement> evaluate(TrainingSavedEvent event) {
+        TrainingSnapshot current = event.current();
+        Long userId = current.userId();
+        if (userId == null) {
+            return List.of();
+        }
+        TrainingSnapshot previous = sameOwner(event.previous(), userId);
+        Set<String> awarded = achievementRepository.findCodesByUserId(userId);
+        Map<String, AchievementProgress> progressByRule = progressRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(AchievementProgress::getRuleCode, Function.identity()));
+        List<Achievement> newlyAwarded = new ArrayList<>();
+        for (AchievementRule rule : properties.getRules()) {
+            if (awarded.contains(rule.code())) {
+                continue;
+            }
+            AchievementProgress progress = progressByRule.computeIfAbsent(rule.code(),
+                    code -> new AchievementProgress(userId, code));
+            if (evaluator.evaluate(rule, progress, previous, current)) {
+                newlyAwarded.add(achievementRepository.save(
+                        new Achievement(entityManager.getReference(User.class, userId), rule.code(), new Date())));
+                if (progress.getId() != null) {
+                    progressRepository.delete(progress);
+                }
+            } else if (progress.getId() == null && rule.kind() != AchievementRuleKind.SINGLE_TRAINING_DISTANCE) {
+                progressRepository.save(progress);
+            }
+        }
+        return newlyAwarded;
+    }
+
+    @Nullable
+    private static TrainingSnapshot sameOwner(@Nullable TrainingSnapshot previous, Long userId) {
+        return previous != null && userId.equals(previous.userId()) ? previous : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.etag.api;
+
+import java.time.Instant;
+
+/**
+ * Narzędzia do wyznaczania silnych znaczników ETag na podstawie identyfikatora i wersji danych.
+ * Znacznik zmienia się razem z wersją, więc można go porównać z nagłówkiem {@code If-None-Match} lub {@code If-Match}
+ * po odczycie samej wersji, bez wczytywania danych.
+ * <p>
+ * Znacznik zawiera też chwilę uruchomienia aplikacji: baza danych w pamięci jest tworzona od nowa przy każdym starcie,
+ * więc te same identyfikatory i wersje mogą wtedy oznaczać inne dane.
+ */
+public final class EntityTag {
+
+    private static final String EPOCH = Long.toString(Instant.now().toEpochMilli(), 36);
+
+    private EntityTag() {
+    }
+
+    /**
+     * Wyznacza znacznik ETag danych o podanym identyfikatorze i wersji.
+     *
+     * @param id identyfikator encji albo właściciela kolekcji
+     * @param version wersja encji albo licznik zmian kolekcji
+     * @return silny znacznik ETag w cudzysłowie, gotowy do użycia w nagłówku odpowiedzi
+     */
+    public static String of(long id, long version) {
+        return "\"" + id + "-" + version + "-" + EPOCH + "\"";
+    }
+
+    /**
+     * Sprawdza, czy nagłówek {@code If-Match} dopuszcza podany znacznik. Nagłówek zawiera listę znaczników
+     * rozdzielonych przecinkami albo {@code *}; znaczniki słabe ({@code W/}) nigdy nie pasują, bo {@code If-Match}
+     * wymaga porównania silnego.
+     *
+     * @param ifMatch wartość nagłówka {@code If-Match}
+     * @param tag bieżący znacznik zasobu
+     * @return {@code true}, jeśli znacznik pasuje do nagłówka
+     */
+    public static boolean matches(String ifMatch, String tag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.strip();
+            if (trimmed.equals("*") || trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+/**
+ * Pozycja użytkownika w rankingu.
+ *
+ * @param rank Miejsce w rankingu, liczone od 1.
+ * @param userId Identyfikator użytkownika.
+ * @param distance Łączny dystans użytkownika w okresie rankingu.
+ */
+public record LeaderboardEntry(int rank, long userId, double distance) {}
@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfejs definiujący usługi rankingów użytkowników według dystansu w bieżącym dniu, tygodniu lub miesiącu.
+ * Rankingi są utrzymywane w pamięci i aktualizowane przy każdym zapisie treningu, więc zapytania nie odwołują się
+ * do bazy danych.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Domyślna liczba zwracanych pozycji rankingu.
+     */
+    int DEFAULT_LIMIT = 100;
+
+    /**
+     * Maksymalna liczba zwracanych pozycji rankingu.
+     */
+    int MAX_LIMIT = 1_000;
+
+    /**
+     * Zwraca czołówkę rankingu w bieżącym okresie.
+     *
+     * @param activityType Typ aktywności.
+     * @param window Okno czasowe rankingu.
+     * @param limit Liczba pozycji, ograniczana do {@link #MAX_LIMIT}.
+     * @return Pozycje posortowane od najlepszej.
+     */
+    List<LeaderboardEntry> findTop(ActivityType activityType, LeaderboardWindow window, int limit);
+
+    /**
+     * Zwraca pozycję użytkownika w rankingu bieżącego okresu.
+     *
+     * @param activityType Typ aktywności.
+     * @param window Okno czasowe rankingu.
+     * @param userId Identyfikator użytkownika.
+     * @return Pozycja użytkownika lub Optional.empty(), jeśli użytkownik nie ma treningów w tym okresie.
+     */
+    Optional<LeaderboardEntry> findEntry(ActivityType activityType, LeaderboardWindow window, Long userId);
+
+    /**
+     * Odbudowuje wszystkie rankingi na podstawie treningów z przechowywanych okresów.
+     */
+    void rebuild();
+}
@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import com.capgemini.wsb.fitnesstracker.statistics.internal.RollupGranularity;
+
+import java.time.LocalDate;
+
+/**
+ * Okno czasowe, w którym liczony jest ranking. Okresy pokrywają się z przedziałami agregatów treningów
+ * ({@link RollupGranularity}) - tygodnie zaczynają się w poniedziałek (ISO-8601).
+ */
+public enum LeaderboardWindow {
+
+    DAY(RollupGranularity.DAY),
+    WEEK(RollupGranularity.WEEK),
+    MONTH(RollupGranularity.MONTH);
+
+    private final RollupGranularity granularity;
+
+    LeaderboardWindow(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    /**
+     * Zwraca początek okresu rankingu, do którego należy podany dzień.
+     *
+     * @param date Dzień.
+     * @return Pierwszy dzień okresu.
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return granularity.bucketStart(date);
+    }
+
+    /**
+     * Zwraca początek okresu przesuniętego o podaną liczbę okresów względem okresu zawierającego dany dzień.
+     *
+     * @param date Dzień.
+     * @param periods Liczba okresów (ujemna oznacza okresy wcześniejsze).
+     * @return Pierwszy dzień przesuniętego okresu.
+     */
+    public LocalDate periodStart(LocalDate date, long periods) {
+        return periodStart(date).plus(periods, granularity.unit());
+    }
+}
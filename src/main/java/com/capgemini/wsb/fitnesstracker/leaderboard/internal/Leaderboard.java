@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking jednego typu aktywności w jednym okresie. Odczyty mogą przebiegać równolegle,
+ * zapisy są wzajemnie wykluczające - każdy trwa O(log n).
+ */
+final class Leaderboard {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankedScores scores = new RankedScores();
+
+    void add(long userId, double distance) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            scores.add(userId, distance);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    List<LeaderboardEntry> top(int limit) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return scores.top(limit);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    Optional<LeaderboardEntry> entry(long userId) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return scores.entry(userId);
+        } finally {
+            readLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardService;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Kontroler REST udostępniający rankingi użytkowników według dystansu.
+ * Odpowiedzi są budowane wyłącznie z rankingów utrzymywanych w pamięci.
+ */
+@RestController
+@RequestMapping("/v1/leaderboards")
+class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * Pobiera czołówkę rankingu w bieżącym okresie.
+     *
+     * @param activityType Typ aktywności.
+     * @param window Okno czasowe rankingu.
+     * @param limit Liczba pozycji.
+     * @return ResponseEntity z listą pozycji posortowanych od najlepszej.
+     */
+    @GetMapping("/{activityType}")
+    public ResponseEntity<List<LeaderboardEntry>> getTop(@PathVariable ActivityType activityType,
+                                                         @RequestParam(defaultValue = "WEEK") LeaderboardWindow window,
+                                                         @RequestParam(defaultValue = "" + LeaderboardService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(leaderboardService.findTop(activityType, window, limit));
+    }
+
+    /**
+     * Pobiera pozycję użytkownika w rankingu bieżącego okresu.
+     *
+     * @param activityType Typ aktywności.
+     * @param userId Identyfikator użytkownika.
+     * @param window Okno czasowe rankingu.
+     * @return ResponseEntity z pozycją użytkownika lub 404, jeśli użytkownik nie ma treningów w tym okresie.
+     */
+    @GetMapping("/{activityType}/users/{userId}")
+    public ResponseEntity<LeaderboardEntry> getEntry(@PathVariable ActivityType activityType,
+                                                     @PathVariable Long userId,
+                                                     @RequestParam(defaultValue = "WEEK") LeaderboardWindow window) {
+        return leaderboardService.findEntry(activityType, window, userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Odbudowuje wszystkie rankingi z bazy danych.
+     *
+     * @return ResponseEntity bez treści.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        leaderboardService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+
+/**
+ * Klucz rankingu: typ aktywności, okno czasowe i początek okresu.
+ *
+ * @param activityType typ aktywności
+ * @param window okno czasowe
+ * @param periodStart pierwszy dzień okresu
+ */
+record LeaderboardKey(ActivityType activityType, LeaderboardWindow window, LocalDate periodStart) {}
@@ -0,0 +1,187 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardService;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serwis utrzymujący rankingi w pamięci.
+ * Dla każdego typu aktywności i okna czasowego przechowywany jest ranking bieżącego i poprzedniego okresu;
+ * starsze okresy są usuwane przy kolejnych zapisach. Rankingi są aktualizowane po zatwierdzeniu transakcji
+ * zapisującej trening i odbudowywane z bazy danych po starcie aplikacji.
+ */
+@Service
+@Slf4j
+class LeaderboardServiceImpl implements LeaderboardService {
+
+    /**
+     * Liczba przechowywanych okresów każdego okna czasowego, wliczając bieżący.
+     */
+    static final int RETAINED_PERIODS = 2;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Clock clock = Clock.system(zone);
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Map<LeaderboardKey, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    /**
+     * Ostatnie stany treningów zatwierdzone w trakcie odbudowy, według identyfikatora treningu, odtwarzane
+     * w nowych rankingach przed ich podmianą; {@code null}, gdy odbudowa nie trwa. Dostęp chroniony monitorem serwisu.
+     */
+    @Nullable
+    private Map<Long, TrainingSnapshot> savedDuringRebuild;
+
+    /**
+     * Zwraca czołówkę rankingu w bieżącym okresie.
+     *
+     * @param activityType typ aktywności
+     * @param window okno czasowe rankingu
+     * @param limit liczba pozycji
+     * @return pozycje posortowane od najlepszej
+     */
+    @Override
+    public List<LeaderboardEntry> findTop(ActivityType activityType, LeaderboardWindow window, int limit) {
+        Leaderboard leaderboard = leaderboards.get(currentKey(activityType, window));
+        return leaderboard == null ? List.of() : leaderboard.top(Math.min(Math.max(limit, 0), MAX_LIMIT));
+    }
+
+    /**
+     * Zwraca pozycję użytkownika w rankingu bieżącego okresu.
+     *
+     * @param activityType typ aktywności
+     * @param window okno czasowe rankingu
+     * @param userId identyfikator użytkownika
+     * @return pozycja użytkownika
+     */
+    @Override
+    public Optional<LeaderboardEntry> findEntry(ActivityType activityType, LeaderboardWindow window, Long userId) {
+        Leaderboard leaderboard = leaderboards.get(currentKey(activityType, window));
+        return leaderboard == null ? Optional.empty() : leaderboard.entry(userId);
+    }
+
+    /**
+     * Uwzględnia zatwierdzony zapis treningu w rankingach: wkład poprzedniego stanu treningu jest odejmowany,
+     * a wkład nowego dodawany.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTrainingSaved(TrainingSavedEvent event) {
+        LocalDate today = LocalDate.now(clock);
+        if (event.previous() != null) {
+            apply(leaderboards, event.previous(), -1, today);
+        }
+        apply(leaderboards, event.current(), 1, today);
+        leaderboards.keySet().removeIf(key -> isExpired(key, today));
+        if (savedDuringRebuild != null && event.current().id() != null) {
+            savedDuringRebuild.put(event.current().id(), event.current());
+        }
+    }
+
+    /**
+     * Odbudowuje rankingi po starcie aplikacji, czytając strumieniowo jedynie treningi z przechowywanych okresów.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Odbudowuje rankingi z bazy danych. Nowe rankingi zastępują dotychczasowe dopiero po zakończeniu odczytu,
+     * więc zapytania w trakcie odbudowy korzystają z poprzedniego stanu. Zapis treningu zatwierdzony w trakcie
+     * odczytu mógł zostać odczytany w starszym stanie albo wcale, więc przed podmianą wkład odczytanego stanu
+     * takiego treningu jest zastępowany wkładem jego ostatniego zatwierdzonego stanu.
+     */
+    @Override
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                savedDuringRebuild = new HashMap<>();
+            }
+            try {
+                LocalDate today = LocalDate.now(clock);
+                LocalDate cutoff = Arrays.stream(LeaderboardWindow.values())
+                        .map(window -> oldestRetained(window, today))
+                        .min(LocalDate::compareTo)
+                        .orElse(today);
+                Map<LeaderboardKey, Leaderboard> rebuilt = new ConcurrentHashMap<>();
+                Map<Long, TrainingSnapshot> read = new HashMap<>();
+                trainingService.exportTrainingsEndedAfter(Date.from(cutoff.atStartOfDay(zone).toInstant()), training -> {
+                    TrainingSnapshot snapshot = TrainingSnapshot.of(training);
+                    apply(rebuilt, snapshot, 1, today);
+                    if (snapshot.id() != null) {
+                        read.put(snapshot.id(), snapshot);
+                    }
+                });
+                synchronized (this) {
+                    savedDuringRebuild.forEach((trainingId, current) -> {
+                        TrainingSnapshot previous = read.get(trainingId);
+                        if (previous != null) {
+                            apply(rebuilt, previous, -1, today);
+                        }
+                        apply(rebuilt, current, 1, today);
+                    });
+                    leaderboards = rebuilt;
+                }
+                log.info("Rebuilt {} leaderboards from trainings since {}", rebuilt.size(), cutoff);
+            } finally {
+                synchronized (this) {
+                    savedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private void apply(Map<LeaderboardKey, Leaderboard> target, TrainingSnapshot training, int sign, LocalDate today) {
+        if (training.userId() == null) {
+            return;
+        }
+        LocalDate day = training.startTime().toInstant().atZone(zone).toLocalDate();
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            LeaderboardKey key = new LeaderboardKey(training.activityType(), window, window.periodStart(day));
+            if (!isExpired(key, today)) {
+                target.computeIfAbsent(key, k -> new Leaderboard()).add(training.userId(), sign * training.distance());
+            }
+        }
+    }
+
+    private LeaderboardKey currentKey(ActivityType activityType, LeaderboardWindow window) {
+        return new LeaderboardKey(activityType, window, window.periodStart(LocalDate.now(clock)));
+    }
+
+    private static boolean isExpired(LeaderboardKey key, LocalDate today) {
+        return key.periodStart().isBefore(oldestRetained(key.window(), today));
+    }
+
+    private static LocalDate oldestRetained(LeaderboardWindow window, LocalDate today) {
+        return window.periodStart(today, 1L - RETAINED_PERIODS);
+    }
+}
@@ -0,0 +1,218 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uporządkowany zbiór wyników użytkowników z wyznaczaniem pozycji w czasie logarytmicznym.
+ * Implementacja to drzewiec (treap) z licznikami rozmiaru poddrzew, posortowany malejąco według wyniku,
+ * a przy remisie rosnąco według identyfikatora użytkownika. Zmiana wyniku to usunięcie i ponowne wstawienie węzła,
+ * pozycja użytkownika to suma rozmiarów lewych poddrzew na ścieżce od korzenia.
+ * Klasa nie jest bezpieczna wątkowo.
+ */
+final class RankedScores {
+
+    /**
+     * Wyniki nie większe od tej wartości traktowane są jako zerowe, co chroni przed resztkami arytmetyki
+     * zmiennoprzecinkowej po odjęciu wkładu treningu.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    @Nullable
+    private Node root;
+
+    /**
+     * Zmienia wynik użytkownika o podaną wartość. Użytkownik z wynikiem zerowym jest usuwany z rankingu.
+     *
+     * @param userId identyfikator użytkownika
+     * @param delta zmiana wyniku
+     */
+    void add(long userId, double delta) {
+        double score = delta;
+        Node existing = nodes.remove(userId);
+        if (existing != null) {
+            root = delete(root, existing);
+            score += existing.score;
+        }
+        if (score > EPSILON) {
+            Node node = new Node(userId, score);
+            root = insert(root, node);
+            nodes.put(userId, node);
+        }
+    }
+
+    /**
+     * @return liczba użytkowników w rankingu
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Zwraca pierwsze pozycje rankingu w czasie O(log n + limit).
+     *
+     * @param limit maksymalna liczba pozycji
+     * @return pozycje posortowane od najlepszej
+     */
+    List<LeaderboardEntry> top(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, nodes.size()));
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !path.isEmpty()) && entries.size() < limit) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            Node next = path.pop();
+            entries.add(new LeaderboardEntry(entries.size() + 1, next.userId, next.score));
+            node = next.right;
+        }
+        return entries;
+    }
+
+    /**
+     * Zwraca pozycję użytkownika w czasie O(log n).
+     *
+     * @param userId identyfikator użytkownika
+     * @return pozycja użytkownika lub Optional.empty(), jeśli nie ma go w rankingu
+     */
+    Optional<LeaderboardEntry> entry(long userId) {
+        Node target = nodes.get(userId);
+        if (target == null) {
+            return Optional.empty();
+        }
+        int preceding = 0;
+        Node node = root;
+        while (node != null) {
+            int order = compare(target, node);
+            if (order < 0) {
+                node = node.left;
+            } else if (order > 0) {
+                preceding += size(node.left) + 1;
+                node = node.right;
+            } else {
+                preceding += size(node.left);
+                break;
+            }
+        }
+        return Optional.of(new LeaderboardEntry(preceding + 1, userId, target.score));
+    }
+
+    private static int compare(Node a, Node b) {
+        int order = Double.compare(b.score, a.score);
+        return order != 0 ? order : Long.compare(a.userId, b.userId);
+    }
+
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static Node insert(@Nullable Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            split(tree, node);
+            update(node);
+            return node;
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    /**
+     * Dzieli drzewo na elementy poprzedzające węzeł i następujące po nim, zapisując je jako jego poddrzewa.
+     */
+    private static void split(@Nullable Node tree, Node node) {
+        if (tree == null) {
+            node.left = null;
+            node.right = null;
+            return;
+        }
+        if (compare(tree, node) < 0) {
+            split(tree.right, node);
+            tree.right = node.left;
+            update(tree);
+            node.left = tree;
+        } else {
+            split(tree.left, node);
+            tree.left = node.right;
+            update(tree);
+            node.right = tree;
+        }
+    }
+
+    @Nullable
+    private static Node delete(@Nullable Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    @Nullable
+    private static Node merge(@Nullable Node left, @Nullable Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static final class Node {
+
+        private final long userId;
+        private final double score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+
+        @Nullable
+        private Node left;
+
+        @Nullable
+        private Node right;
+
+        private Node(long userId, double score) {
+            this.userId = userId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("loadSyntheticData")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+class LoaderConfig {
+
+}
@@ -0,0 +1,285 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Generator danych syntetycznych do testów obciążeniowych. Jeżeli aplikacja zostanie uruchomiona z profilem
+ * `loadSyntheticData`, to na starcie wypełni bazę danych zadaną liczbą użytkowników i treningów
+ * ({@link SyntheticDataProperties}). Dane generowane są równolegle porcjami, z których każda ma własny generator
+ * liczb losowych wyprowadzony z ziarna i numeru porcji - wynik nie zależy więc od liczby wątków ani kolejności
+ * wykonania porcji. Identyfikatory użytkowników i treningów wyznaczane są z numeru wiersza (kolejne wartości za
+ * danymi istniejącymi przed załadowaniem), a treningi przypisywane są użytkownikom według numeru wiersza użytkownika.
+ * Wiersze zapisywane są wsadowo przez JDBC, z pominięciem JPA; po zapisie licznik kolumny {@code users.id}
+ * i sekwencja {@code training_seq} przesuwane są za wstawione identyfikatory.
+ * <p>
+ * Rozkłady: typ aktywności według popularności, prędkość z rozkładu normalnego właściwego dla aktywności, czas trwania
+ * z rozkładu logarytmiczno-normalnego, pora rozpoczęcia skupiona rano i wieczorem, wiek użytkowników wokół 35 lat.
+ * <p>
+ * Zapis z pominięciem JPA nie publikuje zdarzeń zapisu treningów, więc po załadowaniu danych przeliczane są
+ * statystyki użytkowników. Rankingi i indeksy użytkowników budowane są po starcie aplikacji; agregaty okresowe
+ * można przeliczyć przez {@code POST /v1/statistics/rollups/rebuild}.
+ */
+@Component
+@Profile("loadSyntheticData")
+@Slf4j
+class SyntheticDataLoader {
+
+    static final String EMAIL_DOMAIN = "synthetic.fitnesstracker.local";
+
+    private static final String INSERT_USER = "insert into users (id, first_name, last_name, birthdate, email, normalized_email, version) "
+            + "values (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_TRAINING = "insert into training "
+            + "(id, user_id, start_time, end_time, activity_type, distance, average_speed, version) values (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String NEXT_TRAINING_ID = "select next value for training_seq";
+    private static final String RESTART_USER_ID = "alter table users alter column id restart with %d";
+    private static final String RESTART_TRAINING_SEQ = "alter sequence training_seq restart with %d";
+
+    /**
+     * Krok sekwencji {@code training_seq} - musi być zgodny z {@code allocationSize} encji treningu.
+     */
+    private static final int TRAINING_ID_BLOCK = 50;
+
+    private static final String[] FIRST_NAMES = {"Anna", "Piotr", "Katarzyna", "Tomasz", "Maria", "Krzysztof",
+            "Agnieszka", "Paweł", "Magdalena", "Michał", "Joanna", "Marcin", "Ewa", "Jakub", "Zofia", "Jan"};
+    private static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wiśniewski", "Wójcik", "Kowalczyk",
+            "Kamiński", "Lewandowski", "Zieliński", "Szymański", "Woźniak", "Dąbrowski", "Kozłowski"};
+
+    private static final ActivityProfile[] ACTIVITIES = {
+            new ActivityProfile(ActivityType.RUNNING, 0.35, 10.0, 1.5, 40),
+            new ActivityProfile(ActivityType.CYCLING, 0.25, 22.0, 4.0, 75),
+            new ActivityProfile(ActivityType.WALKING, 0.25, 5.0, 0.7, 50),
+            new ActivityProfile(ActivityType.SWIMMING, 0.10, 2.5, 0.5, 35),
+            new ActivityProfile(ActivityType.TENNIS, 0.05, 6.0, 1.0, 60)
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyntheticDataProperties properties;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @EventListener
+    public void loadSyntheticData(ContextRefreshedEvent event) {
+        log.info("Generating {} users with ~{} trainings each using {} threads (seed {})",
+                properties.getUsers(), properties.getTrainingsPerUser(), properties.getThreads(), properties.getSeed());
+
+        int users = properties.getUsers();
+        long firstUserId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from users", Long.class) + 1;
+        long start = System.nanoTime();
+        runInChunks(users, chunk -> insertUsers(firstUserId, chunk));
+        jdbcTemplate.execute(RESTART_USER_ID.formatted(firstUserId + users));
+        report("users", users, start);
+
+        // Identyfikatory do v włącznie mogą należeć do bloków przydzielonych wcześniej przez Hibernate.
+        long firstTrainingId = jdbcTemplate.queryForObject(NEXT_TRAINING_ID, Long.class) + 1;
+        long[] chunkFirstTrainingIds = chunkFirstTrainingIds(firstTrainingId);
+        long trainings = chunkFirstTrainingIds[chunkFirstTrainingIds.length - 1] - firstTrainingId;
+        start = System.nanoTime();
+        runInChunks(users, chunk -> insertTrainings(firstUserId, chunkFirstTrainingIds[chunk], chunk));
+        jdbcTemplate.execute(RESTART_TRAINING_SEQ.formatted(firstTrainingId + trainings - 1 + TRAINING_ID_BLOCK));
+        report("trainings", trainings, start);
+
+        start = System.nanoTime();
+        int statistics = statisticsService.rebuildAllStatistics();
+        report("statistics", statistics, start);
+    }
+
+    private void insertUsers(long firstUserId, int chunk) {
+        SplittableRandom random = random(0, chunk);
+        int first = chunk * properties.getBatchSize();
+        int last = Math.min(properties.getUsers(), first + properties.getBatchSize());
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int age = (int) Math.round(clamp(gaussian(random, 35, 12), 16, 85));
+            LocalDate birthdate = today.minusYears(age).minusDays(random.nextInt(365));
+            String email = "%s.%s.%d@%s".formatted(firstName, lastName, i, EMAIL_DOMAIN);
+            rows.add(new Object[]{firstUserId + i, firstName, lastName, Date.valueOf(birthdate), email, User.normalizeEmail(email)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+    }
+
+    /**
+     * Wyznacza identyfikator pierwszego treningu każdej porcji użytkowników: liczby treningów użytkowników losowane są
+     * osobnym generatorem porcji, więc można je zsumować przed zapisem. Ostatni element tablicy to identyfikator
+     * następny po ostatnim treningu.
+     */
+    private long[] chunkFirstTrainingIds(long firstTrainingId) {
+        int chunks = chunks(properties.getUsers());
+        long[] firstIds = new long[chunks + 1];
+        firstIds[0] = firstTrainingId;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            firstIds[chunk + 1] = firstIds[chunk] + trainingCounts(chunk).stream().mapToLong(Integer::longValue).sum();
+        }
+        return firstIds;
+    }
+
+    /**
+     * Losuje liczby treningów kolejnych użytkowników porcji.
+     */
+    private List<Integer> trainingCounts(int chunk) {
+        SplittableRandom random = random(2, chunk);
+        int first = chunk * properties.getBatchSize();
+        int last = Math.min(properties.getUsers(), first + properties.getBatchSize());
+        int trainingsPerUser = properties.getTrainingsPerUser();
+        List<Integer> counts = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            counts.add(trainingsPerUser == 0 ? 0 : trainingsPerUser / 2 + random.nextInt(trainingsPerUser + 1));
+        }
+        return counts;
+    }
+
+    private void insertTrainings(long firstUserId, long firstTrainingId, int chunk) {
+        SplittableRandom random = random(1, chunk);
+        int first = chunk * properties.getBatchSize();
+        List<Integer> counts = trainingCounts(chunk);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(properties.getBatchSize());
+        long id = firstTrainingId;
+        for (int i = 0; i < counts.size(); i++) {
+            for (int t = 0; t < counts.get(i); t++) {
+                rows.add(training(random, id++, firstUserId + first + i, now));
+                if (rows.size() == properties.getBatchSize()) {
+                    flush(rows);
+                }
+            }
+        }
+        flush(rows);
+    }
+
+    private Object[] training(SplittableRandom random, long id, long userId, LocalDateTime now) {
+        ActivityProfile activity = activity(random);
+        double speed = clamp(gaussian(random, activity.meanSpeed(), activity.speedDeviation()), activity.meanSpeed() / 3, activity.meanSpeed() * 2);
+        double minutes = clamp(activity.medianMinutes() * Math.exp(gaussian(random, 0, 0.4)), 5, 600);
+        LocalDateTime startTime = now.toLocalDate()
+                .minusDays(random.nextInt(Math.max(1, properties.getDays())))
+                .atTime(startHour(random), random.nextInt(60));
+        LocalDateTime endTime = startTime.plusSeconds(Math.round(minutes * 60));
+        double distance = Math.round(speed * minutes / 60 * 100) / 100.0;
+        return new Object[]{id, userId, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                activity.type().name(), distance, Math.round(speed * 100) / 100.0};
+    }
+
+    private void flush(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRAINING, rows);
+        rows.clear();
+    }
+
+    /**
+     * Wykonuje zadanie dla kolejnych porcji po {@code batchSize} elementów na puli wątków.
+     */
+    private void runInChunks(int size, IntConsumer task) {
+        int chunks = chunks(size);
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int current = chunk;
+                futures.add(executor.submit(() -> task.accept(current)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating synthetic data", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int chunks(int size) {
+        return (size + properties.getBatchSize() - 1) / properties.getBatchSize();
+    }
+
+    /**
+     * Zwraca generator dla porcji, wyprowadzony z ziarna, rodzaju danych i numeru porcji.
+     */
+    private SplittableRandom random(int stream, int chunk) {
+        long seed = properties.getSeed();
+        seed = seed * 0x9E3779B97F4A7C15L + stream;
+        seed = seed * 0x9E3779B97F4A7C15L + chunk;
+        return new SplittableRandom(seed);
+    }
+
+    private static ActivityProfile activity(SplittableRandom random) {
+        double roll = random.nextDouble();
+        for (ActivityProfile activity : ACTIVITIES) {
+            roll -= activity.share();
+            if (roll < 0) {
+                return activity;
+            }
+        }
+        return ACTIVITIES[0];
+    }
+
+    private static int startHour(SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll < 0.35) {
+            return 6 + random.nextInt(3);
+        }
+        return roll < 0.85 ? 17 + random.nextInt(4) : 9 + random.nextInt(8);
+    }
+
+    private static double gaussian(SplittableRandom random, double mean, double deviation) {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return mean + deviation * Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static void report(String what, long rows, long startNanos) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        log.info("Inserted {} {} in {} ms ({} rows/s)", rows, what,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), Math.round(rows / seconds));
+    }
+
+    /**
+     * Profil aktywności używany przy losowaniu treningów.
+     *
+     * @param type typ aktywności
+     * @param share udział w liczbie treningów
+     * @param meanSpeed średnia prędkość w km/h
+     * @param speedDeviation odchylenie standardowe prędkości
+     * @param medianMinutes mediana czasu trwania w minutach
+     */
+    private record ActivityProfile(ActivityType type, double share, double meanSpeed, double speedDeviation, double medianMinutes) {
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Konfiguracja generatora danych syntetycznych ({@link SyntheticDataLoader}).
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.synthetic-data")
+@Getter
+class SyntheticDataProperties {
+
+    /**
+     * Liczba generowanych użytkowników.
+     */
+    private final int users;
+
+    /**
+     * Średnia liczba treningów na użytkownika; rzeczywista liczba losowana jest z przedziału od połowy do półtorej średniej.
+     */
+    private final int trainingsPerUser;
+
+    /**
+     * Liczba dni wstecz od dziś, z których losowane są daty treningów.
+     */
+    private final int days;
+
+    /**
+     * Ziarno generatora liczb losowych. Te same ustawienia dają te same dane niezależnie od liczby wątków.
+     */
+    private final long seed;
+
+    /**
+     * Liczba wierszy w jednym wsadzie JDBC, a zarazem w jednej porcji generowanej przez wątek.
+     */
+    private final int batchSize;
+
+    /**
+     * Liczba wątków generujących i zapisujących dane; 0 oznacza liczbę dostępnych procesorów.
+     */
+    private final int threads;
+
+    SyntheticDataProperties(@DefaultValue("10000") int users,
+                            @DefaultValue("20") int trainingsPerUser,
+                            @DefaultValue("365") int days,
+                            @DefaultValue("42") long seed,
+                            @DefaultValue("1000") int batchSize,
+                            @DefaultValue("0") int threads) {
+        this.users = users;
+        this.trainingsPerUser = trainingsPerUser;
+        this.days = days;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+}
@@ -1,21 +1,32 @@
 package com.capgemini.wsb.fitnesstracker.logging;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 
 /**
  * Aspekt LoggingAspect służy do logowania działania metod w serwisach.
- * Loguje informacje przed i po wykonaniu publicznych metod w klasach oznaczonych adnotacją {@link org.springframework.stereotype.Service}.
+ * Dla publicznych metod w klasach oznaczonych adnotacją {@link org.springframework.stereotype.Service} loguje
+ * sygnaturę metody, podsumowanie zwróconej wartości (typ i rozmiar kolekcji, nigdy {@code toString()} encji)
+ * oraz czas wykonania. Gdy poziom INFO jest wyłączony, aspekt jedynie wywołuje metodę. Odsetek logowanych wywołań
+ * można ustawić globalnie i dla poszczególnych metod ({@link LoggingProperties}).
  *
  * @author Wiktor Marciniak
- * @version 1.0
+ * @version 2.0
  */
 @Aspect
 @Component
@@ -23,30 +34,90 @@ public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
+    private final LoggingProperties properties;
+
+    private final Map<Method, MethodPolicy> policies = new ConcurrentHashMap<>();
+
+    public LoggingAspect(LoggingProperties properties) {
+        this.properties = properties;
+    }
+
     /**
-     * Loguje informację przed wykonaniem każdej publicznej metody w serwisach.
-     * Format loga to 'Before method: typZwracany nazwaKlasy.nazwaMetody(typParametru nazwaParametru, ...)'.
+     * Wywołuje metodę serwisu i loguje jej wynik oraz czas wykonania.
+     * Format loga to 'Method: NazwaKlasy.nazwaMetody(..) returned: podsumowanie in: czas µs'.
      *
      * @param joinPoint dostarcza informacji kontekstowych o przeciętym punkcie wykonania.
+     * @return obiekt zwrócony przez przeciętą metodę.
+     * @throws Throwable wyjątek rzucony przez przeciętą metodę.
      */
-    @Before("execution(public * com.capgemini.wsb.fitnesstracker..*.*(..)) && within(@org.springframework.stereotype.Service *)")
-    public void logMethodCall(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String methodName = signature.toShortString();
-        logger.info("Before method: " + methodName);
+    @Around("execution(public * com.capgemini.wsb.fitnesstracker..*.*(..)) && within(@org.springframework.stereotype.Service *)")
+    public Object logMethodCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!logger.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
+        MethodPolicy policy = policies.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::policy);
+        if (!policy.sampled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            logger.info("Method: {} returned: {} in: {} µs", policy.name(), summary(result), elapsedMicros(start));
+            return result;
+        } catch (Throwable e) {
+            logger.info("Method: {} threw: {} in: {} µs", policy.name(), e.getClass().getSimpleName(), elapsedMicros(start));
+            throw e;
+        }
     }
 
     /**
-     * Loguje informację po wykonaniu metody w serwisach.
-     * Format loga to 'After method: typZwracany nazwaKlasy.nazwaMetody(typParametru nazwaParametru, ...) returned: wartośćZwracana'.
+     * Zwraca krótkie podsumowanie wartości, bez wywoływania {@code toString()} na obiektach domenowych.
      *
-     * @param joinPoint dostarcza informacji kontekstowych o przeciętym punkcie wykonania.
-     * @param result obiekt zwrócony przez przeciętą metodę.
+     * @param result wartość zwrócona przez metodę
+     * @return podsumowanie wartości
      */
-    @AfterReturning(pointcut = "execution(public * com.capgemini.wsb.fitnesstracker..*.*(..)) && within(@org.springframework.stereotype.Service *)", returning = "result")
-    public void logMethodReturn(JoinPoint joinPoint, Object result) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String methodName = signature.toShortString();
-        logger.info("After method: " + methodName + " returned: " + result);
+    static String summary(Object result) {
+        if (result == null) {
+            return "null";
+        }
+        if (result instanceof Collection<?> collection) {
+            return result.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (result instanceof Map<?, ?> map) {
+            return result.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.map(value -> "Optional[" + value.getClass().getSimpleName() + "]").orElse("Optional.empty");
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Enum<?>) {
+            return result.toString();
+        }
+        if (result instanceof CharSequence text) {
+            return "String[length=" + text.length() + "]";
+        }
+        if (result.getClass().isArray()) {
+            return result.getClass().getComponentType().getSimpleName() + "[length=" + Array.getLength(result) + "]";
+        }
+        return result.getClass().getSimpleName();
+    }
+
+    private MethodPolicy policy(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        return new MethodPolicy(className + "." + method.getName() + "(..)",
+                properties.sampleRate(className, method.getName()));
+    }
+
+    private static long elapsedMicros(long start) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+    }
+
+    /**
+     * Nazwa metody do logów i odsetek logowanych wywołań, wyznaczane raz dla każdej metody.
+     */
+    private record MethodPolicy(String name, double sampleRate) {
+
+        boolean sampled() {
+            return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
     }
 }
@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({LoggingProperties.class, MetricsProperties.class})
+class LoggingConfig {
+
+}
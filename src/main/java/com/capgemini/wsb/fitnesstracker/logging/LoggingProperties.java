@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Konfiguracja aspektu {@link LoggingAspect}.
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.logging")
+@Getter
+public class LoggingProperties {
+
+    /**
+     * Odsetek wywołań metod serwisów, które są logowane (od 0.0 do 1.0).
+     */
+    private final double sampleRate;
+
+    /**
+     * Odsetek logowanych wywołań dla wybranych metod, w postaci {@code NazwaKlasy.nazwaMetody: odsetek}.
+     * Nadpisuje {@link #sampleRate}.
+     */
+    private final Map<String, Double> sampleRates;
+
+    public LoggingProperties(@DefaultValue("1.0") double sampleRate, @DefaultValue Map<String, Double> sampleRates) {
+        this.sampleRate = sampleRate;
+        this.sampleRates = sampleRates;
+    }
+
+    /**
+     * Zwraca odsetek logowanych wywołań metody.
+     *
+     * @param className prosta nazwa klasy
+     * @param methodName nazwa metody
+     * @return odsetek logowanych wywołań
+     */
+    double sampleRate(String className, String methodName) {
+        return sampleRates.getOrDefault(className + "." + methodName, sampleRate);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspekt MetricsAspect mierzy czas wykonania publicznych metod {@code TrainingServiceImpl}, {@code UserServiceImpl}
+ * oraz wszystkich endpointów REST. Czasy trafiają do timera Micrometera {@value #TIMER_NAME} (histogram oraz percentyle
+ * p50, p99 i p999, z tagami {@code class}, {@code method} i {@code outcome}), a wywołania wolniejsze niż
+ * {@link MetricsProperties#getSlowThreshold()} do {@link SlowInvocationRecorder}.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    static final String TIMER_NAME = "fitnesstracker.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final SlowInvocationRecorder recorder;
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    MetricsAspect(MeterRegistry meterRegistry, SlowInvocationRecorder recorder) {
+        this.meterRegistry = meterRegistry;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Wywołuje metodę i rejestruje czas jej wykonania.
+     *
+     * @param joinPoint dostarcza informacji kontekstowych o przeciętym punkcie wykonania.
+     * @return obiekt zwrócony przez przeciętą metodę.
+     * @throws Throwable wyjątek rzucony przez przeciętą metodę.
+     */
+    @Around("execution(public * com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl.*(..))"
+            + " || execution(public * com.capgemini.wsb.fitnesstracker.user.internal.UserServiceImpl.*(..))"
+            + " || (execution(public * com.capgemini.wsb.fitnesstracker..*.*(..))"
+            + " && within(@org.springframework.web.bind.annotation.RestController *))")
+    public Object timeMethodCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimers methodTimers = timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::timers);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            methodTimers.record(duration, failed);
+            recorder.record(methodTimers.name(), joinPoint.getArgs(), duration, failed);
+        }
+    }
+
+    private MethodTimers timers(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        return new MethodTimers(className + "." + method.getName() + "(..)",
+                timer(className, method.getName(), "success"),
+                timer(className, method.getName(), "error"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Execution time of service methods and REST endpoints")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Timery jednej metody, tworzone raz przy pierwszym wywołaniu.
+     */
+    private record MethodTimers(String name, Timer success, Timer error) {
+
+        void record(long durationNanos, boolean failed) {
+            (failed ? error : success).record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Konfiguracja aspektu {@link MetricsAspect} i endpointu {@link SlowInvocationsEndpoint}.
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.metrics")
+@Getter
+public class MetricsProperties {
+
+    /**
+     * Czas wykonania, powyżej którego wywołanie trafia do listy najwolniejszych wywołań.
+     */
+    private final Duration slowThreshold;
+
+    /**
+     * Liczba ostatnich wolnych wywołań przechowywanych w pamięci.
+     */
+    private final int slowInvocationsCapacity;
+
+    public MetricsProperties(@DefaultValue("100ms") Duration slowThreshold,
+                             @DefaultValue("100") int slowInvocationsCapacity) {
+        this.slowThreshold = slowThreshold;
+        this.slowInvocationsCapacity = slowInvocationsCapacity;
+    }
+
+}
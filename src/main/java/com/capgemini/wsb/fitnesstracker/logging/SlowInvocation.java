@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Wolne wywołanie metody serwisu lub endpointu.
+ *
+ * @param method    nazwa metody w postaci {@code NazwaKlasy.nazwaMetody(..)}
+ * @param arguments podsumowanie argumentów (typy i rozmiary, bez {@code toString()} obiektów domenowych)
+ * @param durationMillis czas wykonania w milisekundach
+ * @param failed    czy metoda zakończyła się wyjątkiem
+ * @param timestamp moment zakończenia wywołania
+ */
+public record SlowInvocation(String method, List<String> arguments, double durationMillis, boolean failed, Instant timestamp) {
+
+}
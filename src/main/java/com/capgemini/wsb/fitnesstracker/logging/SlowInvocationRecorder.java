@@ -0,0 +1,72 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Przechowuje ostatnie wywołania, których czas wykonania przekroczył {@link MetricsProperties#getSlowThreshold()}.
+ * Argumenty są podsumowywane tylko dla wolnych wywołań, więc szybka ścieżka sprowadza się do jednego porównania.
+ */
+@Component
+class SlowInvocationRecorder {
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<SlowInvocation> invocations;
+
+    SlowInvocationRecorder(MetricsProperties properties) {
+        this.thresholdNanos = properties.getSlowThreshold().toNanos();
+        this.capacity = properties.getSlowInvocationsCapacity();
+        this.invocations = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Zapisuje wywołanie, jeżeli było wolniejsze niż próg.
+     *
+     * @param method      nazwa metody
+     * @param arguments   argumenty wywołania
+     * @param durationNanos czas wykonania w nanosekundach
+     * @param failed      czy metoda zakończyła się wyjątkiem
+     */
+    void record(String method, Object[] arguments, long durationNanos, boolean failed) {
+        if (durationNanos < thresholdNanos || capacity == 0) {
+            return;
+        }
+        List<String> summary = Arrays.stream(arguments).map(LoggingAspect::summary).toList();
+        SlowInvocation invocation = new SlowInvocation(method, summary, durationNanos / 1_000_000.0, failed, Instant.now());
+        synchronized (invocations) {
+            if (invocations.size() == capacity) {
+                invocations.removeFirst();
+            }
+            invocations.addLast(invocation);
+        }
+    }
+
+    /**
+     * Zwraca zapamiętane wolne wywołania, od najwolniejszego.
+     *
+     * @return lista wolnych wywołań
+     */
+    List<SlowInvocation> slowest() {
+        List<SlowInvocation> snapshot;
+        synchronized (invocations) {
+            snapshot = List.copyOf(invocations);
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparingDouble(SlowInvocation::durationMillis).reversed())
+                .toList();
+    }
+
+    void clear() {
+        synchronized (invocations) {
+            invocations.clear();
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint Actuatora {@code /actuator/slowinvocations}, który zwraca ostatnie najwolniejsze wywołania
+ * metod serwisów i endpointów. Operacja DELETE czyści listę.
+ */
+@Component
+@Endpoint(id = "slowinvocations")
+class SlowInvocationsEndpoint {
+
+    private final SlowInvocationRecorder recorder;
+
+    SlowInvocationsEndpoint(SlowInvocationRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowInvocation> slowInvocations() {
+        return recorder.slowest();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+
+}
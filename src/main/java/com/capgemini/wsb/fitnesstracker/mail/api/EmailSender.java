@@ -1,5 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.mail.api;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * API interface for component responsible for sending emails.
  */
@@ -9,7 +11,11 @@ public interface EmailSender {
      * Sends the email message to the recipient from the provided {@link EmailDto}.
      *
      * @param email information on email to be sent
+     * @return future completed when the email has been delivered to the mail server, or exceptionally when
+     * it could not be delivered
+     * @throws org.springframework.mail.MailException if the email cannot be accepted for sending, e.g. because
+     * the sender is overloaded or stopped
      */
-    void send(EmailDto email);
+    CompletableFuture<Void> send(EmailDto email);
 
 }
@@ -0,0 +1,223 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous {@link EmailSender} backed by a bounded queue and a pool of worker threads.
+ * <p>
+ * Each worker takes up to {@link MailProperties#getBatchSize()} queued emails and sends them in a single
+ * {@link JavaMailSender#send(SimpleMailMessage...)} call, which opens one SMTP connection for the whole batch.
+ * Emails rejected by the server or lost on a broken connection are retried with exponential backoff;
+ * authentication and message preparation errors are not retried. When the queue is full, {@link #send(EmailDto)}
+ * blocks for up to {@link MailProperties#getOfferTimeout()} and then fails, pushing back on the caller.
+ * The future returned for every queued email completes once the SMTP server accepts it, or exceptionally once the
+ * email is dropped.
+ * <p>
+ * Exposes the {@code mail.queue.size} gauge, {@code mail.sent}, {@code mail.retried} and {@code mail.failed}
+ * counters and the {@code mail.batch} timer.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spring.mail", name = "host")
+@Slf4j
+class AsyncEmailSender implements EmailSender, SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final JavaMailSender mailSender;
+    private final MailProperties properties;
+    private final BlockingQueue<QueuedEmail> queue;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private volatile ExecutorService workers;
+
+    AsyncEmailSender(JavaMailSender mailSender, MailProperties properties, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        this.sent = Counter.builder("mail.sent").description("Emails accepted by the SMTP server").register(meterRegistry);
+        this.retried = Counter.builder("mail.retried").description("Email send retries").register(meterRegistry);
+        this.failed = Counter.builder("mail.failed").description("Emails dropped after failed attempts").register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.batch").description("Time to send one batch over a single connection").register(meterRegistry);
+    }
+
+    /**
+     * Queues the email for sending.
+     *
+     * @param email information on email to be sent
+     * @return future completed when the SMTP server accepts the email, or exceptionally when it is dropped
+     * @throws MailSendException if the sender is stopped or the queue stays full for longer than the offer timeout
+     */
+    @Override
+    public CompletableFuture<Void> send(EmailDto email) {
+        if (workers != null && !running) {
+            throw new MailSendException("Email sender is stopped");
+        }
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.getFrom());
+        message.setTo(email.toAddress());
+        message.setSubject(email.subject());
+        message.setText(email.content());
+        QueuedEmail queued = new QueuedEmail(message, new CompletableFuture<>());
+        try {
+            if (!queue.offer(queued, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Email queue is full (%d messages)".formatted(properties.getQueueCapacity()));
+            }
+            return queued.delivery();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while queueing email", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), task -> {
+            Thread thread = new Thread(task, "mail-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Stops accepting work once the queue is drained and waits for the workers to finish the last batches.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.getOfferTimeout().toMillis() + 30_000, TimeUnit.MILLISECONDS)) {
+                log.warn("Email workers stopped with {} emails still queued", queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return number of emails waiting to be sent
+     */
+    int queueSize() {
+        return queue.size();
+    }
+
+    private void work() {
+        List<QueuedEmail> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEmail first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<QueuedEmail> batch) throws InterruptedException {
+        List<QueuedEmail> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            SimpleMailMessage[] messages = pending.stream().map(QueuedEmail::message).toArray(SimpleMailMessage[]::new);
+            try {
+                batchTimer.record(() -> mailSender.send(messages));
+                delivered(pending);
+                return;
+            } catch (MailSendException e) {
+                List<QueuedEmail> rejected = failedEmails(e, pending);
+                delivered(pending.stream().filter(email -> !rejected.contains(email)).toList());
+                if (attempt >= properties.getMaxAttempts()) {
+                    dropped(rejected, e);
+                    log.error("Dropping {} emails after {} attempts", rejected.size(), attempt, e);
+                    return;
+                }
+                retried.increment(rejected.size());
+                pending = rejected;
+                Thread.sleep(properties.getRetryBackoff().toMillis() << (attempt - 1));
+            } catch (MailException e) {
+                dropped(pending, e);
+                log.error("Dropping {} emails after a non-retryable failure", messages.length, e);
+                return;
+            }
+        }
+    }
+
+    private void delivered(List<QueuedEmail> emails) {
+        sent.increment(emails.size());
+        emails.forEach(email -> email.delivery().complete(null));
+    }
+
+    private void dropped(List<QueuedEmail> emails, MailException cause) {
+        failed.increment(emails.size());
+        emails.forEach(email -> email.delivery().completeExceptionally(cause));
+    }
+
+    private static List<QueuedEmail> failedEmails(MailSendException exception, List<QueuedEmail> attempted) {
+        if (exception.getFailedMessages().isEmpty()) {
+            return attempted;
+        }
+        Set<Object> failedMessages = Collections.newSetFromMap(new IdentityHashMap<>());
+        failedMessages.addAll(exception.getFailedMessages().keySet());
+        List<QueuedEmail> failedEmails = attempted.stream()
+                .filter(email -> failedMessages.contains(email.message()))
+                .toList();
+        return failedEmails.isEmpty() ? attempted : failedEmails;
+    }
+
+    /**
+     * Queued email with the future completed when its delivery ends.
+     */
+    private record QueuedEmail(SimpleMailMessage message, CompletableFuture<Void> delivery) {}
+}
@@ -2,16 +2,17 @@ package com.capgemini.wsb.fitnesstracker.mail.internal;
 
 import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.Duration;
+
 /**
  * Configuration of the {@link EmailSender} (additional to the Spring mail configuration for {@link JavaMailSender} bean autoconfiguration).
  */
 @ConfigurationProperties(prefix = "mail")
 @Getter
-@RequiredArgsConstructor
 class MailProperties {
 
     /**
@@ -19,4 +20,50 @@ class MailProperties {
      */
     private final String from;
 
+    /**
+     * Maximum number of emails waiting to be sent.
+     */
+    private final int queueCapacity;
+
+    /**
+     * How long {@link EmailSender#send} waits for free space in a full queue before failing.
+     */
+    private final Duration offerTimeout;
+
+    /**
+     * Number of worker threads sending emails.
+     */
+    private final int workers;
+
+    /**
+     * Maximum number of emails sent over a single SMTP connection.
+     */
+    private final int batchSize;
+
+    /**
+     * Number of attempts to send an email before it is dropped.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Delay before the first retry, doubled for every following one.
+     */
+    private final Duration retryBackoff;
+
+    MailProperties(String from,
+                   @DefaultValue("10000") int queueCapacity,
+                   @DefaultValue("1s") Duration offerTimeout,
+                   @DefaultValue("2") int workers,
+                   @DefaultValue("50") int batchSize,
+                   @DefaultValue("3") int maxAttempts,
+                   @DefaultValue("500ms") Duration retryBackoff) {
+        this.from = from;
+        this.queueCapacity = queueCapacity;
+        this.offerTimeout = offerTimeout;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
 }
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableAsync
+@EnableConfigurationProperties(WeeklyReportProperties.class)
+class NotificationConfig {
+
+}
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Formatuje raport jako jeden łańcuch znaków w postaci zwykłego tekstu.
+ */
+@Component
+class PlainTextWeeklyReportFormatter implements WeeklyReportFormatter {
+
+    @Override
+    public EmailDto format(WeeklyReport report) {
+        String activities = report.trainingsByActivity().entrySet().stream()
+                .map(entry -> "%s: %d".formatted(entry.getKey().getDisplayName(), entry.getValue()))
+                .collect(Collectors.joining(", "));
+        String content = """
+                Hi %s,
+                in the week starting %s you completed %d trainings (%s),
+                spending %d h %02d min on activities and covering %.2f km.
+                """.formatted(report.firstName(),
+                report.weekStart(),
+                report.trainings(),
+                activities,
+                report.totalDuration().toHours(),
+                report.totalDuration().toMinutesPart(),
+                report.totalDistance());
+        return new EmailDto(report.email(), "Your weekly training summary (%s)".formatted(report.weekStart()), content);
+    }
+}
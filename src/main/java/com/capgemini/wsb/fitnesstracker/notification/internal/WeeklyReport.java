@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Podsumowanie treningów użytkownika w jednym tygodniu.
+ *
+ * @param email adres e-mail użytkownika
+ * @param firstName imię użytkownika
+ * @param weekStart pierwszy dzień tygodnia
+ * @param trainings liczba treningów
+ * @param totalDuration łączny czas treningów
+ * @param totalDistance łączny dystans
+ * @param trainingsByActivity liczba treningów według typu aktywności
+ */
+record WeeklyReport(String email,
+                    String firstName,
+                    LocalDate weekStart,
+                    int trainings,
+                    Duration totalDuration,
+                    double totalDistance,
+                    Map<ActivityType, Integer> trainingsByActivity) {
+
+    /**
+     * Tworzy podsumowanie na podstawie treningów użytkownika z danego tygodnia.
+     *
+     * @param user użytkownik
+     * @param weekStart pierwszy dzień tygodnia
+     * @param trainings treningi użytkownika zakończone w tym tygodniu
+     * @return podsumowanie tygodnia
+     */
+    static WeeklyReport of(User user, LocalDate weekStart, List<TrainingSnapshot> trainings) {
+        long durationMillis = 0;
+        double distance = 0;
+        Map<ActivityType, Integer> byActivity = new EnumMap<>(ActivityType.class);
+        for (TrainingSnapshot training : trainings) {
+            durationMillis += Math.max(training.durationMillis(), 0L);
+            distance += training.distance();
+            byActivity.merge(training.activityType(), 1, Integer::sum);
+        }
+        return new WeeklyReport(user.getEmail(), user.getFirstName(), weekStart, trainings.size(),
+                Duration.ofMillis(durationMillis), distance, byActivity);
+    }
+}
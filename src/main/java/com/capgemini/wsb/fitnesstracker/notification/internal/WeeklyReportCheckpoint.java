@@ -0,0 +1,60 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Punkt kontrolny raportu za jeden tydzień. Zapisywany po każdej przetworzonej porcji użytkowników,
+ * dzięki czemu przerwane zadanie wznawia pracę od pierwszego nieprzetworzonego użytkownika.
+ */
+@Entity
+@Table(name = "weekly_report_checkpoint")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class WeeklyReportCheckpoint {
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId;
+
+    @Column(name = "reports_sent", nullable = false)
+    private long reportsSent;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Date updatedAt;
+
+    WeeklyReportCheckpoint(LocalDate weekStart) {
+        this.weekStart = weekStart;
+        this.updatedAt = new Date();
+    }
+
+    /**
+     * Odnotowuje przetworzenie porcji użytkowników.
+     *
+     * @param lastUserId identyfikator ostatniego użytkownika porcji
+     * @param reports liczba raportów przyjętych przez serwer pocztowy
+     */
+    void advance(long lastUserId, int reports) {
+        this.lastUserId = lastUserId;
+        this.reportsSent += reports;
+        this.updatedAt = new Date();
+    }
+
+    void complete() {
+        this.completed = true;
+        this.updatedAt = new Date();
+    }
+}
@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repozytorium JPA dla encji {@link WeeklyReportCheckpoint}.
+ */
+interface WeeklyReportCheckpointRepository extends JpaRepository<WeeklyReportCheckpoint, LocalDate> {
+
+    /**
+     * @return Punkty kontrolne raportów, których generowanie zostało przerwane.
+     */
+    List<WeeklyReportCheckpoint> findByCompletedFalse();
+}
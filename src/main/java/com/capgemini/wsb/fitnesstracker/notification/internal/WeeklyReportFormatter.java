@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+
+/**
+ * Zamienia podsumowanie tygodnia na wiadomość e-mail. Pozwala zmienić format raportu bez zmiany zadania,
+ * które go generuje.
+ */
+interface WeeklyReportFormatter {
+
+    /**
+     * @param report podsumowanie tygodnia
+     * @return wiadomość do wysłania
+     */
+    EmailDto format(WeeklyReport report);
+}
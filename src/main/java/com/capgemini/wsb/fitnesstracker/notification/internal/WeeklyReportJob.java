@@ -0,0 +1,210 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Zadanie wysyłające użytkownikom cotygodniowe podsumowanie treningów.
+ * <p>
+ * Użytkownicy są czytani porcjami stronicowanymi po identyfikatorze. Dla każdej porcji treningi z danego tygodnia
+ * pobierane są jednym zapytaniem obejmującym zakres identyfikatorów porcji, raporty składane są równolegle,
+ * a gotowe wiadomości przekazywane do {@link EmailSender}. Gdy kolejka nadawcy jest pełna, przekazanie jest
+ * ponawiane. Punkt kontrolny porcji zapisywany jest dopiero wtedy, gdy serwer pocztowy przyjął wszystkie jej raporty
+ * albo nadawca odrzucił je po wyczerpaniu prób, więc zadanie przerwane np. restartem aplikacji powtarza po wznowieniu
+ * całą niedokończoną porcję: każdy raport jest dostarczany co najmniej raz, a raporty porcji przerwanej w trakcie
+ * wysyłki mogą dotrzeć dwukrotnie. Raporty odrzucone przez nadawcę są jedynie liczone w dzienniku.
+ * Użytkownicy bez treningów w danym tygodniu nie otrzymują raportu.
+ */
+@Component
+@Slf4j
+class WeeklyReportJob {
+
+    private static final long BACKPRESSURE_PAUSE_MILLIS = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private WeeklyReportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private WeeklyReportFormatter formatter;
+
+    @Autowired
+    private WeeklyReportProperties properties;
+
+    @Autowired
+    private ObjectProvider<EmailSender> emailSender;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * Generuje raporty za poprzedni tydzień zgodnie z harmonogramem z konfiguracji aplikacji, wznawiając najpierw
+     * raporty przerwane wcześniej.
+     */
+    @Scheduled(cron = "${fitnesstracker.reports.weekly.cron:0 0 6 * * MON}")
+    public void sendLastWeekReports() {
+        resumeReports();
+        LocalDate lastWeek = LocalDate.now(zone).minusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        sendReports(lastWeek);
+    }
+
+    /**
+     * Wznawia raporty przerwane przed zakończeniem. Działa poza wątkiem startu aplikacji, więc nie opóźnia
+     * gotowości aplikacji.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedReports() {
+        resumeReports();
+    }
+
+    /**
+     * Wysyła raporty za tydzień rozpoczynający się w podanym dniu, zaczynając od punktu kontrolnego.
+     * Uruchomienia są wykonywane pojedynczo.
+     *
+     * @param weekStart poniedziałek raportowanego tygodnia
+     * @return liczba raportów przyjętych przez serwer pocztowy w tym uruchomieniu
+     * @throws IllegalStateException jeśli raporty porcji nie zostały przyjęte lub dostarczone w czasie
+     *                               {@link WeeklyReportProperties#getDeliveryTimeout()}; punkt kontrolny wskazuje
+     *                               wtedy ostatnią w pełni dostarczoną porcję
+     */
+    synchronized int sendReports(LocalDate weekStart) {
+        EmailSender sender = emailSender.getIfAvailable();
+        if (sender == null) {
+            log.warn("Skipping weekly report for {}: no EmailSender is configured", weekStart);
+            return 0;
+        }
+        WeeklyReportCheckpoint checkpoint = checkpointRepository.findById(weekStart)
+                .orElseGet(() -> new WeeklyReportCheckpoint(weekStart));
+        if (checkpoint.isCompleted()) {
+            return 0;
+        }
+        Date from = Date.from(weekStart.atStartOfDay(zone).toInstant());
+        Date to = Date.from(weekStart.plusWeeks(1).atStartOfDay(zone).toInstant());
+        String after = checkpoint.getLastUserId() > 0 ? Cursor.encode(checkpoint.getLastUserId()) : null;
+        int sent = 0;
+        do {
+            CursorPage<User> users = userService.findUsersPage(after, properties.getChunkSize());
+            if (users.items().isEmpty()) {
+                break;
+            }
+            List<EmailDto> reports = assembleReports(users.items(), weekStart, from, to);
+            int delivered = deliver(sender, reports);
+            if (delivered < reports.size()) {
+                log.warn("Weekly report for {}: {} of {} reports were not delivered", weekStart, reports.size() - delivered, reports.size());
+            }
+            sent += delivered;
+            checkpoint.advance(users.items().get(users.items().size() - 1).getId(), delivered);
+            checkpoint = checkpointRepository.save(checkpoint);
+            after = users.nextCursor();
+        } while (after != null);
+        checkpoint.complete();
+        checkpointRepository.save(checkpoint);
+        log.info("Weekly report for {} completed: {} reports in this run, {} in total", weekStart, sent, checkpoint.getReportsSent());
+        return sent;
+    }
+
+    private void resumeReports() {
+        checkpointRepository.findByCompletedFalse().forEach(checkpoint -> {
+            log.info("Resuming weekly report for {} after user {}", checkpoint.getWeekStart(), checkpoint.getLastUserId());
+            try {
+                sendReports(checkpoint.getWeekStart());
+            } catch (IllegalStateException e) {
+                log.error("Weekly report for {} interrupted", checkpoint.getWeekStart(), e);
+            }
+        });
+    }
+
+    /**
+     * Przekazuje raporty porcji nadawcy i czeka na zakończenie ich dostarczania.
+     *
+     * @return liczba raportów przyjętych przez serwer pocztowy
+     */
+    private int deliver(EmailSender sender, List<EmailDto> reports) {
+        long deadline = System.nanoTime() + properties.getDeliveryTimeout().toNanos();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(reports.size());
+        for (EmailDto report : reports) {
+            deliveries.add(enqueue(sender, report, deadline));
+        }
+        try {
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new))
+                    .handle((result, failure) -> null)
+                    .get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Weekly reports were not delivered within " + properties.getDeliveryTimeout(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for weekly report delivery", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return (int) deliveries.stream().filter(delivery -> !delivery.isCompletedExceptionally()).count();
+    }
+
+    /**
+     * Przekazuje raport nadawcy, ponawiając próbę, dopóki nadawca odrzuca go z powodu pełnej kolejki.
+     */
+    private CompletableFuture<Void> enqueue(EmailSender sender, EmailDto report, long deadline) {
+        while (true) {
+            try {
+                return sender.send(report);
+            } catch (MailException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new IllegalStateException("Email sender did not accept weekly reports within "
+                            + properties.getDeliveryTimeout(), e);
+                }
+                log.debug("Email sender is busy, retrying weekly report: {}", e.getMessage());
+                try {
+                    Thread.sleep(BACKPRESSURE_PAUSE_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the email sender", interrupted);
+                }
+            }
+        }
+    }
+
+    private List<EmailDto> assembleReports(List<User> users, LocalDate weekStart, Date from, Date to) {
+        Map<Long, List<TrainingSnapshot>> trainingsByUser = trainingService
+                .findTrainingSnapshots(users.get(0).getId(), users.get(users.size() - 1).getId(), from, to)
+                .stream()
+                .collect(Collectors.groupingBy(TrainingSnapshot::userId));
+        return users.parallelStream()
+                .filter(user -> trainingsByUser.containsKey(user.getId()))
+                .map(user -> formatter.format(WeeklyReport.of(user, weekStart, trainingsByUser.get(user.getId()))))
+                .toList();
+    }
+}
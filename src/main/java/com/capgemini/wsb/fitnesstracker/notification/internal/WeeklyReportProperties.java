@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Konfiguracja cotygodniowego raportu treningów.
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.reports.weekly")
+@Getter
+class WeeklyReportProperties {
+
+    /**
+     * Wyrażenie CRON określające moment generowania raportu za poprzedni tydzień.
+     */
+    private final String cron;
+
+    /**
+     * Liczba użytkowników przetwarzanych w jednej porcji - jedna porcja to jedno zapytanie o treningi
+     * i jeden zapis punktu kontrolnego.
+     */
+    private final int chunkSize;
+
+    /**
+     * Maksymalny czas oczekiwania na przyjęcie i dostarczenie raportów jednej porcji. Po jego upływie uruchomienie
+     * jest przerywane bez przesuwania punktu kontrolnego.
+     */
+    private final Duration deliveryTimeout;
+
+    WeeklyReportProperties(@DefaultValue("0 0 6 * * MON") String cron,
+                           @DefaultValue("500") int chunkSize,
+                           @DefaultValue("10m") Duration deliveryTimeout) {
+        this.cron = cron;
+        this.chunkSize = chunkSize;
+        this.deliveryTimeout = deliveryTimeout;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Narzędzia do obsługi nieprzezroczystych kursorów stronicowania (keyset pagination).
+ * Kursor koduje identyfikator ostatniego zwróconego rekordu, dzięki czemu kolejna strona
+ * jest pobierana zapytaniem {@code WHERE id > :after ORDER BY id LIMIT :limit}, którego koszt
+ * nie zależy od numeru strony ani rozmiaru tabeli.
+ */
+public final class Cursor {
+
+    /**
+     * Domyślny rozmiar strony, gdy klient nie poda parametru {@code limit}.
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /**
+     * Maksymalny rozmiar strony. Większe wartości są przycinane do tego limitu.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Nagłówek odpowiedzi HTTP, w którym zwracany jest kursor kolejnej strony.
+     * Brak nagłówka oznacza, że zwrócona strona jest ostatnia.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final long START = 0L;
+
+    private Cursor() {
+    }
+
+    /**
+     * Koduje identyfikator rekordu do postaci nieprzezroczystego kursora.
+     *
+     * @param id identyfikator ostatniego rekordu na stronie
+     * @return kursor bezpieczny do użycia w adresie URL
+     */
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Koduje pozycję rekordu w porządku {@code (klucz, id)} do postaci nieprzezroczystego kursora.
+     *
+     * @param key klucz sortowania ostatniego rekordu na stronie
+     * @param id identyfikator ostatniego rekordu na stronie
+     * @return kursor bezpieczny do użycia w adresie URL
+     */
+    public static String encode(long key, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Dekoduje kursor zakodowany przez {@link #encode(long, long)} do pozycji, za którą (wyłącznie) ma zacząć się
+     * kolejna strona.
+     *
+     * @param cursor kursor zwrócony wcześniej przez API lub {@code null} dla pierwszej strony
+     * @param startKey klucz, od którego zaczyna się pierwsza strona
+     * @return pozycja ostatniego rekordu poprzedniej strony lub {@code (startKey, 0)} dla pierwszej strony
+     * @throws BusinessException jeśli kursor jest niepoprawny
+     */
+    public static Position decodePosition(@Nullable String cursor, long startKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return new Position(startKey, START);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 2) {
+                throw new BusinessException("Invalid cursor: " + cursor);
+            }
+            long id = Long.parseLong(parts[1]);
+            if (id < START) {
+                throw new BusinessException("Invalid cursor: " + cursor);
+            }
+            return new Position(Long.parseLong(parts[0]), id);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Dekoduje kursor do identyfikatora, od którego (wyłącznie) ma zacząć się kolejna strona.
+     *
+     * @param cursor kursor zwrócony wcześniej przez API lub {@code null} dla pierwszej strony
+     * @return identyfikator ostatniego rekordu poprzedniej strony lub {@code 0} dla pierwszej strony
+     * @throws BusinessException jeśli kursor jest niepoprawny
+     */
+    public static long decode(@Nullable String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (id < START) {
+                throw new BusinessException("Invalid cursor: " + cursor);
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Wyznacza rozmiar strony na podstawie parametru przekazanego przez klienta.
+     *
+     * @param limit żądany rozmiar strony lub {@code null} dla wartości domyślnej
+     * @return rozmiar strony z przedziału {@code [1, MAX_LIMIT]}
+     * @throws BusinessException jeśli żądany rozmiar strony nie jest dodatni
+     */
+    public static int limit(@Nullable Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BusinessException("Page limit must be positive, was: " + limit);
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Pozycja rekordu w porządku {@code ORDER BY klucz, id}, od której zaczyna się kolejna strona.
+     *
+     * @param key klucz sortowania
+     * @param id identyfikator rozstrzygający rekordy o równym kluczu
+     */
+    public record Position(long key, long id) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Pojedyncza strona wyników stronicowania kursorowego.
+ *
+ * @param items elementy bieżącej strony, w stabilnej kolejności rosnących identyfikatorów (lub par klucz-identyfikator)
+ * @param nextCursor kursor kolejnej strony lub {@code null}, jeśli to ostatnia strona
+ * @param <T> typ elementów strony
+ */
+public record CursorPage<T>(List<T> items, @Nullable String nextCursor) {
+
+    /**
+     * Buduje stronę z wyników zapytania pobranych z zapasem jednego rekordu ({@code limit + 1}).
+     * Nadmiarowy rekord nie trafia do strony - służy jedynie do stwierdzenia, że istnieje kolejna strona.
+     *
+     * @param rows wyniki zapytania, co najwyżej {@code limit + 1} elementów
+     * @param limit rozmiar strony
+     * @param idExtractor funkcja zwracająca identyfikator elementu, z którego powstaje kursor
+     * @param <T> typ elementów strony
+     * @return strona wyników wraz z kursorem kolejnej strony
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, ToLongFunction<T> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, Cursor.encode(idExtractor.applyAsLong(items.get(limit - 1))));
+    }
+
+    /**
+     * Buduje stronę jak {@link #of(List, int, ToLongFunction)} dla wyników uporządkowanych według
+     * {@code (klucz, id)}; kursor kolejnej strony koduje obie wartości ostatniego elementu.
+     *
+     * @param rows wyniki zapytania, co najwyżej {@code limit + 1} elementów
+     * @param limit rozmiar strony
+     * @param keyExtractor funkcja zwracająca klucz sortowania elementu
+     * @param idExtractor funkcja zwracająca identyfikator elementu
+     * @param <T> typ elementów strony
+     * @return strona wyników wraz z kursorem kolejnej strony
+     */
+    public static <T> CursorPage<T> ofKeyset(List<T> rows, int limit, ToLongFunction<T> keyExtractor,
+                                             ToLongFunction<T> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(items, Cursor.encode(keyExtractor.applyAsLong(last), idExtractor.applyAsLong(last)));
+    }
+
+    /**
+     * Przekształca elementy strony, zachowując kursor kolejnej strony.
+     *
+     * @param mapper funkcja mapująca elementy
+     * @param <R> typ elementów wynikowej strony
+     * @return strona z przekształconymi elementami
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
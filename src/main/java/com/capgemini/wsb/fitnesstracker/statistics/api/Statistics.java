@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "statistics")
+@Table(name = "statistics", uniqueConstraints = @UniqueConstraint(name = "uk_statistics_user", columnNames = "user_id"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -29,4 +29,19 @@ public class Statistics {
     @Column(name = "total_calories_burned")
     private int totalCaloriesBurned;
 
+    /**
+     * Tworzy statystyki użytkownika z podanymi wartościami początkowymi.
+     *
+     * @param user Użytkownik, którego dotyczą statystyki.
+     * @param totalTrainings Liczba treningów.
+     * @param totalDistance Łączny dystans.
+     * @param totalCaloriesBurned Łączna liczba spalonych kalorii.
+     */
+    public Statistics(User user, int totalTrainings, double totalDistance, int totalCaloriesBurned) {
+        this.user = user;
+        this.totalTrainings = totalTrainings;
+        this.totalDistance = totalDistance;
+        this.totalCaloriesBurned = totalCaloriesBurned;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+
+/**
+ * Exception indicating that the {@link Statistics} were not found.
+ */
+@SuppressWarnings("squid:S110")
+public class StatisticsNotFoundException extends NotFoundException {
+
+    private StatisticsNotFoundException(String message) {
+        super(message);
+    }
+
+    public StatisticsNotFoundException(Long id) {
+        this("Statistics with ID=%s was not found".formatted(id));
+    }
+
+    /**
+     * Creates the exception for missing statistics of the given user.
+     *
+     * @param userId id of the user
+     * @return exception with a message pointing at the user
+     */
+    public static StatisticsNotFoundException forUser(Long userId) {
+        return new StatisticsNotFoundException("Statistics for user with ID=%s were not found".formatted(userId));
+    }
+
+}
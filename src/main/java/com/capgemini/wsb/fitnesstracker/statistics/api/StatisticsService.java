@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import java.util.Optional;
+
+/**
+ * Interfejs definiujący usługi statystyk treningowych użytkowników.
+ * Statystyki są utrzymywane przyrostowo przy każdym zapisie treningu, więc odczyt nigdy nie agreguje tabeli treningów.
+ */
+public interface StatisticsService {
+
+    /**
+     * Zwraca statystyki wskazanego użytkownika.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return Optional zawierający statystyki użytkownika lub Optional.empty(), jeśli użytkownik nie ma jeszcze treningów.
+     */
+    Optional<Statistics> getStatisticsForUser(Long userId);
+
+    /**
+     * Przelicza od nowa statystyki użytkownika na podstawie wszystkich jego treningów.
+     * Tryb naprawczy - w normalnej pracy statystyki są aktualizowane przyrostowo.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return Przeliczone statystyki lub Optional.empty(), jeśli użytkownik nie ma treningów.
+     */
+    Optional<Statistics> rebuildStatistics(Long userId);
+
+    /**
+     * Przelicza od nowa statystyki wszystkich użytkowników jednym przebiegiem po tabeli treningów.
+     *
+     * @return Liczba użytkowników, dla których zapisano statystyki.
+     */
+    int rebuildAllStatistics();
+}
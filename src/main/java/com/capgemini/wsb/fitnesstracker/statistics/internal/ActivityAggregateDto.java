@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Data Transfer Object (DTO) reprezentujący zagregowane treningi jednego typu aktywności.
+ *
+ * @param activityType Typ aktywności.
+ * @param trainings Liczba treningów.
+ * @param distance Łączny dystans.
+ * @param durationSeconds Łączny czas trwania treningów w sekundach.
+ * @param averageSpeed Średnia z prędkości średnich treningów.
+ */
+public record ActivityAggregateDto(ActivityType activityType,
+                                   long trainings,
+                                   double distance,
+                                   long durationSeconds,
+                                   double averageSpeed) {}
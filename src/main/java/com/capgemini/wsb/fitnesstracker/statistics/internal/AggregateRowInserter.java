@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Wstawia brakujące wiersze agregatów w osobnych transakcjach, zatwierdzanych od razu.
+ * Agregaty są aktualizowane instrukcją UPDATE dodającą przyrosty; gdy wiersza jeszcze nie ma, serwis wstawia go
+ * tutaj z zerowymi wartościami i powtarza UPDATE. Dwie transakcje zapisujące jednocześnie pierwszy trening do tego
+ * samego agregatu nie kończą się więc naruszeniem klucza unikalnego: jedna wstawia wiersz, druga pomija błąd
+ * duplikatu, a przyrosty obu sumuje UPDATE pod blokadą wiersza.
+ */
+@Component
+class AggregateRowInserter {
+
+    private final TransactionTemplate requiresNew;
+
+    AggregateRowInserter(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Wstawia wiersz w nowej transakcji. Naruszenie ograniczenia integralności oznacza, że wiersz wstawiła
+     * współbieżna transakcja (albo że wiersz wskazuje dane niezatwierdzone jeszcze przez transakcję wywołującą),
+     * więc jest pomijane - wywołujący rozpoznaje ten drugi przypadek po kolejnym UPDATE.
+     *
+     * @param insert zapis wiersza z zerowymi wartościami
+     */
+    void insertIfAbsent(Runnable insert) {
+        try {
+            requiresNew.executeWithoutResult(status -> insert.run());
+        } catch (DataIntegrityViolationException e) {
+            // wiersz istnieje albo nie może jeszcze istnieć poza transakcją wywołującą
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Szacuje liczbę kalorii spalonych podczas treningu na podstawie typu aktywności i czasu jej trwania.
+ * System nie przechowuje masy ciała użytkowników, dlatego przyjęto uśrednione wartości kcal na godzinę.
+ */
+final class CaloriesEstimator {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private static final Map<ActivityType, Integer> KCAL_PER_HOUR = new EnumMap<>(Map.of(
+            ActivityType.RUNNING, 600,
+            ActivityType.CYCLING, 500,
+            ActivityType.WALKING, 250,
+            ActivityType.SWIMMING, 500,
+            ActivityType.TENNIS, 450));
+
+    private CaloriesEstimator() {
+    }
+
+    /**
+     * Zwraca szacunkową liczbę spalonych kalorii. Wynik zależy wyłącznie od danych treningu,
+     * więc odjęcie wartości policzonej dla poprzedniego stanu treningu dokładnie cofa jego wkład.
+     *
+     * @param training stan treningu
+     * @return liczba spalonych kalorii, zaokrąglona do całości
+     */
+    static int estimate(TrainingSnapshot training) {
+        double hours = Math.max(training.durationMillis(), 0L) / MILLIS_PER_HOUR;
+        return (int) Math.round(KCAL_PER_HOUR.getOrDefault(training.activityType(), 0) * hours);
+    }
+}
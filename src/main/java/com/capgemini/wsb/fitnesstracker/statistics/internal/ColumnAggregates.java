@@ -0,0 +1,69 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Wynik skanu {@link TrainingColumns}: liczba treningów, dystans, czas trwania i suma prędkości średnich
+ * w każdej z grup, przechowywane w tablicach indeksowanych numerem grupy.
+ */
+final class ColumnAggregates {
+
+    private final long[] trainings;
+    private final double[] distance;
+    private final long[] durationSeconds;
+    private final double[] speedSum;
+
+    ColumnAggregates(int groups) {
+        trainings = new long[groups];
+        distance = new double[groups];
+        durationSeconds = new long[groups];
+        speedSum = new double[groups];
+    }
+
+    void add(int group, double trainingDistance, long trainingDurationSeconds, double averageSpeed) {
+        trainings[group]++;
+        distance[group] += trainingDistance;
+        durationSeconds[group] += trainingDurationSeconds;
+        speedSum[group] += averageSpeed;
+    }
+
+    /**
+     * Dodaje do tego wyniku wynik skanu innej porcji wierszy.
+     *
+     * @param other wynik z tą samą liczbą grup
+     * @return ten wynik
+     */
+    ColumnAggregates merge(ColumnAggregates other) {
+        for (int group = 0; group < trainings.length; group++) {
+            trainings[group] += other.trainings[group];
+            distance[group] += other.distance[group];
+            durationSeconds[group] += other.durationSeconds[group];
+            speedSum[group] += other.speedSum[group];
+        }
+        return this;
+    }
+
+    int groups() {
+        return trainings.length;
+    }
+
+    long trainings(int group) {
+        return trainings[group];
+    }
+
+    double distance(int group) {
+        return distance[group];
+    }
+
+    long durationSeconds(int group) {
+        return durationSeconds[group];
+    }
+
+    /**
+     * Zwraca średnią z prędkości średnich treningów grupy, tak jak agregaty {@link TrainingRollup}.
+     *
+     * @param group numer grupy
+     * @return średnia prędkość lub zero dla pustej grupy
+     */
+    double averageSpeed(int group) {
+        return trainings[group] == 0 ? 0.0 : speedSum[group] / trainings[group];
+    }
+}
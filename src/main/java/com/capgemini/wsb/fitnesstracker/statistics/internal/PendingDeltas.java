@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Bufor przyrostów agregatów powiązany z bieżącą transakcją.
+ * Zmiany zgłoszone w ramach jednej transakcji są sumowane per klucz i zapisywane raz, tuż przed jej zatwierdzeniem.
+ * Klucze są uporządkowane, dzięki czemu współbieżne transakcje blokują wiersze agregatów w tej samej kolejności.
+ * Poza transakcją przyrosty są zapisywane natychmiast.
+ *
+ * @param <K> typ klucza agregatu
+ * @param <D> typ akumulatora przyrostów
+ */
+final class PendingDeltas<K extends Comparable<K>, D> {
+
+    private final Consumer<Map<K, D>> writer;
+
+    /**
+     * @param writer operacja zapisująca zebrane przyrosty
+     */
+    PendingDeltas(Consumer<Map<K, D>> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Nanosi zmiany na przyrosty bieżącej transakcji.
+     *
+     * @param changes operacja modyfikująca mapę przyrostów
+     */
+    @SuppressWarnings("unchecked")
+    void update(Consumer<Map<K, D>> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<K, D> deltas = new TreeMap<>();
+            changes.accept(deltas);
+            writer.accept(deltas);
+            return;
+        }
+        Map<K, D> deltas = (Map<K, D>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = bindToTransaction();
+        }
+        changes.accept(deltas);
+    }
+
+    private Map<K, D> bindToTransaction() {
+        Map<K, D> deltas = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                writer.accept(deltas);
+                deltas.clear();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PendingDeltas.this);
+            }
+        });
+        return deltas;
+    }
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) reprezentujący zagregowane treningi w jednym przedziale czasowym.
+ *
+ * @param bucketStart Pierwszy dzień przedziału.
+ * @param trainings Liczba treningów.
+ * @param distance Łączny dystans.
+ * @param durationSeconds Łączny czas trwania treningów w sekundach.
+ * @param averageSpeed Średnia z prędkości średnich treningów.
+ */
+public record RollupBucketDto(LocalDate bucketStart,
+                              long trainings,
+                              double distance,
+                              long durationSeconds,
+                              double averageSpeed) {}
@@ -0,0 +1,62 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+/**
+ * Zmienny akumulator przyrostów jednego wiersza {@link TrainingRollup}.
+ */
+final class RollupDelta {
+
+    private long trainings;
+    private double distance;
+    private long durationSeconds;
+    private double speedSum;
+
+    /**
+     * Dodaje wkład treningu do akumulatora.
+     *
+     * @param training stan treningu
+     */
+    void add(TrainingSnapshot training) {
+        trainings++;
+        distance += training.distance();
+        durationSeconds += durationSeconds(training);
+        speedSum += training.averageSpeed();
+    }
+
+    /**
+     * Odejmuje wkład treningu od akumulatora.
+     *
+     * @param training poprzedni stan treningu
+     */
+    void subtract(TrainingSnapshot training) {
+        trainings--;
+        distance -= training.distance();
+        durationSeconds -= durationSeconds(training);
+        speedSum -= training.averageSpeed();
+    }
+
+    boolean isEmpty() {
+        return trainings == 0 && distance == 0.0 && durationSeconds == 0 && speedSum == 0.0;
+    }
+
+    long trainings() {
+        return trainings;
+    }
+
+    double distance() {
+        return distance;
+    }
+
+    long durationSeconds() {
+        return durationSeconds;
+    }
+
+    double speedSum() {
+        return speedSum;
+    }
+
+    private static long durationSeconds(TrainingSnapshot training) {
+        return Math.max(training.durationMillis(), 0L) / 1000L;
+    }
+}
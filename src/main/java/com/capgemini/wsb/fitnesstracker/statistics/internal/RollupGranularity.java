@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Rozdzielczość przedziałów czasowych, w których agregowane są treningi. Na tych samych przedziałach opierają się
+ * okresy rankingów ({@link com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow}).
+ */
+public enum RollupGranularity {
+
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Zwraca jednostkę czasu odpowiadającą długości przedziału.
+     *
+     * @return jednostka czasu
+     */
+    public ChronoUnit unit() {
+        return unit;
+    }
+
+    /**
+     * Zwraca początek przedziału, do którego należy podany dzień. Tygodnie zaczynają się w poniedziałek (ISO-8601).
+     *
+     * @param date dzień
+     * @return pierwszy dzień przedziału
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
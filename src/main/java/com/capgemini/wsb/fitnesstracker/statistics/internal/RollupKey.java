@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Klucz jednego wiersza {@link TrainingRollup}.
+ *
+ * @param granularity rozdzielczość przedziału
+ * @param bucketStart pierwszy dzień przedziału
+ * @param userId identyfikator użytkownika lub {@link TrainingRollup#GLOBAL_USER_ID}
+ * @param activityType typ aktywności
+ */
+record RollupKey(RollupGranularity granularity, LocalDate bucketStart, long userId, ActivityType activityType)
+        implements Comparable<RollupKey> {
+
+    private static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::granularity)
+            .thenComparingLong(RollupKey::userId)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::activityType);
+
+    @Override
+    public int compareTo(RollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
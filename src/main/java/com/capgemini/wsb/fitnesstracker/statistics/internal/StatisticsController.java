@@ -0,0 +1,169 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsNotFoundException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Kontroler REST udostępniający statystyki treningowe użytkowników.
+ * Odczyty zwracają gotowe, przyrostowo utrzymywane wartości; operacje przeliczenia służą do naprawy danych.
+ */
+@RestController
+@RequestMapping("/v1/statistics")
+class StatisticsController {
+
+    private final StatisticsServiceImpl statisticsService;
+    private final StatisticsMapper statisticsMapper;
+    private final TrainingRollupService rollupService;
+    private final TrainingAnalyticsService analyticsService;
+
+    /**
+     * Konstruktor dla StatisticsController, wstrzykujący serwisy statystyk i mapper.
+     *
+     * @param statisticsService Serwis statystyk.
+     * @param statisticsMapper Mapper do konwersji encji statystyk na DTO.
+     * @param rollupService Serwis agregatów treningów w przedziałach czasowych.
+     * @param analyticsService Serwis analiz ad hoc nad magazynem kolumnowym treningów.
+     */
+    StatisticsController(StatisticsServiceImpl statisticsService,
+                         StatisticsMapper statisticsMapper,
+                         TrainingRollupService rollupService,
+                         TrainingAnalyticsService analyticsService) {
+        this.statisticsService = statisticsService;
+        this.statisticsMapper = statisticsMapper;
+        this.rollupService = rollupService;
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Pobiera statystyki na podstawie ich identyfikatora.
+     *
+     * @param statisticsId Identyfikator statystyk.
+     * @return ResponseEntity z DTO statystyk.
+     */
+    @GetMapping("/{statisticsId}")
+    public ResponseEntity<StatisticsDto> getStatistics(@PathVariable Long statisticsId) {
+        return statisticsService.getStatistics(statisticsId)
+                .map(statisticsMapper::toDto)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new StatisticsNotFoundException(statisticsId));
+    }
+
+    /**
+     * Pobiera statystyki użytkownika.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return ResponseEntity z DTO statystyk użytkownika.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<StatisticsDto> getStatisticsForUser(@PathVariable Long userId) {
+        return statisticsService.getStatisticsForUser(userId)
+                .map(statisticsMapper::toDto)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> StatisticsNotFoundException.forUser(userId));
+    }
+
+    /**
+     * Przelicza od nowa statystyki użytkownika na podstawie jego treningów.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return ResponseEntity z przeliczonymi statystykami lub bez treści, jeśli użytkownik nie ma treningów.
+     */
+    @PostMapping("/user/{userId}/rebuild")
+    public ResponseEntity<StatisticsDto> rebuildStatistics(@PathVariable Long userId) {
+        return statisticsService.rebuildStatistics(userId)
+                .map(statisticsMapper::toDto)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Przelicza od nowa statystyki wszystkich użytkowników.
+     *
+     * @return ResponseEntity z liczbą użytkowników, dla których zapisano statystyki.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Integer> rebuildAllStatistics() {
+        return ResponseEntity.ok(statisticsService.rebuildAllStatistics());
+    }
+
+    /**
+     * Pobiera agregaty treningów w przedziałach dziennych, tygodniowych lub miesięcznych.
+     *
+     * @param granularity Rozdzielczość przedziałów.
+     * @param from Pierwszy dzień zakresu.
+     * @param to Ostatni dzień zakresu (włącznie).
+     * @param userId Identyfikator użytkownika; bez niego zwracane są agregaty wszystkich użytkowników.
+     * @param activityType Typ aktywności; bez niego przedziały sumują wszystkie typy.
+     * @return ResponseEntity z listą niepustych przedziałów.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<RollupBucketDto>> getRollups(@RequestParam RollupGranularity granularity,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                            @RequestParam(required = false) Long userId,
+                                                            @RequestParam(required = false) ActivityType activityType) {
+        return ResponseEntity.ok(rollupService.findRollups(userId, granularity, from, to, activityType));
+    }
+
+    /**
+     * Przelicza od nowa wszystkie agregaty treningów w przedziałach czasowych.
+     *
+     * @return ResponseEntity z liczbą zapisanych agregatów.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Integer> rebuildRollups() {
+        return ResponseEntity.ok(rollupService.rebuildRollups());
+    }
+
+    /**
+     * Agreguje treningi według typu aktywności skanem magazynu kolumnowego, z dowolnym połączeniem filtrów.
+     *
+     * @param from Pierwszy dzień zakresu dat rozpoczęcia treningów.
+     * @param to Ostatni dzień zakresu (włącznie).
+     * @param userId Identyfikator użytkownika; bez niego agregowane są treningi wszystkich użytkowników.
+     * @param activityType Typ aktywności; bez niego agregowane są wszystkie typy.
+     * @return ResponseEntity z agregatami niepustych typów aktywności.
+     */
+    @GetMapping("/analytics/activities")
+    public ResponseEntity<List<ActivityAggregateDto>> getActivityAnalytics(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                           @RequestParam(required = false) Long userId,
+                                                                           @RequestParam(required = false) ActivityType activityType) {
+        return ResponseEntity.ok(analyticsService.aggregateByActivity(from, to, userId, activityType));
+    }
+
+    /**
+     * Agreguje treningi w przedziałach dziennych, tygodniowych lub miesięcznych skanem magazynu kolumnowego.
+     *
+     * @param granularity Rozdzielczość przedziałów.
+     * @param from Pierwszy dzień zakresu.
+     * @param to Ostatni dzień zakresu (włącznie).
+     * @param userId Identyfikator użytkownika; bez niego agregowane są treningi wszystkich użytkowników.
+     * @param activityType Typ aktywności; bez niego przedziały sumują wszystkie typy.
+     * @return ResponseEntity z listą niepustych przedziałów.
+     */
+    @GetMapping("/analytics/periods")
+    public ResponseEntity<List<RollupBucketDto>> getPeriodAnalytics(@RequestParam RollupGranularity granularity,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(required = false) Long userId,
+                                                                    @RequestParam(required = false) ActivityType activityType) {
+        return ResponseEntity.ok(analyticsService.aggregateByPeriod(granularity, from, to, userId, activityType));
+    }
+
+    /**
+     * Buduje od nowa magazyn kolumnowy treningów z bazy danych.
+     *
+     * @return ResponseEntity z liczbą treningów w magazynie.
+     */
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Integer> rebuildAnalytics() {
+        return ResponseEntity.ok(analyticsService.rebuild());
+    }
+}
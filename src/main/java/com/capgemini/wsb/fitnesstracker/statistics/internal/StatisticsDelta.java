@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+/**
+ * Zmienny akumulator przyrostów statystyk jednego użytkownika.
+ * Służy zarówno do sumowania zmian w ramach transakcji, jak i do pełnego przeliczenia statystyk.
+ */
+final class StatisticsDelta {
+
+    private int trainings;
+    private double distance;
+    private int calories;
+
+    /**
+     * Dodaje wkład treningu do akumulatora.
+     *
+     * @param training stan treningu
+     */
+    void add(TrainingSnapshot training) {
+        trainings++;
+        distance += training.distance();
+        calories += CaloriesEstimator.estimate(training);
+    }
+
+    /**
+     * Odejmuje wkład treningu od akumulatora.
+     *
+     * @param training poprzedni stan treningu
+     */
+    void subtract(TrainingSnapshot training) {
+        trainings--;
+        distance -= training.distance();
+        calories -= CaloriesEstimator.estimate(training);
+    }
+
+    boolean isEmpty() {
+        return trainings == 0 && distance == 0.0 && calories == 0;
+    }
+
+    int trainings() {
+        return trainings;
+    }
+
+    double distance() {
+        return distance;
+    }
+
+    int calories() {
+        return calories;
+    }
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Data Transfer Object (DTO) reprezentujący statystyki treningowe użytkownika.
+ *
+ * @param id Identyfikator statystyk.
+ * @param userId Identyfikator użytkownika.
+ * @param totalTrainings Liczba treningów.
+ * @param totalDistance Łączny dystans.
+ * @param totalCaloriesBurned Łączna szacunkowa liczba spalonych kalorii.
+ */
+public record StatisticsDto(Long id, Long userId, int totalTrainings, double totalDistance, int totalCaloriesBurned) {}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Komponent odpowiedzialny za mapowanie encji {@link Statistics} na {@link StatisticsDto}.
+ */
+@Component
+class StatisticsMapper {
+
+    /**
+     * Konwertuje encję statystyk na DTO.
+     *
+     * @param statistics Encja statystyk.
+     * @return DTO statystyk.
+     */
+    StatisticsDto toDto(Statistics statistics) {
+        return new StatisticsDto(statistics.getId(),
+                statistics.getUser().getId(),
+                statistics.getTotalTrainings(),
+                statistics.getTotalDistance(),
+                statistics.getTotalCaloriesBurned());
+    }
+}
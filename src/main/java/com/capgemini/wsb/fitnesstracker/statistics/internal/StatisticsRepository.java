@@ -0,0 +1,50 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+/**
+ * Repozytorium JPA dla encji {@link Statistics}.
+ */
+interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /**
+     * Wyszukuje statystyki użytkownika.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return Optional ze statystykami użytkownika.
+     */
+    Optional<Statistics> findByUserId(Long userId);
+
+    /**
+     * Dodaje przyrosty do statystyk użytkownika jedną instrukcją UPDATE, bez ładowania encji.
+     * Przyrost dystansu jest rzutowany jawnie, tak jak w {@link TrainingRollupRepository#applyDelta}.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @param trainings Przyrost liczby treningów (może być ujemny).
+     * @param distance Przyrost dystansu (może być ujemny).
+     * @param calories Przyrost spalonych kalorii (może być ujemny).
+     * @return Liczba zaktualizowanych wierszy - {@code 0}, jeśli użytkownik nie ma jeszcze statystyk.
+     */
+    @Modifying
+    @Query("""
+            update Statistics s
+            set s.totalTrainings = s.totalTrainings + :trainings,
+                s.totalDistance = s.totalDistance + cast(:distance as Double),
+                s.totalCaloriesBurned = s.totalCaloriesBurned + :calories
+            where s.user.id = :userId""")
+    int applyDelta(Long userId, int trainings, double distance, int calories);
+
+    /**
+     * Usuwa statystyki użytkownika.
+     *
+     * @param userId Identyfikator użytkownika.
+     */
+    @Modifying
+    @Query("delete from Statistics s where s.user.id = :userId")
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,154 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serwis utrzymujący statystyki treningowe użytkowników.
+ * Statystyki są aktualizowane przyrostowo na podstawie zdarzeń {@link TrainingSavedEvent}: wkład poprzedniego stanu
+ * treningu jest odejmowany, a wkład nowego dodawany, bez ponownego odczytu treningów użytkownika.
+ * Przyrosty z jednej transakcji są sumowane per użytkownik i zapisywane tuż przed jej zatwierdzeniem,
+ * więc wsadowy zapis tysięcy treningów kończy się jedną instrukcją UPDATE na użytkownika.
+ * Brakujący wiersz statystyk tworzy {@link AggregateRowInserter}, więc współbieżne pierwsze treningi użytkownika
+ * nie naruszają klucza unikalnego {@code uk_statistics_user}.
+ */
+@Service
+@Transactional(readOnly = true)
+class StatisticsServiceImpl implements StatisticsService, StatisticsProvider {
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private AggregateRowInserter rowInserter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PendingDeltas<Long, StatisticsDelta> pendingDeltas = new PendingDeltas<>(this::applyDeltas);
+
+    /**
+     * Zwraca statystyki o podanym identyfikatorze.
+     *
+     * @param statisticsId identyfikator statystyk
+     * @return Optional ze statystykami
+     */
+    @Override
+    public Optional<Statistics> getStatistics(Long statisticsId) {
+        return statisticsRepository.findById(statisticsId);
+    }
+
+    /**
+     * Zwraca statystyki użytkownika - pojedynczy odczyt wiersza, bez agregowania treningów.
+     *
+     * @param userId identyfikator użytkownika
+     * @return Optional ze statystykami użytkownika
+     */
+    @Override
+    public Optional<Statistics> getStatisticsForUser(Long userId) {
+        return statisticsRepository.findByUserId(userId);
+    }
+
+    /**
+     * Uwzględnia zapisany trening w statystykach użytkownika (lub dwóch użytkowników, jeśli trening zmienił właściciela).
+     * Koszt obsługi zdarzenia jest stały i nie zależy od liczby treningów użytkownika.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @EventListener
+    @Transactional
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        pendingDeltas.update(pending -> {
+            TrainingSnapshot previous = event.previous();
+            if (previous != null && previous.userId() != null) {
+                pending.computeIfAbsent(previous.userId(), userId -> new StatisticsDelta()).subtract(previous);
+            }
+            TrainingSnapshot current = event.current();
+            if (current.userId() != null) {
+                pending.computeIfAbsent(current.userId(), userId -> new StatisticsDelta()).add(current);
+            }
+        });
+    }
+
+    /**
+     * Przelicza statystyki użytkownika na podstawie wszystkich jego treningów.
+     *
+     * @param userId identyfikator użytkownika
+     * @return przeliczone statystyki lub Optional.empty(), jeśli użytkownik nie ma treningów
+     */
+    @Override
+    @Transactional
+    public Optional<Statistics> rebuildStatistics(Long userId) {
+        StatisticsDelta totals = new StatisticsDelta();
+        trainingService.findTrainingsByUserId(userId).forEach(training -> totals.add(TrainingSnapshot.of(training)));
+        statisticsRepository.deleteByUserId(userId);
+        if (totals.trainings() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(statisticsRepository.save(newStatistics(userId, totals)));
+    }
+
+    /**
+     * Przelicza statystyki wszystkich użytkowników jednym strumieniowym przebiegiem po treningach.
+     *
+     * @return liczba użytkowników, dla których zapisano statystyki
+     */
+    @Override
+    @Transactional
+    public int rebuildAllStatistics() {
+        Map<Long, StatisticsDelta> totals = new HashMap<>();
+        trainingService.exportTrainings(training -> {
+            TrainingSnapshot snapshot = TrainingSnapshot.of(training);
+            if (snapshot.userId() != null) {
+                totals.computeIfAbsent(snapshot.userId(), userId -> new StatisticsDelta()).add(snapshot);
+            }
+        });
+        statisticsRepository.deleteAllInBatch();
+        totals.forEach((userId, delta) -> statisticsRepository.save(newStatistics(userId, delta)));
+        return totals.size();
+    }
+
+    private void applyDeltas(Map<Long, StatisticsDelta> deltas) {
+        deltas.forEach((userId, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            if (applyDelta(userId, delta) == 0) {
+                rowInserter.insertIfAbsent(() -> statisticsRepository.saveAndFlush(newStatistics(userId, new StatisticsDelta())));
+                if (applyDelta(userId, delta) == 0) {
+                    // użytkownik dodany w tej samej transakcji - wiersza nie mogła wstawić żadna inna
+                    statisticsRepository.save(newStatistics(userId, delta));
+                }
+            }
+        });
+    }
+
+    private int applyDelta(Long userId, StatisticsDelta delta) {
+        return statisticsRepository.applyDelta(userId, delta.trainings(), delta.distance(), delta.calories());
+    }
+
+    private Statistics newStatistics(Long userId, StatisticsDelta totals) {
+        return new Statistics(entityManager.getReference(User.class, userId),
+                totals.trainings(),
+                totals.distance(),
+                totals.calories());
+    }
+}
@@ -0,0 +1,266 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serwis analiz ad hoc nad wszystkimi treningami, wykonywanych skanem magazynu kolumnowego {@link TrainingColumns}
+ * zamiast zapytań ładujących encje. W odróżnieniu od {@link TrainingRollupService} dowolnie łączy filtry użytkownika,
+ * typu aktywności i zakresu dat bez przygotowanych wcześniej agregatów.
+ * <p>
+ * Magazyn jest budowany po starcie aplikacji jednym strumieniowym odczytem obrazów stanu treningów i aktualizowany
+ * po zatwierdzeniu każdego zapisu treningu. Zapisy trafiają do kolejki i są nakładane wsadami przez jeden wątek,
+ * więc wątek żądania nie czeka na zakończenie trwających skanów. Zakresy dat odnoszą się do czasu rozpoczęcia treningu w strefie
+ * czasowej serwera.
+ */
+@Service
+@Slf4j
+class TrainingAnalyticsService {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final int MAX_BATCH = 1_024;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile TrainingColumns columns = new TrainingColumns();
+
+    /**
+     * Zapisy zatwierdzone w trakcie odbudowy, odtwarzane w nowym magazynie przed jego podmianą;
+     * {@code null}, gdy odbudowa nie trwa. Dostęp chroniony monitorem serwisu.
+     */
+    @Nullable
+    private List<TrainingSnapshot> savedDuringRebuild;
+
+    private final BlockingQueue<TrainingSnapshot> pendingWrites = new LinkedBlockingQueue<>();
+
+    private final AtomicLong enqueuedWrites = new AtomicLong();
+
+    /**
+     * Liczba zapisów nałożonych na magazyn; dostęp chroniony monitorem {@code pendingWrites}.
+     */
+    private long appliedWrites;
+
+    private final Thread applier;
+
+    TrainingAnalyticsService() {
+        applier = new Thread(this::applyPendingWrites, "training-analytics-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Kolejkuje zatwierdzony zapis treningu do nałożenia na magazyn. Nie czeka na blokadę magazynu.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        enqueuedWrites.incrementAndGet();
+        pendingWrites.add(event.current());
+    }
+
+    /**
+     * Czeka, aż zostaną nałożone wszystkie zapisy zakolejkowane przed wywołaniem.
+     *
+     * @throws IllegalStateException jeśli wątek został przerwany w trakcie oczekiwania
+     */
+    void awaitPendingWrites() {
+        long target = enqueuedWrites.get();
+        synchronized (pendingWrites) {
+            while (appliedWrites < target) {
+                try {
+                    pendingWrites.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for analytics writes", e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        applier.interrupt();
+    }
+
+    private void applyPendingWrites() {
+        List<TrainingSnapshot> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(pendingWrites.take());
+                pendingWrites.drainTo(batch, MAX_BATCH - 1);
+                apply(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Nakłada wsad zapisów na bieżący magazyn jedną blokadą zapisu i zapamiętuje je do odtworzenia,
+     * jeśli trwa odbudowa.
+     */
+    private void apply(List<TrainingSnapshot> batch) {
+        try {
+            synchronized (this) {
+                columns.putAll(batch);
+                if (savedDuringRebuild != null) {
+                    savedDuringRebuild.addAll(batch);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to apply {} trainings to the analytics column store", batch.size(), e);
+        } finally {
+            synchronized (pendingWrites) {
+                appliedWrites += batch.size();
+                pendingWrites.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Buduje magazyn po starcie aplikacji.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Buduje magazyn od nowa z bazy danych. Zapytania w trakcie odbudowy korzystają z poprzedniego magazynu.
+     * Zapis treningu zatwierdzony w trakcie odczytu mógł zostać odczytany w starszym stanie, więc po odczycie
+     * nowy magazyn otrzymuje jeszcze raz wszystkie takie zapisy - ponowny zapis tego samego stanu niczego nie zmienia.
+     * Przed podmianą odbudowa czeka na nałożenie zapisów zakolejkowanych w trakcie odczytu.
+     *
+     * @return liczba treningów w magazynie
+     */
+    int rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                savedDuringRebuild = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            TrainingColumns rebuilt = new TrainingColumns();
+            try {
+                trainingService.exportTrainingSnapshots(rebuilt::put);
+                awaitPendingWrites();
+                synchronized (this) {
+                    savedDuringRebuild.forEach(rebuilt::put);
+                    columns = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    savedDuringRebuild = null;
+                }
+            }
+            log.info("Loaded {} trainings into the analytics column store in {} ms",
+                    rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+            return rebuilt.size();
+        }
+    }
+
+    /**
+     * Zwraca agregaty treningów rozpoczętych w podanym zakresie dat według typu aktywności.
+     *
+     * @param from pierwszy dzień zakresu
+     * @param to ostatni dzień zakresu (włącznie)
+     * @param userId identyfikator użytkownika lub {@code null} dla wszystkich treningów
+     * @param activityType typ aktywności lub {@code null} dla wszystkich typów
+     * @return agregaty niepustych typów aktywności w kolejności ich deklaracji
+     * @throws BusinessException jeśli zakres jest pusty
+     */
+    List<ActivityAggregateDto> aggregateByActivity(LocalDate from,
+                                                   LocalDate to,
+                                                   @Nullable Long userId,
+                                                   @Nullable ActivityType activityType) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Range end must not be before its start");
+        }
+        ColumnAggregates aggregates = columns.aggregateByActivity(epochMillis(from), epochMillis(to.plusDays(1)),
+                userId, activityType);
+        List<ActivityAggregateDto> result = new ArrayList<>();
+        for (int group = 0; group < aggregates.groups(); group++) {
+            if (aggregates.trainings(group) > 0) {
+                result.add(new ActivityAggregateDto(ACTIVITY_TYPES[group], aggregates.trainings(group),
+                        aggregates.distance(group), aggregates.durationSeconds(group), aggregates.averageSpeed(group)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Zwraca agregaty treningów rozpoczętych w podanym zakresie dat w przedziałach czasowych.
+     *
+     * @param granularity rozdzielczość przedziałów
+     * @param from pierwszy dzień zakresu - zaokrąglany w dół do początku przedziału
+     * @param to ostatni dzień zakresu - przedział, do którego należy, jest uwzględniany w całości,
+     *           tak jak w {@link TrainingRollupService#findRollups}
+     * @param userId identyfikator użytkownika lub {@code null} dla wszystkich treningów
+     * @param activityType typ aktywności lub {@code null} dla wszystkich typów
+     * @return niepuste przedziały posortowane rosnąco
+     * @throws BusinessException jeśli zakres jest pusty lub obejmuje więcej niż
+     *                           {@link TrainingRollupService#MAX_BUCKETS} przedziałów
+     */
+    List<RollupBucketDto> aggregateByPeriod(RollupGranularity granularity,
+                                            LocalDate from,
+                                            LocalDate to,
+                                            @Nullable Long userId,
+                                            @Nullable ActivityType activityType) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Range end must not be before its start");
+        }
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        for (LocalDate bucketStart = granularity.bucketStart(from); !bucketStart.isAfter(to);
+             bucketStart = bucketStart.plus(1, granularity.unit())) {
+            if (bucketStarts.size() == TrainingRollupService.MAX_BUCKETS) {
+                throw new BusinessException("Range exceeds %d %s buckets"
+                        .formatted(TrainingRollupService.MAX_BUCKETS, granularity));
+            }
+            bucketStarts.add(bucketStart);
+        }
+        long[] boundaries = new long[bucketStarts.size() + 1];
+        for (int bucket = 0; bucket < bucketStarts.size(); bucket++) {
+            boundaries[bucket] = epochMillis(bucketStarts.get(bucket));
+        }
+        boundaries[bucketStarts.size()] = epochMillis(bucketStarts.get(bucketStarts.size() - 1).plus(1, granularity.unit()));
+
+        ColumnAggregates aggregates = columns.aggregateByPeriod(boundaries, userId, activityType);
+        List<RollupBucketDto> result = new ArrayList<>();
+        for (int bucket = 0; bucket < aggregates.groups(); bucket++) {
+            if (aggregates.trainings(bucket) > 0) {
+                result.add(new RollupBucketDto(bucketStarts.get(bucket), aggregates.trainings(bucket),
+                        aggregates.distance(bucket), aggregates.durationSeconds(bucket), aggregates.averageSpeed(bucket)));
+            }
+        }
+        return result;
+    }
+
+    private long epochMillis(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
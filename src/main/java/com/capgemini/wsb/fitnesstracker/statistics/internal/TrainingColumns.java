@@ -0,0 +1,298 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Kolumnowy magazyn treningów w pamięci. Każde pole treningu przechowywane jest w osobnej tablicy typu prostego,
+ * a trening zajmuje w każdej z nich ten sam wiersz, więc skan filtrujący i agregujący czyta kolejno tylko potrzebne
+ * kolumny, bez obiektów i wskaźników. Skany dzielone są na porcje wierszy przetwarzane równolegle we wspólnej puli
+ * {@link java.util.concurrent.ForkJoinPool}; wyniki porcji są scalane na końcu.
+ * <p>
+ * Wiersz treningu wyznacza tablica mieszająca z adresowaniem otwartym, przechowująca numery wierszy; klucze czytane
+ * są z kolumny identyfikatorów. Trening zajmuje około 60 bajtów wraz z indeksem. Treningi nie są usuwane.
+ * Zapisy wykluczają się ze skanami blokadą odczytu i zapisu; zapisy wsadowe zajmują blokadę raz na cały wsad.
+ */
+final class TrainingColumns {
+
+    /**
+     * Liczba wierszy przetwarzanych przez jedno zadanie skanu.
+     */
+    static final int CHUNK_ROWS = 1 << 16;
+
+    /**
+     * Wartość kolumny użytkownika dla treningów bez użytkownika.
+     */
+    static final long NO_USER = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long HOUR = 3_600_000L;
+    private static final int MAX_HOUR_GROUPS = 1 << 20;
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] userIds;
+    private long[] startTimes;
+    private long[] endTimes;
+    private byte[] activityTypes;
+    private double[] distances;
+    private double[] averageSpeeds;
+    private int size;
+
+    /**
+     * Numery wierszy powiększone o jeden; zero oznacza wolne miejsce.
+     */
+    private int[] slots;
+
+    TrainingColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    TrainingColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        userIds = new long[capacity];
+        startTimes = new long[capacity];
+        endTimes = new long[capacity];
+        activityTypes = new byte[capacity];
+        distances = new double[capacity];
+        averageSpeeds = new double[capacity];
+        slots = new int[tableSize(capacity)];
+    }
+
+    /**
+     * Zapisuje stan treningu: nadpisuje jego wiersz albo dopisuje nowy. Ponowny zapis tego samego stanu
+     * niczego nie zmienia.
+     *
+     * @param training stan treningu
+     */
+    void put(TrainingSnapshot training) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            putRow(training);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Zapisuje stany treningów w kolejności iteracji, zajmując blokadę zapisu raz.
+     *
+     * @param trainings stany treningów
+     */
+    void putAll(Iterable<TrainingSnapshot> trainings) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (TrainingSnapshot training : trainings) {
+                putRow(training);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void putRow(TrainingSnapshot training) {
+        long id = training.id();
+        int position = position(id);
+        int row = slots[position] - 1;
+        if (row < 0) {
+            if (size == ids.length) {
+                grow();
+                position = position(id);
+            }
+            row = size++;
+            slots[position] = row + 1;
+            ids[row] = id;
+        }
+        userIds[row] = training.userId() != null ? training.userId() : NO_USER;
+        startTimes[row] = training.startTime().getTime();
+        endTimes[row] = training.endTime().getTime();
+        activityTypes[row] = (byte) training.activityType().ordinal();
+        distances[row] = training.distance();
+        averageSpeeds[row] = training.averageSpeed();
+    }
+
+    int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Agreguje treningi rozpoczęte w podanym przedziale czasu według typu aktywności.
+     *
+     * @param from początek przedziału w milisekundach epoki (włącznie)
+     * @param to koniec przedziału w milisekundach epoki (wyłącznie)
+     * @param userId identyfikator użytkownika lub {@code null} dla wszystkich treningów
+     * @param activityType typ aktywności lub {@code null} dla wszystkich typów
+     * @return agregaty indeksowane liczbą porządkową typu aktywności
+     */
+    ColumnAggregates aggregateByActivity(long from, long to, @Nullable Long userId, @Nullable ActivityType activityType) {
+        return scan(from, to, userId, activityType, ACTIVITY_TYPES.length, (row, start) -> activityTypes[row]);
+    }
+
+    /**
+     * Agreguje treningi według przedziałów czasu, do których należy ich początek.
+     *
+     * @param boundaries rosnące granice kolejnych przedziałów w milisekundach epoki; przedział {@code i}
+     *                   obejmuje czasy od {@code boundaries[i]} (włącznie) do {@code boundaries[i + 1]} (wyłącznie)
+     * @param userId identyfikator użytkownika lub {@code null} dla wszystkich treningów
+     * @param activityType typ aktywności lub {@code null} dla wszystkich typów
+     * @return agregaty indeksowane numerem przedziału
+     */
+    ColumnAggregates aggregateByPeriod(long[] boundaries, @Nullable Long userId, @Nullable ActivityType activityType) {
+        if (boundaries.length < 2) {
+            return new ColumnAggregates(0);
+        }
+        long from = boundaries[0];
+        int[] hourGroups = hourGroups(boundaries);
+        Grouping grouping = hourGroups != null
+                ? (row, start) -> hourGroups[(int) ((start - from) / HOUR)]
+                : (row, start) -> {
+                    int index = Arrays.binarySearch(boundaries, start);
+                    return index >= 0 ? index : -index - 2;
+                };
+        return scan(from, boundaries[boundaries.length - 1], userId, activityType, boundaries.length - 1, grouping);
+    }
+
+    /**
+     * Zwraca numer przedziału dla każdej pełnej godziny od pierwszej granicy, jeśli wszystkie granice wypadają
+     * w pełnych godzinach względem pierwszej (tak jest dla początków dni w strefach z przesunięciem o pełne godziny),
+     * a zakres nie przekracza {@value #MAX_HOUR_GROUPS} godzin. Odczyt z tablicy zastępuje w pętli skanu
+     * wyszukiwanie binarne, którego rozgałęzień procesor nie przewiduje.
+     *
+     * @return numery przedziałów kolejnych godzin lub {@code null}, jeśli granic nie da się tak odwzorować
+     */
+    @Nullable
+    private static int[] hourGroups(long[] boundaries) {
+        long hours = (boundaries[boundaries.length - 1] - boundaries[0]) / HOUR;
+        if (hours > MAX_HOUR_GROUPS) {
+            return null;
+        }
+        int[] groups = new int[(int) hours];
+        for (int group = 0; group < boundaries.length - 1; group++) {
+            long start = boundaries[group] - boundaries[0];
+            long end = boundaries[group + 1] - boundaries[0];
+            if (start % HOUR != 0 || end % HOUR != 0) {
+                return null;
+            }
+            Arrays.fill(groups, (int) (start / HOUR), (int) (end / HOUR), group);
+        }
+        return groups;
+    }
+
+    private ColumnAggregates scan(long from, long to, @Nullable Long userId, @Nullable ActivityType activityType,
+                                  int groups, Grouping grouping) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Filter filter = new Filter(from, to, userId != null, userId != null ? userId : NO_USER,
+                    activityType != null ? activityType.ordinal() : -1);
+            int rows = size;
+            int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            if (chunks <= 1) {
+                return scanChunk(filter, groups, grouping, 0, rows);
+            }
+            return IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> scanChunk(filter, groups, grouping,
+                            chunk * CHUNK_ROWS, Math.min(rows, (chunk + 1) * CHUNK_ROWS)))
+                    .reduce(ColumnAggregates::merge)
+                    .orElseGet(() -> new ColumnAggregates(groups));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private ColumnAggregates scanChunk(Filter filter, int groups, Grouping grouping, int fromRow, int toRow) {
+        ColumnAggregates aggregates = new ColumnAggregates(groups);
+        long[] starts = startTimes;
+        long[] ends = endTimes;
+        long[] users = userIds;
+        byte[] activities = activityTypes;
+        double[] distance = distances;
+        double[] speed = averageSpeeds;
+        long from = filter.from();
+        long to = filter.to();
+        boolean byUser = filter.byUser();
+        long userId = filter.userId();
+        int activity = filter.activity();
+        for (int row = fromRow; row < toRow; row++) {
+            long start = starts[row];
+            if (start < from || start >= to
+                    || byUser && users[row] != userId
+                    || activity >= 0 && activities[row] != activity) {
+                continue;
+            }
+            aggregates.add(grouping.group(row, start), distance[row], Math.max(ends[row] - start, 0L) / 1000L, speed[row]);
+        }
+        return aggregates;
+    }
+
+    private int position(long id) {
+        int mask = slots.length - 1;
+        int position = hash(id) & mask;
+        while (slots[position] != 0 && ids[slots[position] - 1] != id) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        activityTypes = Arrays.copyOf(activityTypes, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+        slots = new int[tableSize(capacity)];
+        int mask = slots.length - 1;
+        for (int row = 0; row < size; row++) {
+            int position = hash(ids[row]) & mask;
+            while (slots[position] != 0) {
+                position = (position + 1) & mask;
+            }
+            slots[position] = row + 1;
+        }
+    }
+
+    /**
+     * Rozmiar tablicy mieszającej: potęga dwójki, przy której pełne kolumny zajmują najwyżej połowę miejsc.
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 2;
+    }
+
+    private static int hash(long id) {
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Przypisuje wiersz spełniający filtr do grupy.
+     */
+    @FunctionalInterface
+    private interface Grouping {
+
+        int group(int row, long startTime);
+    }
+
+    private record Filter(long from, long to, boolean byUser, long userId, int activity) {}
+}
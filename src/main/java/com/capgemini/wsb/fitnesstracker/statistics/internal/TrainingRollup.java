@@ -0,0 +1,78 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Zagregowane treningi jednego użytkownika (lub wszystkich użytkowników) w jednym przedziale czasowym
+ * dla jednego typu aktywności. Wiersze są utrzymywane przyrostowo przy każdym zapisie treningu.
+ * Indeks unikalny zaczyna się od kolumn filtrowanych równościowo, więc zapytanie o zakres dat czyta
+ * ciągły fragment indeksu.
+ */
+@Entity
+@Table(name = "training_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_training_rollup_bucket",
+        columnNames = {"granularity", "user_id", "bucket_start", "activity_type"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TrainingRollup {
+
+    /**
+     * Wartość {@code user_id} oznaczająca agregat globalny, obejmujący wszystkich użytkowników.
+     */
+    public static final long GLOBAL_USER_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Column(name = "trainings", nullable = false)
+    private long trainings;
+
+    @Column(name = "distance", nullable = false)
+    private double distance;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private long durationSeconds;
+
+    @Column(name = "speed_sum", nullable = false)
+    private double speedSum;
+
+    /**
+     * Tworzy agregat z podanymi wartościami początkowymi.
+     *
+     * @param key klucz przedziału
+     * @param delta wartości początkowe
+     */
+    TrainingRollup(RollupKey key, RollupDelta delta) {
+        this.granularity = key.granularity();
+        this.bucketStart = key.bucketStart();
+        this.userId = key.userId();
+        this.activityType = key.activityType();
+        this.trainings = delta.trainings();
+        this.distance = delta.distance();
+        this.durationSeconds = delta.durationSeconds();
+        this.speedSum = delta.speedSum();
+    }
+}
@@ -0,0 +1,81 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repozytorium JPA dla encji {@link TrainingRollup}.
+ */
+interface TrainingRollupRepository extends JpaRepository<TrainingRollup, Long> {
+
+    String SELECT_BUCKETS = """
+            select new com.capgemini.wsb.fitnesstracker.statistics.internal.RollupBucketDto(
+                r.bucketStart, sum(r.trainings), sum(r.distance), sum(r.durationSeconds), sum(r.speedSum) / sum(r.trainings))
+            from TrainingRollup r
+            where r.granularity = :granularity and r.userId = :userId and r.bucketStart between :from and :to
+            """;
+
+    String GROUP_BY_BUCKET = """
+             group by r.bucketStart
+            having sum(r.trainings) > 0
+            order by r.bucketStart""";
+
+    /**
+     * Dodaje przyrosty do agregatu jedną instrukcją UPDATE, bez ładowania encji.
+     * Parametry zmiennoprzecinkowe są rzutowane jawnie - bez tego Hibernate generuje {@code cast(? as float($p))},
+     * którego H2 nie przyjmuje.
+     *
+     * @return Liczba zaktualizowanych wierszy - {@code 0}, jeśli agregat jeszcze nie istnieje.
+     */
+    @Modifying
+    @Query("""
+            update TrainingRollup r
+            set r.trainings = r.trainings + :trainings,
+                r.distance = r.distance + cast(:distance as Double),
+                r.durationSeconds = r.durationSeconds + :durationSeconds,
+                r.speedSum = r.speedSum + cast(:speedSum as Double)
+            where r.granularity = :granularity and r.userId = :userId
+              and r.bucketStart = :bucketStart and r.activityType = :activityType""")
+    int applyDelta(RollupGranularity granularity,
+                   LocalDate bucketStart,
+                   long userId,
+                   ActivityType activityType,
+                   long trainings,
+                   double distance,
+                   long durationSeconds,
+                   double speedSum);
+
+    /**
+     * Zwraca przedziały z zakresu dat, zsumowane po wszystkich typach aktywności.
+     *
+     * @param granularity Rozdzielczość przedziałów.
+     * @param userId Identyfikator użytkownika lub {@link TrainingRollup#GLOBAL_USER_ID}.
+     * @param from Początek pierwszego przedziału.
+     * @param to Ostatni dzień zakresu (włącznie).
+     * @return Niepuste przedziały posortowane rosnąco.
+     */
+    @Query(SELECT_BUCKETS + GROUP_BY_BUCKET)
+    List<RollupBucketDto> findBuckets(RollupGranularity granularity, long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Zwraca przedziały z zakresu dat dla jednego typu aktywności.
+     *
+     * @param granularity Rozdzielczość przedziałów.
+     * @param userId Identyfikator użytkownika lub {@link TrainingRollup#GLOBAL_USER_ID}.
+     * @param from Początek pierwszego przedziału.
+     * @param to Ostatni dzień zakresu (włącznie).
+     * @param activityType Typ aktywności.
+     * @return Niepuste przedziały posortowane rosnąco.
+     */
+    @Query(SELECT_BUCKETS + " and r.activityType = :activityType" + GROUP_BY_BUCKET)
+    List<RollupBucketDto> findBuckets(RollupGranularity granularity,
+                                      long userId,
+                                      LocalDate from,
+                                      LocalDate to,
+                                      ActivityType activityType);
+}
@@ -0,0 +1,149 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Serwis utrzymujący agregaty treningów w przedziałach dziennych, tygodniowych i miesięcznych.
+ * Każdy zapis treningu aktualizuje przedziały jego użytkownika oraz przedziały globalne, więc zapytanie
+ * o roczny wykres zwraca kilkadziesiąt gotowych wierszy zamiast tysięcy treningów.
+ * Przedziały są wyznaczane na podstawie czasu rozpoczęcia treningu w strefie czasowej serwera.
+ * Brakujące wiersze tworzy {@link AggregateRowInserter}, więc współbieżne zapisy do nowego przedziału
+ * nie naruszają klucza unikalnego {@code uk_training_rollup_bucket}; puste wiersze pomijają zapytania odczytu.
+ */
+@Service
+@Transactional(readOnly = true)
+class TrainingRollupService {
+
+    /**
+     * Maksymalna liczba przedziałów zwracana przez jedno zapytanie.
+     */
+    static final int MAX_BUCKETS = 1_000;
+
+    @Autowired
+    private TrainingRollupRepository rollupRepository;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private AggregateRowInserter rowInserter;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final PendingDeltas<RollupKey, RollupDelta> pendingDeltas = new PendingDeltas<>(this::applyDeltas);
+
+    /**
+     * Uwzględnia zapisany trening w agregatach. Wkład poprzedniego stanu treningu jest odejmowany
+     * z jego przedziałów, a wkład nowego dodawany - trening przeniesiony na inny dzień lub zmieniony typ aktywności
+     * trafia do właściwych przedziałów.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @EventListener
+    @Transactional
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        pendingDeltas.update(pending -> {
+            TrainingSnapshot previous = event.previous();
+            if (previous != null) {
+                forEachKey(previous, key -> pending.computeIfAbsent(key, k -> new RollupDelta()).subtract(previous));
+            }
+            TrainingSnapshot current = event.current();
+            forEachKey(current, key -> pending.computeIfAbsent(key, k -> new RollupDelta()).add(current));
+        });
+    }
+
+    /**
+     * Zwraca agregaty treningów z podanego zakresu dat.
+     *
+     * @param userId identyfikator użytkownika lub {@code null} dla agregatów globalnych
+     * @param granularity rozdzielczość przedziałów
+     * @param from pierwszy dzień zakresu - zaokrąglany w dół do początku przedziału
+     * @param to ostatni dzień zakresu (włącznie)
+     * @param activityType typ aktywności lub {@code null} dla wszystkich typów
+     * @return niepuste przedziały posortowane rosnąco
+     * @throws BusinessException jeśli zakres jest pusty lub obejmuje więcej niż {@link #MAX_BUCKETS} przedziałów
+     */
+    List<RollupBucketDto> findRollups(@Nullable Long userId,
+                                      RollupGranularity granularity,
+                                      LocalDate from,
+                                      LocalDate to,
+                                      @Nullable ActivityType activityType) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Range end must not be before its start");
+        }
+        LocalDate start = granularity.bucketStart(from);
+        if (granularity.bucketStart(to).isAfter(start.plus(MAX_BUCKETS - 1L, granularity.unit()))) {
+            throw new BusinessException("Range exceeds %d %s buckets".formatted(MAX_BUCKETS, granularity));
+        }
+        long scope = userId != null ? userId : TrainingRollup.GLOBAL_USER_ID;
+        return activityType == null
+                ? rollupRepository.findBuckets(granularity, scope, start, to)
+                : rollupRepository.findBuckets(granularity, scope, start, to, activityType);
+    }
+
+    /**
+     * Przelicza od nowa wszystkie agregaty jednym strumieniowym przebiegiem po treningach.
+     * Tryb naprawczy dla danych zapisanych z pominięciem serwisu treningów.
+     *
+     * @return liczba zapisanych agregatów
+     */
+    @Transactional
+    public int rebuildRollups() {
+        Map<RollupKey, RollupDelta> totals = new TreeMap<>();
+        trainingService.exportTrainings(training -> {
+            TrainingSnapshot snapshot = TrainingSnapshot.of(training);
+            forEachKey(snapshot, key -> totals.computeIfAbsent(key, k -> new RollupDelta()).add(snapshot));
+        });
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.saveAll(totals.entrySet().stream()
+                .map(entry -> new TrainingRollup(entry.getKey(), entry.getValue()))
+                .toList());
+        return totals.size();
+    }
+
+    private void forEachKey(TrainingSnapshot training, Consumer<RollupKey> action) {
+        LocalDate day = training.startTime().toInstant().atZone(zone).toLocalDate();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDate bucketStart = granularity.bucketStart(day);
+            action.accept(new RollupKey(granularity, bucketStart, TrainingRollup.GLOBAL_USER_ID, training.activityType()));
+            if (training.userId() != null) {
+                action.accept(new RollupKey(granularity, bucketStart, training.userId(), training.activityType()));
+            }
+        }
+    }
+
+    private void applyDeltas(Map<RollupKey, RollupDelta> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            if (applyDelta(key, delta) == 0) {
+                rowInserter.insertIfAbsent(() -> rollupRepository.saveAndFlush(new TrainingRollup(key, new RollupDelta())));
+                if (applyDelta(key, delta) == 0) {
+                    rollupRepository.save(new TrainingRollup(key, delta));
+                }
+            }
+        });
+    }
+
+    private int applyDelta(RollupKey key, RollupDelta delta) {
+        return rollupRepository.applyDelta(key.granularity(), key.bucketStart(), key.userId(), key.activityType(),
+                delta.trainings(), delta.distance(), delta.durationSeconds(), delta.speedSum());
+    }
+}
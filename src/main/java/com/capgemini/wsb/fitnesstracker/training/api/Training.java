@@ -16,18 +16,25 @@ import lombok.Setter;
  * Klasa encji reprezentująca trening w systemie FitnessTracker.
  * Zawiera informacje o użytkowniku, czasie rozpoczęcia i zakończenia treningu,
  * typie aktywności, przebytej odległości oraz średniej prędkości.
+ * Indeksy odpowiadają zapytaniom repozytorium: po użytkowniku, po typie aktywności oraz po dacie zakończenia.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_training_user_end_time", columnList = "user_id, end_time"),
+        @Index(name = "idx_training_activity_end_time", columnList = "activity_type, end_time"),
+        @Index(name = "idx_training_end_time", columnList = "end_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_seq")
+    @SequenceGenerator(name = "training_seq", sequenceName = "training_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -47,6 +54,9 @@ public class Training {
     @Column(name = "average_speed")
     private double averageSpeed;
 
+    @Version
+    private long version;
+
     /**
      * Konstruktor dla klasy Training, inicjalizujący wszystkie potrzebne pola.
      *
@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.util.List;
+
+/**
+ * Wynik wsadowego zapisu treningów.
+ *
+ * @param accepted Liczba treningów zapisanych w bazie danych.
+ * @param rejected Lista odrzuconych pozycji wraz z przyczyną odrzucenia, w kolejności pozycji w żądaniu.
+ */
+public record TrainingBatchResult(int accepted, List<Rejection> rejected) {
+
+    /**
+     * Informacja o odrzuconej pozycji wsadu.
+     *
+     * @param index Indeks pozycji w przesłanej liście treningów (liczony od zera).
+     * @param reason Przyczyna odrzucenia.
+     */
+    public record Rejection(int index, String reason) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Zdarzenie aplikacji publikowane po zapisaniu (utworzeniu lub aktualizacji) treningu.
+ * Jest publikowane wewnątrz transakcji zapisu, dzięki czemu odbiorcy mogą aktualizować
+ * dane pochodne atomowo razem z treningiem albo - przez {@code @TransactionalEventListener} - dopiero po zatwierdzeniu.
+ *
+ * @param previous Stan treningu przed zmianą lub {@code null}, jeśli trening został utworzony.
+ * @param current Stan treningu po zmianie.
+ */
+public record TrainingSavedEvent(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    /**
+     * Informuje, czy zdarzenie dotyczy nowo utworzonego treningu.
+     *
+     * @return {@code true}, jeśli trening został utworzony.
+     */
+    public boolean isCreated() {
+        return previous == null;
+    }
+}
@@ -1,7 +1,13 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import jakarta.annotation.Nullable;
+
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfejs definiujący usługi zarządzania treningami.
@@ -9,6 +15,11 @@ import java.util.List;
  */
 public interface TrainingService {
 
+    /**
+     * Maksymalna liczba treningów przyjmowana w jednym wsadzie.
+     */
+    int MAX_BATCH_SIZE = 10_000;
+
     /**
      * Tworzy nowy trening i zapisuje go w bazie danych.
      *
@@ -17,6 +28,15 @@ public interface TrainingService {
      */
     Training createTraining(Training training);
 
+    /**
+     * Zapisuje wsad treningów w jednej transakcji, z wykorzystaniem wsadowych instrukcji JDBC.
+     * Niepoprawne pozycje są pomijane i raportowane w wyniku, pozostałe zostają zapisane.
+     *
+     * @param trainings Lista treningów do zapisania, co najwyżej {@value #MAX_BATCH_SIZE} pozycji.
+     * @return Wynik zapisu z liczbą zapisanych treningów i listą odrzuconych pozycji.
+     */
+    TrainingBatchResult createTrainings(List<Training> trainings);
+
     /**
      * Zwraca listę wszystkich treningów zarejestrowanych w systemie.
      *
@@ -24,6 +44,41 @@ public interface TrainingService {
      */
     List<Training> findAllTrainings();
 
+    /**
+     * Zwraca jedną stronę treningów w stabilnym porządku rosnących identyfikatorów.
+     *
+     * @param after Kursor zwrócony z poprzedniej strony lub {@code null} dla pierwszej strony.
+     * @param limit Żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego.
+     * @return Strona treningów wraz z kursorem kolejnej strony.
+     */
+    CursorPage<Training> findTrainingsPage(@Nullable String after, @Nullable Integer limit);
+
+    /**
+     * Przekazuje kolejno wszystkie treningi do podanego konsumenta, bez ładowania całej tabeli do pamięci.
+     * Treningi przekazane do konsumenta są odłączane od kontekstu persystencji, więc konsument nie powinien
+     * przechowywać do nich referencji ani odwoływać się do leniwie ładowanych powiązań po powrocie.
+     *
+     * @param consumer Konsument wywoływany dla każdego treningu, w porządku rosnących identyfikatorów.
+     */
+    void exportTrainings(Consumer<Training> consumer);
+
+    /**
+     * Przekazuje kolejno treningi zakończone po podanym czasie do podanego konsumenta.
+     * Obowiązują te same zasady co w {@link #exportTrainings(Consumer)}, ale odczyt obejmuje tylko wskazany okres.
+     *
+     * @param endedAfter Czas, po którym trening musiał się zakończyć.
+     * @param consumer Konsument wywoływany dla każdego treningu.
+     */
+    void exportTrainingsEndedAfter(Date endedAfter, Consumer<Training> consumer);
+
+    /**
+     * Przekazuje kolejno obrazy stanu wszystkich treningów do podanego konsumenta, bez ładowania encji.
+     * Przeznaczone do budowania struktur w pamięci obejmujących całą tabelę treningów.
+     *
+     * @param consumer Konsument wywoływany dla każdego treningu, w porządku rosnących identyfikatorów.
+     */
+    void exportTrainingSnapshots(Consumer<TrainingSnapshot> consumer);
+
     /**
      * Wyszukuje wszystkie treningi przypisane do konkretnego użytkownika.
      *
@@ -32,6 +87,27 @@ public interface TrainingService {
      */
     List<Training> findTrainingsByUserId(Long userId);
 
+    /**
+     * Zwraca licznik zmian treningów użytkownika, zwiększany przy każdym zapisie jego treningu.
+     * Pozwala stwierdzić, czy lista treningów użytkownika się zmieniła, bez jej wczytywania.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return Licznik zmian lub {@link Optional#empty()}, jeśli użytkownik nie istnieje.
+     */
+    Optional<Long> findUserTrainingsVersion(Long userId);
+
+    /**
+     * Wyszukuje treningi wszystkich użytkowników z podanego zakresu identyfikatorów, zakończone w podanym przedziale
+     * czasu, jednym zapytaniem. Przeznaczone do przetwarzania użytkowników porcjami.
+     *
+     * @param firstUserId Najmniejszy identyfikator użytkownika (włącznie).
+     * @param lastUserId Największy identyfikator użytkownika (włącznie).
+     * @param from Początek przedziału czasu zakończenia (włącznie).
+     * @param to Koniec przedziału czasu zakończenia (wyłącznie).
+     * @return Lista obrazów stanu treningów.
+     */
+    List<TrainingSnapshot> findTrainingSnapshots(Long firstUserId, Long lastUserId, Date from, Date to);
+
     /**
      * Wyszukuje wszystkie treningi, które zostały zakończone po podanej dacie.
      *
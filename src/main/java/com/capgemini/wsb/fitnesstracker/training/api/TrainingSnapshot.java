@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.Date;
+
+/**
+ * Niemodyfikowalny obraz stanu treningu w chwili zapisu.
+ * Pozwala odbiorcom zdarzeń porównać stan sprzed i po zmianie bez dostępu do zarządzanej encji.
+ *
+ * @param id Identyfikator treningu.
+ * @param userId Identyfikator użytkownika, do którego należy trening, lub {@code null}.
+ * @param startTime Czas rozpoczęcia treningu.
+ * @param endTime Czas zakończenia treningu.
+ * @param activityType Typ aktywności.
+ * @param distance Przebyty dystans.
+ * @param averageSpeed Średnia prędkość.
+ */
+public record TrainingSnapshot(Long id,
+                               @Nullable Long userId,
+                               Date startTime,
+                               Date endTime,
+                               ActivityType activityType,
+                               double distance,
+                               double averageSpeed) {
+
+    /**
+     * Tworzy obraz stanu podanego treningu. Odczytuje jedynie identyfikator użytkownika,
+     * więc nie inicjalizuje leniwie ładowanego powiązania.
+     *
+     * @param training Trening, którego stan ma zostać utrwalony.
+     * @return Obraz stanu treningu.
+     */
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(training.getId(),
+                training.getUser() != null ? training.getUser().getId() : null,
+                new Date(training.getStartTime().getTime()),
+                new Date(training.getEndTime().getTime()),
+                training.getActivityType(),
+                training.getDistance(),
+                training.getAverageSpeed());
+    }
+
+    /**
+     * Zwraca czas trwania treningu.
+     *
+     * @return Czas trwania w milisekundach.
+     */
+    public long durationMillis() {
+        return endTime.getTime() - startTime.getTime();
+    }
+}
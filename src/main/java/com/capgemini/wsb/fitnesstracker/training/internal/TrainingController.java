@@ -1,12 +1,29 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.etag.api.EntityTag;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchResult;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Kontroler REST służący do zarządzania danymi treningowymi.
@@ -16,9 +33,13 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/trainings")
 public class TrainingController {
     @Autowired
-    private TrainingService trainingService;
+    private TrainingServiceImpl trainingService;
     @Autowired
     private TrainingMapper trainingMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TrainingFeed trainingFeed;
 
     /**
      * Tworzy nowy trening na podstawie danych przekazanych w DTO.
@@ -29,34 +50,128 @@ public class TrainingController {
     @PostMapping
     public ResponseEntity<TrainingDto> createTraining(@RequestBody TrainingDto trainingDto) {
         Training createdTraining = trainingService.createTraining(trainingMapper.toEntity(trainingDto));
-        return ResponseEntity.ok(trainingMapper.toDto(createdTraining));
+        return ResponseEntity.ok()
+                .eTag(EntityTag.of(createdTraining.getId(), createdTraining.getVersion()))
+                .body(trainingMapper.toDto(createdTraining));
     }
 
     /**
-     * Pobiera wszystkie treningi z bazy danych.
+     * Tworzy wiele treningów w jednym żądaniu. Pozycje, których nie da się przekształcić na encję
+     * lub które nie przechodzą walidacji, są odrzucane indywidualnie - pozostałe zostają zapisane.
+     * Rozmiar wsadu sprawdzany jest przed przetworzeniem pozycji, więc liczą się również pozycje niepoprawne.
      *
-     * @return ResponseEntity z listą DTO wszystkich treningów.
+     * @param trainingDtos Lista DTO treningów do zapisania.
+     * @return ResponseEntity z liczbą zapisanych treningów i listą odrzuconych pozycji.
+     * @throws BusinessException jeśli wsad przekracza {@value TrainingService#MAX_BATCH_SIZE} pozycji
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TrainingBatchResult> createTrainings(@RequestBody List<TrainingDto> trainingDtos) {
+        if (trainingDtos.size() > TrainingService.MAX_BATCH_SIZE) {
+            throw new BusinessException("Batch must not contain more than %d trainings".formatted(TrainingService.MAX_BATCH_SIZE));
+        }
+        List<Training> trainings = new ArrayList<>(trainingDtos.size());
+        List<Integer> positions = new ArrayList<>(trainingDtos.size());
+        List<TrainingBatchResult.Rejection> rejected = new ArrayList<>();
+        for (int i = 0; i < trainingDtos.size(); i++) {
+            TrainingDto trainingDto = trainingDtos.get(i);
+            if (trainingDto == null) {
+                rejected.add(new TrainingBatchResult.Rejection(i, "Training is required"));
+                continue;
+            }
+            try {
+                trainings.add(trainingMapper.toEntity(trainingDto));
+                positions.add(i);
+            } catch (BusinessException e) {
+                rejected.add(new TrainingBatchResult.Rejection(i, e.getMessage()));
+            }
+        }
+        TrainingBatchResult result = trainingService.createTrainings(trainings);
+        result.rejected().forEach(rejection ->
+                rejected.add(new TrainingBatchResult.Rejection(positions.get(rejection.index()), rejection.reason())));
+        rejected.sort(Comparator.comparingInt(TrainingBatchResult.Rejection::index));
+        return ResponseEntity.ok(new TrainingBatchResult(result.accepted(), rejected));
+    }
+
+    /**
+     * Pobiera stronę treningów w porządku rosnących identyfikatorów.
+     * Kursor kolejnej strony zwracany jest w nagłówku {@value Cursor#NEXT_CURSOR_HEADER};
+     * jego brak oznacza ostatnią stronę.
+     *
+     * @param after Kursor zwrócony z poprzedniej strony; pominięty dla pierwszej strony.
+     * @param limit Rozmiar strony, ograniczony do {@value Cursor#MAX_LIMIT}.
+     * @return ResponseEntity z listą DTO treningów z bieżącej strony.
      */
     @GetMapping
-    public ResponseEntity<List<TrainingDto>> getAllTrainings() {
-        List<TrainingDto> dtos = trainingService.findAllTrainings().stream()
-                .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<TrainingDto>> getAllTrainings(@RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer limit) {
+        CursorPage<TrainingDto> page = trainingService.findTrainingDtosPage(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(Cursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Eksportuje wszystkie treningi w formacie NDJSON (jeden obiekt JSON na linię).
+     * Treningi są czytane strumieniowo z bazy danych i zapisywane do odpowiedzi na bieżąco,
+     * więc zużycie pamięci nie zależy od liczby eksportowanych treningów.
+     *
+     * @return ResponseEntity ze strumieniowaną treścią odpowiedzi.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTrainings() {
+        ObjectWriter writer = objectMapper.writerFor(TrainingDto.class);
+        StreamingResponseBody body = outputStream -> trainingService.exportTrainings(training -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(trainingMapper.toDto(training)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Otwiera strumień Server-Sent Events z treningami tworzonymi i aktualizowanymi od chwili subskrypcji.
+     * Każde zdarzenie ({@code training-created} lub {@code training-updated}) zawiera DTO treningu w formacie JSON;
+     * co pewien czas wysyłany jest komentarz podtrzymujący połączenie. Klient, który nie nadąża z odbiorem, jest rozłączany.
+     *
+     * @param userId Opcjonalny identyfikator użytkownika, którego treningi mają być przesyłane.
+     * @param activityType Opcjonalny typ aktywności, którego treningi mają być przesyłane.
+     * @return Emiter zdarzeń strumienia.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTrainings(@RequestParam(required = false) Long userId,
+                                      @RequestParam(required = false) ActivityType activityType) {
+        return trainingFeed.subscribe(userId, activityType);
     }
 
     /**
-     * Pobiera treningi przypisane do konkretnego użytkownika.
+     * Pobiera treningi przypisane do konkretnego użytkownika. Odpowiedź zawiera znacznik ETag wyznaczony z licznika
+     * zmian treningów użytkownika; jeżeli zgadza się on z nagłówkiem {@code If-None-Match}, zwracany jest kod 304
+     * bez wczytywania treningów. Licznik odczytywany jest przed listą, więc znacznik nigdy nie jest nowszy niż dane.
      *
      * @param userId Identyfikator użytkownika.
-     * @return ResponseEntity z listą DTO treningów danego użytkownika.
+     * @param request Bieżące żądanie, z którego odczytywany jest nagłówek {@code If-None-Match}.
+     * @return ResponseEntity z listą DTO treningów danego użytkownika albo odpowiedź 304 ze znacznikiem ETag i bez treści.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TrainingDto>> getTrainingsByUserId(@PathVariable Long userId) {
-        List<TrainingDto> dtos = trainingService.findTrainingsByUserId(userId).stream()
-                .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<TrainingDto>> getTrainingsByUserId(@PathVariable Long userId, WebRequest request) {
+        Optional<Long> version = trainingService.findUserTrainingsVersion(userId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(trainingService.findTrainingDtosByUserId(userId));
+        }
+        String eTag = EntityTag.of(userId, version.get());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(trainingService.findTrainingDtosByUserId(userId));
     }
 
     /**
@@ -67,10 +182,7 @@ public class TrainingController {
      */
     @GetMapping("/completed")
     public ResponseEntity<List<TrainingDto>> getCompletedTrainings(@RequestParam("date") String date) {
-        List<TrainingDto> dtos = trainingService.findCompletedTrainings(date).stream()
-                .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(trainingService.findCompletedTrainingDtos(date));
     }
 
     /**
@@ -81,10 +193,7 @@ public class TrainingController {
      */
     @GetMapping("/activity/{activityType}")
     public ResponseEntity<List<TrainingDto>> getTrainingsByActivity(@PathVariable String activityType) {
-        List<TrainingDto> dtos = trainingService.findTrainingsByActivityType(activityType).stream()
-                .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(trainingService.findTrainingDtosByActivityType(activityType));
     }
 
     /**
@@ -97,6 +206,8 @@ public class TrainingController {
     @PutMapping("/{trainingId}")
     public ResponseEntity<TrainingDto> updateTraining(@PathVariable Long trainingId, @RequestBody TrainingDto trainingDto) {
         Training updatedTraining = trainingService.updateTraining(trainingId, trainingMapper.toEntity(trainingDto));
-        return ResponseEntity.ok(trainingMapper.toDto(updatedTraining));
+        return ResponseEntity.ok()
+                .eTag(EntityTag.of(trainingId, updatedTraining.getVersion()))
+                .body(trainingMapper.toDto(updatedTraining));
     }
 }
@@ -40,6 +40,21 @@ public class TrainingDto {
         this.averageSpeed = averageSpeed;
     }
 
+    /**
+     * Konstruktor używany przez zapytania projekcyjne JPQL ({@code select new ...}),
+     * które wypełniają DTO bezpośrednio kolumnami tabeli treningów, bez tworzenia encji.
+     *
+     * @param id Unikalny identyfikator treningu.
+     * @param startTime Czas rozpoczęcia treningu.
+     * @param endTime Czas zakończenia treningu.
+     * @param activityType Typ aktywności treningowej.
+     * @param distance Dystans przebyty podczas treningu.
+     * @param averageSpeed Średnia prędkość osiągnięta podczas treningu.
+     */
+    public TrainingDto(Long id, Date startTime, Date endTime, ActivityType activityType, double distance, double averageSpeed) {
+        this(id, startTime, endTime, activityType.name(), distance, averageSpeed);
+    }
+
     // Getters
     public Long getId() {
         return id;
@@ -0,0 +1,318 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strumień zatwierdzonych zapisów treningów dla subskrybentów Server-Sent Events.
+ * <p>
+ * Zdarzenie jest serializowane raz i wstawiane do ograniczonych buforów pasujących subskrybentów - wątek zatwierdzający
+ * zapis nigdy nie czeka na klientów. Bufory opróżnia niewielka pula wątków; zadanie opróżniania jest planowane tylko
+ * wtedy, gdy subskrybent ma zdarzenia do wysłania, więc bezczynne połączenia nie zajmują wątków. Subskrybent, którego
+ * bufor się zapełnił, nie nadąża z odbiorem i jest rozłączany (klient {@code EventSource} połączy się ponownie).
+ * Zdarzenia wysłane przed subskrypcją nie są odtwarzane.
+ * <p>
+ * Zapis do klienta, który przestał odbierać dane, blokuje wątek wysyłający do czasu przekroczenia limitu zapisu
+ * kontenera. Dlatego każde wysłanie ma termin {@code send-timeout}: nadzorca rozłącza subskrybenta, którego zapis
+ * trwa dłużej, i na czas zablokowanego zapisu dodaje do puli wątek zastępczy, aby pozostali subskrybenci nie czekali.
+ */
+@Component
+@Slf4j
+class TrainingFeed {
+
+    static final String CREATED = "training-created";
+    static final String UPDATED = "training-updated";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Stan wysyłania subskrybenta, który nie wysyła zdarzenia.
+     */
+    private static final long IDLE = 0;
+
+    /**
+     * Stan wysyłania subskrybenta, którego zapis przekroczył termin.
+     */
+    private static final long TIMED_OUT = -1;
+
+    private final TrainingFeedProperties properties;
+    private final ObjectWriter writer;
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService timer;
+    private final long startNanos = System.nanoTime();
+    private final Set<DataWithMediaType> heartbeatEvent = SseEmitter.event().comment("heartbeat").build();
+    private final Counter evicted;
+
+    TrainingFeed(TrainingFeedProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.writer = objectMapper.writerFor(TrainingDto.class);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(properties.getSenderThreads(), properties.getSenderThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "training-feed-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "training-feed-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        timer.scheduleAtFixedRate(() -> subscribers.values().forEach(subscriber -> subscriber.offer(heartbeatEvent)),
+                interval, interval, TimeUnit.MILLISECONDS);
+        long sendTimeout = properties.getSendTimeout().toNanos();
+        long checkInterval = Math.max(1, properties.getSendTimeout().toMillis() / 4);
+        timer.scheduleAtFixedRate(() -> sending.forEach(subscriber -> subscriber.checkSend(sendTimeout)),
+                checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        Gauge.builder("fitnesstracker.feed.subscribers", subscribers, Map::size)
+                .description("Connected training feed subscribers")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("fitnesstracker.feed.evicted")
+                .description("Training feed subscribers disconnected for not keeping up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejestruje nowego subskrybenta.
+     *
+     * @param userId jeżeli podany, subskrybent otrzymuje tylko treningi tego użytkownika
+     * @param activityType jeżeli podany, subskrybent otrzymuje tylko treningi tego typu
+     * @return emiter, który należy zwrócić z kontrolera
+     * @throws ResponseStatusException z kodem 503, jeżeli osiągnięto limit subskrybentów
+     */
+    SseEmitter subscribe(@Nullable Long userId, @Nullable ActivityType activityType) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many training feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter, userId, activityType,
+                new ArrayBlockingQueue<>(properties.getBufferSize()));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+        subscribers.put(subscriber.id, subscriber);
+        return emitter;
+    }
+
+    /**
+     * Przekazuje zatwierdzony zapis treningu pasującym subskrybentom.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        TrainingSnapshot training = event.current();
+        Set<DataWithMediaType> data;
+        try {
+            data = SseEmitter.event()
+                    .id(Long.toString(eventIds.incrementAndGet()))
+                    .name(event.isCreated() ? CREATED : UPDATED)
+                    .data(writer.writeValueAsString(toDto(training)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize training {} for the feed", training.id(), e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.accepts(training)) {
+                subscriber.offer(data);
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        timer.shutdownNow();
+        subscribers.values().forEach(Subscriber::evict);
+        senders.shutdown();
+        if (!senders.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    /**
+     * Zmienia liczbę wątków wysyłających: zwiększa ją na czas zapisu, który przekroczył termin, i przywraca,
+     * gdy zapis się zakończy.
+     */
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private static TrainingDto toDto(TrainingSnapshot training) {
+        return new TrainingDto(training.id(), training.startTime(), training.endTime(), training.activityType(),
+                training.distance(), training.averageSpeed());
+    }
+
+    /**
+     * Subskrybent z własnym buforem zdarzeń. Co najwyżej jedno zadanie opróżniania bufora jest zaplanowane naraz,
+     * więc zdarzenia wysyłane są w kolejności wstawienia.
+     */
+    private final class Subscriber {
+
+        private final long id;
+        private final SseEmitter emitter;
+        @Nullable
+        private final Long userId;
+        @Nullable
+        private final ActivityType activityType;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Początek bieżącego wysyłania liczony od utworzenia strumienia (dodatni), {@link #IDLE} albo
+         * {@link #TIMED_OUT}. O tym, czy zapis zdążył przed terminem, rozstrzyga jedna zmiana tej wartości.
+         */
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+        private volatile boolean closed;
+
+        Subscriber(long id, SseEmitter emitter, @Nullable Long userId, @Nullable ActivityType activityType,
+                   BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this.id = id;
+            this.emitter = emitter;
+            this.userId = userId;
+            this.activityType = activityType;
+            this.buffer = buffer;
+        }
+
+        boolean accepts(TrainingSnapshot training) {
+            return (userId == null || userId.equals(training.userId()))
+                    && (activityType == null || activityType == training.activityType());
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                evicted.increment();
+                log.debug("Evicting training feed subscriber {}: {} events pending", id, buffer.size());
+                evict();
+                return;
+            }
+            schedule();
+        }
+
+        /**
+         * Odłącza subskrybenta. Połączenie zamyka zadanie opróżniania bufora po zakończeniu bieżącego wysyłania,
+         * żeby wątek wstawiający zdarzenia nie czekał na blokadę emitera.
+         */
+        void evict() {
+            close();
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(id);
+        }
+
+        /**
+         * Rozłącza subskrybenta, jeżeli bieżące wysyłanie trwa dłużej niż {@code timeoutNanos}. Wątek zablokowany
+         * w zapisie zastępowany jest w puli nowym do czasu zakończenia zapisu - również wtedy, gdy subskrybent został
+         * już rozłączony z powodu pełnego bufora.
+         */
+        void checkSend(long timeoutNanos) {
+            long started = sendStarted.get();
+            if (started > IDLE && System.nanoTime() - startNanos - started > timeoutNanos
+                    && sendStarted.compareAndSet(started, TIMED_OUT)) {
+                if (!closed) {
+                    evicted.increment();
+                    log.debug("Evicting training feed subscriber {}: send did not finish within {} ms",
+                            id, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+                    close();
+                }
+                resizeSenders(1);
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    long started = Math.max(System.nanoTime() - startNanos, 1);
+                    sendStarted.set(started);
+                    sending.add(this);
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        close();
+                    } finally {
+                        sending.remove(this);
+                        if (!sendStarted.compareAndSet(started, IDLE)) {
+                            resizeSenders(-1);
+                        }
+                    }
+                }
+                if (closed) {
+                    buffer.clear();
+                    emitter.complete();
+                    return;
+                }
+                scheduled.set(false);
+                if (buffer.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}
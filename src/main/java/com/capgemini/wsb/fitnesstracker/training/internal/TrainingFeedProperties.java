@@ -0,0 +1,55 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Konfiguracja strumienia zapisów treningów (Server-Sent Events).
+ */
+@ConfigurationProperties(prefix = "fitnesstracker.trainings.feed")
+@Getter
+class TrainingFeedProperties {
+
+    /**
+     * Maksymalna liczba zdarzeń oczekujących na wysłanie do jednego subskrybenta; subskrybent, którego bufor jest pełny,
+     * zostaje rozłączony.
+     */
+    private final int bufferSize;
+
+    /**
+     * Liczba wątków wysyłających zdarzenia do subskrybentów.
+     */
+    private final int senderThreads;
+
+    /**
+     * Odstęp między komentarzami podtrzymującymi połączenie, które pozwalają też wykryć rozłączonych klientów.
+     */
+    private final Duration heartbeatInterval;
+
+    /**
+     * Maksymalna liczba jednoczesnych subskrybentów; kolejne subskrypcje są odrzucane z kodem 503.
+     */
+    private final int maxSubscribers;
+
+    /**
+     * Maksymalny czas wysyłania jednego zdarzenia; subskrybent, do którego zapis trwa dłużej (klient nie odbiera
+     * danych), zostaje rozłączony.
+     */
+    private final Duration sendTimeout;
+
+    TrainingFeedProperties(@DefaultValue("256") int bufferSize,
+                           @DefaultValue("2") int senderThreads,
+                           @DefaultValue("15s") Duration heartbeatInterval,
+                           @DefaultValue("10000") int maxSubscribers,
+                           @DefaultValue("5s") Duration sendTimeout) {
+        this.bufferSize = bufferSize;
+        this.senderThreads = senderThreads;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeout = sendTimeout;
+    }
+
+}
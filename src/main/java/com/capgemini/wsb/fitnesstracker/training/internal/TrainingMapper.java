@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import org.springframework.stereotype.Component;
 
@@ -30,18 +31,35 @@ public class TrainingMapper {
 
     /**
      * Konwertuje obiekt TrainingDto na obiekt Training.
+     * Pola, bez których encji nie da się utworzyć (typ aktywności, dystans i średnia prędkość), są sprawdzane jawnie;
+     * pozostałe reguły poprawności weryfikuje serwis treningów.
      *
      * @param dto Obiekt TrainingDto, który ma zostać przekonwertowany na encję.
      * @return Obiekt Training utworzony na podstawie danych z TrainingDto.
+     * @throws BusinessException jeśli brakuje wymaganego pola lub typ aktywności jest nieznany
      */
     public Training toEntity(TrainingDto dto) {
+        if (dto.getActivityType() == null) {
+            throw new BusinessException("Activity type is required");
+        }
+        if (dto.getDistance() == null || dto.getAverageSpeed() == null) {
+            throw new BusinessException("Distance and average speed are required");
+        }
         Training training = new Training();
         training.setId(dto.getId());
         training.setStartTime(dto.getStartTime());
         training.setEndTime(dto.getEndTime());
-        training.setActivityType(ActivityType.valueOf(dto.getActivityType()));
+        training.setActivityType(activityType(dto.getActivityType()));
         training.setDistance(dto.getDistance());
         training.setAverageSpeed(dto.getAverageSpeed());
         return training;
     }
+
+    private static ActivityType activityType(String name) {
+        try {
+            return ActivityType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown activity type: " + name);
+        }
+    }
 }
@@ -1,10 +1,22 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfejs repozytorium JPA dla encji Training, zapewniający dostęp do operacji bazodanowych.
@@ -12,27 +24,178 @@ import java.util.List;
  */
 public interface TrainingRepository extends JpaRepository<Training, Long> {
 
+    /**
+     * Początek zapytań projekcyjnych, wypełniających {@link TrainingDto} bezpośrednio kolumnami tabeli treningów.
+     */
+    String SELECT_DTO = "select new com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto("
+            + "t.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed) from Training t ";
+
     /**
      * Wyszukuje wszystkie treningi przypisane do określonego użytkownika na podstawie jego ID.
+     * Użytkownik jest pobierany w tym samym zapytaniu (fetch join), a encje są ładowane tylko do odczytu.
+     * Warunek dotyczy kolumny {@code user_id} treningu - zapytanie pochodne filtrowało po identyfikatorze
+     * dołączonego użytkownika i czytało całą tabelę treningów.
      *
      * @param userId Identyfikator użytkownika, dla którego szukamy treningów.
      * @return Lista treningów przypisanych do użytkownika.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from Training t where t.user.id = :userId")
     List<Training> findByUserId(Long userId);
 
     /**
      * Znajduje wszystkie treningi, które zostały zakończone po określonej dacie.
+     * Użytkownik jest pobierany w tym samym zapytaniu (fetch join), a encje są ładowane tylko do odczytu.
+     * Warunek dotyczy kolumny {@code user_id} treningu - zapytanie pochodne filtrowało po identyfikatorze
+     * dołączonego użytkownika i czytało całą tabelę treningów.
      *
      * @param endTime Data, po której powinny być wyszukane zakończone treningi.
      * @return Lista treningów, które zakończyły się po podanej dacie.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
     List<Training> findByEndTimeAfter(Date endTime);
 
     /**
      * Wyszukuje treningi według określonego typu aktywności.
+     * Użytkownik jest pobierany w tym samym zapytaniu (fetch join), a encje są ładowane tylko do odczytu.
+     * Warunek dotyczy kolumny {@code user_id} treningu - zapytanie pochodne filtrowało po identyfikatorze
+     * dołączonego użytkownika i czytało całą tabelę treningów.
      *
      * @param activityType Typ aktywności, dla którego chcemy znaleźć treningi (np. Bieganie, Pływanie).
      * @return Lista treningów odpowiadających podanemu typowi aktywności.
      */
-    List<Training> findByActivityType(String activityType);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByActivityType(ActivityType activityType);
+
+    /**
+     * Pobiera kolejną stronę treningów jako DTO, w porządku rosnących identyfikatorów.
+     *
+     * @param afterId Identyfikator ostatniego treningu poprzedniej strony (wyłącznie).
+     * @param limit Maksymalna liczba zwracanych treningów.
+     * @return Lista DTO treningów o identyfikatorach większych niż {@code afterId}.
+     */
+    @Query(SELECT_DTO + "where t.id > :afterId order by t.id")
+    List<TrainingDto> findDtosAfter(Long afterId, Limit limit);
+
+    /**
+     * Wyszukuje treningi użytkownika jako DTO, jednym zapytaniem do tabeli treningów.
+     *
+     * @param userId Identyfikator użytkownika, dla którego szukamy treningów.
+     * @return Lista DTO treningów przypisanych do użytkownika.
+     */
+    @Query(SELECT_DTO + "where t.user.id = :userId")
+    List<TrainingDto> findDtosByUserId(Long userId);
+
+    /**
+     * Wyszukuje treningi zakończone po podanej dacie jako DTO, jednym zapytaniem do tabeli treningów.
+     *
+     * @param endTime Data, po której powinny być wyszukane zakończone treningi.
+     * @return Lista DTO treningów, które zakończyły się po podanej dacie.
+     */
+    @Query(SELECT_DTO + "where t.endTime > :endTime")
+    List<TrainingDto> findDtosByEndTimeAfter(Date endTime);
+
+    /**
+     * Wyszukuje treningi użytkowników z zakresu identyfikatorów, zakończone w podanym przedziale czasu,
+     * jednym zapytaniem korzystającym z indeksu {@code idx_training_user_end_time}.
+     *
+     * @param firstUserId Najmniejszy identyfikator użytkownika (włącznie).
+     * @param lastUserId Największy identyfikator użytkownika (włącznie).
+     * @param from Początek przedziału czasu zakończenia (włącznie).
+     * @param to Koniec przedziału czasu zakończenia (wyłącznie).
+     * @return Lista obrazów stanu treningów.
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id between :firstUserId and :lastUserId and t.endTime >= :from and t.endTime < :to""")
+    List<TrainingSnapshot> findSnapshotsByUserIdRange(Long firstUserId, Long lastUserId, Date from, Date to);
+
+    /**
+     * Wyszukuje treningi danego typu aktywności jako DTO, jednym zapytaniem do tabeli treningów.
+     *
+     * @param activityType Typ aktywności, dla którego chcemy znaleźć treningi.
+     * @return Lista DTO treningów odpowiadających podanemu typowi aktywności.
+     */
+    @Query(SELECT_DTO + "where t.activityType = :activityType")
+    List<TrainingDto> findDtosByActivityType(ActivityType activityType);
+
+    /**
+     * Pobiera kolejną stronę treningów w porządku rosnących identyfikatorów (stronicowanie kursorowe).
+     * Zapytanie korzysta z klucza głównego, więc jego koszt nie zależy od rozmiaru tabeli.
+     * Encje są ładowane tylko do odczytu.
+     *
+     * @param afterId Identyfikator ostatniego treningu poprzedniej strony (wyłącznie).
+     * @param limit Maksymalna liczba zwracanych treningów.
+     * @return Lista treningów o identyfikatorach większych niż {@code afterId}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Training> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Strumieniuje wszystkie treningi w porządku rosnących identyfikatorów bezpośrednio z kursora bazy danych.
+     * Sterownik JDBC pobiera wiersze porcjami, a encje ładowane są w trybie tylko do odczytu (bez migawek
+     * do wykrywania zmian). Strumień musi zostać zamknięty i konsumowany wewnątrz transakcji.
+     *
+     * @return Strumień wszystkich treningów.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Training> streamAllByOrderByIdAsc();
+
+    /**
+     * Strumieniuje treningi zakończone po podanym czasie, korzystając z indeksu {@code idx_training_end_time}.
+     * Wiersze pobierane są porcjami, a encje ładowane w trybie tylko do odczytu.
+     * Strumień musi zostać zamknięty i konsumowany wewnątrz transakcji.
+     *
+     * @param time Czas, po którym trening musiał się zakończyć.
+     * @return Strumień treningów zakończonych po podanym czasie.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Training> streamByEndTimeAfter(Date time);
+
+    /**
+     * Strumieniuje obrazy stanu wszystkich treningów w porządku rosnących identyfikatorów. Wiersze trafiają
+     * wprost do {@link TrainingSnapshot} bez tworzenia encji, więc odczyt nie obciąża kontekstu persystencji.
+     * Strumień musi zostać zamknięty i konsumowany wewnątrz transakcji.
+     *
+     * @return Strumień obrazów stanu wszystkich treningów.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            order by t.id""")
+    Stream<TrainingSnapshot> streamSnapshotsOrderedById();
+
+    /**
+     * Odczytuje licznik zmian treningów użytkownika ({@code users.trainings_version}) jednym odczytem klucza głównego.
+     *
+     * @param userId Identyfikator użytkownika.
+     * @return Licznik zmian lub {@link Optional#empty()}, jeśli użytkownik nie istnieje.
+     */
+    @Query("select u.trainingsVersion from User u where u.id = :userId")
+    Optional<Long> findTrainingsVersionByUserId(Long userId);
+
+    /**
+     * Zwiększa liczniki zmian treningów podanych użytkowników. Kolumna nie jest zapisywana przez encję użytkownika,
+     * więc licznik zmieniany jest zapytaniem natywnym; wersja użytkownika pozostaje bez zmian.
+     *
+     * @param userIds Identyfikatory użytkowników.
+     * @return Liczba zmienionych wierszy.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update users set trainings_version = trainings_version + 1 where id in (:userIds)", nativeQuery = true)
+    int incrementTrainingsVersions(Collection<Long> userIds);
 }
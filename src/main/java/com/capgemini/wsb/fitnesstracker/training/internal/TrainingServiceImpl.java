@@ -1,26 +1,67 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchResult;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
  * Serwis zapewniający implementację operacji CRUD oraz wyszukiwanie dla encji Training.
  * Umożliwia zarządzanie danymi treningowymi w aplikacji.
+ * Metody odczytu działają w transakcjach tylko do odczytu: Hibernate ładuje encje bez migawek
+ * do wykrywania zmian i nie wykonuje {@code flush} przy zatwierdzaniu; metody zapisu nadpisują to ustawienie.
+ * Każdy zapis treningu publikuje {@link TrainingSavedEvent} w ramach transakcji zapisu.
+ * <p>
+ * Metody zwracające {@link TrainingDto} obsługują kontroler treningów i nie należą do {@link TrainingService},
+ * więc API modułu nie zależy od jego typów wewnętrznych.
  */
 @Service
+@Transactional(readOnly = true)
 public class TrainingServiceImpl implements TrainingService {
 
+    /**
+     * Co ile wyeksportowanych treningów czyszczony jest kontekst persystencji.
+     */
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    /**
+     * Co ile zapisanych treningów wsad jest wysyłany do bazy i czyszczony jest kontekst persystencji.
+     * Wartość odpowiada {@code hibernate.jdbc.batch_size} oraz rozmiarowi puli identyfikatorów sekwencji.
+     */
+    private static final int INSERT_BATCH_SIZE = 50;
+
     @Autowired
     private TrainingRepository trainingRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Zapisuje nowy trening w bazie danych.
      *
@@ -28,8 +69,46 @@ public class TrainingServiceImpl implements TrainingService {
      * @return zapisany obiekt treningu
      */
     @Override
+    @Transactional
     public Training createTraining(Training training) {
-        return trainingRepository.save(training);
+        Training savedTraining = trainingRepository.save(training);
+        eventPublisher.publishEvent(new TrainingSavedEvent(null, TrainingSnapshot.of(savedTraining)));
+        return savedTraining;
+    }
+
+    /**
+     * Zapisuje wsad treningów. Poprawne treningi są utrwalane porcjami po {@value #INSERT_BATCH_SIZE},
+     * po każdej porcji następuje {@code flush} (jedna wsadowa instrukcja INSERT) i wyczyszczenie kontekstu
+     * persystencji, dzięki czemu zużycie pamięci nie rośnie wraz z rozmiarem wsadu.
+     * Błąd bazy danych wycofuje cały wsad.
+     *
+     * @param trainings lista treningów do zapisania
+     * @return wynik zapisu z listą odrzuconych pozycji
+     * @throws BusinessException jeśli wsad przekracza {@value TrainingService#MAX_BATCH_SIZE} pozycji
+     */
+    @Override
+    @Transactional
+    public TrainingBatchResult createTrainings(List<Training> trainings) {
+        if (trainings.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("Batch must not contain more than %d trainings".formatted(MAX_BATCH_SIZE));
+        }
+        List<TrainingBatchResult.Rejection> rejected = new ArrayList<>();
+        int accepted = 0;
+        for (int i = 0; i < trainings.size(); i++) {
+            Training training = trainings.get(i);
+            String violation = validate(training);
+            if (violation != null) {
+                rejected.add(new TrainingBatchResult.Rejection(i, violation));
+                continue;
+            }
+            entityManager.persist(training);
+            eventPublisher.publishEvent(new TrainingSavedEvent(null, TrainingSnapshot.of(training)));
+            if (++accepted % INSERT_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return new TrainingBatchResult(accepted, rejected);
     }
 
     /**
@@ -42,6 +121,85 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findAll();
     }
 
+    /**
+     * Zwraca stronę treningów, pobierając z bazy jeden rekord ponad rozmiar strony,
+     * aby bez dodatkowego zapytania ustalić, czy istnieje kolejna strona.
+     *
+     * @param after kursor poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return strona treningów
+     */
+    @Override
+    public CursorPage<Training> findTrainingsPage(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<Training> rows = trainingRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decode(after), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Training::getId);
+    }
+
+    /**
+     * Zwraca stronę DTO treningów pobraną zapytaniem projekcyjnym, z jednym rekordem zapasu
+     * pozwalającym ustalić istnienie kolejnej strony.
+     *
+     * @param after kursor poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return strona DTO treningów
+     */
+    public CursorPage<TrainingDto> findTrainingDtosPage(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<TrainingDto> rows = trainingRepository.findDtosAfter(Cursor.decode(after), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, TrainingDto::getId);
+    }
+
+    /**
+     * Eksportuje wszystkie treningi, czytając je strumieniowo z kursora bazy danych.
+     * Kontekst persystencji jest okresowo czyszczony, dzięki czemu zużycie pamięci nie rośnie
+     * wraz z liczbą wyeksportowanych treningów.
+     *
+     * @param consumer konsument wywoływany dla każdego treningu
+     */
+    @Override
+    public void exportTrainings(Consumer<Training> consumer) {
+        try (Stream<Training> trainings = trainingRepository.streamAllByOrderByIdAsc()) {
+            export(trainings, consumer);
+        }
+    }
+
+    /**
+     * Eksportuje treningi zakończone po podanym czasie, czytając je strumieniowo z kursora bazy danych.
+     *
+     * @param endedAfter czas, po którym trening musiał się zakończyć
+     * @param consumer konsument wywoływany dla każdego treningu
+     */
+    @Override
+    public void exportTrainingsEndedAfter(Date endedAfter, Consumer<Training> consumer) {
+        try (Stream<Training> trainings = trainingRepository.streamByEndTimeAfter(endedAfter)) {
+            export(trainings, consumer);
+        }
+    }
+
+    /**
+     * Eksportuje obrazy stanu wszystkich treningów, czytając je strumieniowo zapytaniem projekcyjnym.
+     *
+     * @param consumer konsument wywoływany dla każdego treningu
+     */
+    @Override
+    public void exportTrainingSnapshots(Consumer<TrainingSnapshot> consumer) {
+        try (Stream<TrainingSnapshot> snapshots = trainingRepository.streamSnapshotsOrderedById()) {
+            snapshots.forEach(consumer);
+        }
+    }
+
+    private void export(Stream<Training> trainings, Consumer<Training> consumer) {
+        Iterator<Training> iterator = trainings.iterator();
+        int exported = 0;
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
     /**
      * Wyszukuje treningi przypisane do użytkownika o określonym ID.
      *
@@ -53,6 +211,41 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findByUserId(userId);
     }
 
+    /**
+     * Wyszukuje DTO treningów użytkownika zapytaniem projekcyjnym.
+     *
+     * @param userId identyfikator użytkownika, dla którego mają być wyszukane treningi
+     * @return lista DTO treningów użytkownika
+     */
+    public List<TrainingDto> findTrainingDtosByUserId(Long userId) {
+        return trainingRepository.findDtosByUserId(userId);
+    }
+
+    /**
+     * Odczytuje licznik zmian treningów użytkownika jednym odczytem klucza głównego tabeli użytkowników.
+     *
+     * @param userId identyfikator użytkownika
+     * @return licznik zmian lub {@link Optional#empty()}, jeśli użytkownik nie istnieje
+     */
+    @Override
+    public Optional<Long> findUserTrainingsVersion(Long userId) {
+        return trainingRepository.findTrainingsVersionByUserId(userId);
+    }
+
+    /**
+     * Wyszukuje treningi użytkowników z zakresu identyfikatorów, zakończone w podanym przedziale czasu.
+     *
+     * @param firstUserId najmniejszy identyfikator użytkownika (włącznie)
+     * @param lastUserId największy identyfikator użytkownika (włącznie)
+     * @param from początek przedziału czasu zakończenia (włącznie)
+     * @param to koniec przedziału czasu zakończenia (wyłącznie)
+     * @return lista obrazów stanu treningów
+     */
+    @Override
+    public List<TrainingSnapshot> findTrainingSnapshots(Long firstUserId, Long lastUserId, Date from, Date to) {
+        return trainingRepository.findSnapshotsByUserIdRange(firstUserId, lastUserId, from, to);
+    }
+
     /**
      * Wyszukuje treningi, które zostały zakończone po określonej dacie.
      *
@@ -66,6 +259,16 @@ public class TrainingServiceImpl implements TrainingService {
         return trainingRepository.findByEndTimeAfter(parsedDate);
     }
 
+    /**
+     * Wyszukuje DTO treningów zakończonych po określonej dacie zapytaniem projekcyjnym.
+     *
+     * @param date data, po której mają być wyszukane zakończone treningi
+     * @return lista DTO zakończonych treningów
+     */
+    public List<TrainingDto> findCompletedTrainingDtos(String date) {
+        return trainingRepository.findDtosByEndTimeAfter(parseDate(date));
+    }
+
     /**
      * Wyszukuje treningi według typu aktywności.
      *
@@ -74,7 +277,18 @@ public class TrainingServiceImpl implements TrainingService {
      */
     @Override
     public List<Training> findTrainingsByActivityType(String activityType) {
-        return trainingRepository.findByActivityType(activityType);
+        return trainingRepository.findByActivityType(parseActivityType(activityType));
+    }
+
+    /**
+     * Wyszukuje DTO treningów danego typu aktywności zapytaniem projekcyjnym.
+     *
+     * @param activityType nazwa typu aktywności
+     * @return lista DTO treningów danego typu
+     * @throws BusinessException jeśli typ aktywności jest nieznany
+     */
+    public List<TrainingDto> findTrainingDtosByActivityType(String activityType) {
+        return trainingRepository.findDtosByActivityType(parseActivityType(activityType));
     }
 
     /**
@@ -86,20 +300,52 @@ public class TrainingServiceImpl implements TrainingService {
      * @throws RuntimeException jeśli trening nie zostanie znaleziony
      */
     @Override
+    @Transactional
     public Training updateTraining(Long trainingId, Training training) {
         return trainingRepository.findById(trainingId)
                 .map(existingTraining -> {
+                    TrainingSnapshot previous = TrainingSnapshot.of(existingTraining);
                     existingTraining.setUser(training.getUser());
                     existingTraining.setStartTime(training.getStartTime());
                     existingTraining.setEndTime(training.getEndTime());
                     existingTraining.setActivityType(training.getActivityType());
                     existingTraining.setDistance(training.getDistance());
                     existingTraining.setAverageSpeed(training.getAverageSpeed());
-                    return trainingRepository.save(existingTraining);
+                    Training savedTraining = trainingRepository.save(existingTraining);
+                    eventPublisher.publishEvent(new TrainingSavedEvent(previous, TrainingSnapshot.of(savedTraining)));
+                    return savedTraining;
                 })
                 .orElseThrow(() -> new RuntimeException("Training not found"));
     }
 
+    @Nullable
+    private String validate(Training training) {
+        if (training.getId() != null) {
+            return "Training must not have an id";
+        }
+        if (training.getStartTime() == null || training.getEndTime() == null) {
+            return "Start time and end time are required";
+        }
+        if (training.getEndTime().before(training.getStartTime())) {
+            return "End time must not be before start time";
+        }
+        if (training.getActivityType() == null) {
+            return "Activity type is required";
+        }
+        if (training.getDistance() < 0 || training.getAverageSpeed() < 0) {
+            return "Distance and average speed must not be negative";
+        }
+        return null;
+    }
+
+    private ActivityType parseActivityType(String activityType) {
+        try {
+            return ActivityType.valueOf(activityType);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown activity type: " + activityType);
+        }
+    }
+
     private Date parseDate(String date) {
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
         try {
@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utrzymuje liczniki zmian treningów użytkowników, z których wyznaczany jest znacznik ETag listy treningów użytkownika.
+ * Licznik zwiększany jest dla właściciela treningu sprzed i po zapisie. Użytkownicy z całej transakcji zbierani są
+ * w zbiór, a liczniki zwiększane jednym zapytaniem tuż przed zatwierdzeniem, więc wsad wielu treningów jednego
+ * użytkownika zmienia jego licznik raz, a licznik staje się widoczny razem z treningami.
+ */
+@Component
+class UserTrainingsVersions {
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    /**
+     * Odnotowuje zapis treningu w bieżącej transakcji.
+     *
+     * @param event zdarzenie zapisu treningu
+     */
+    @EventListener
+    public void onTrainingSaved(TrainingSavedEvent event) {
+        Set<Long> userIds = new HashSet<>(2);
+        if (event.previous() != null && event.previous().userId() != null) {
+            userIds.add(event.previous().userId());
+        }
+        if (event.current().userId() != null) {
+            userIds.add(event.current().userId());
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trainingRepository.incrementTrainingsVersions(userIds);
+            return;
+        }
+        pendingUserIds().addAll(userIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingUserIds() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Set<Long> userIds = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                trainingRepository.incrementTrainingsVersions(userIds);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(UserTrainingsVersions.this);
+            }
+        });
+        return userIds;
+    }
+}
@@ -2,12 +2,14 @@ package com.capgemini.wsb.fitnesstracker.user.api;
 
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.time.LocalDate;
+import java.util.Locale;
 
 
 /**
@@ -15,7 +17,7 @@ import java.time.LocalDate;
  * Zawiera podstawowe informacje o użytkowniku, takie jak imię, nazwisko, data urodzenia i adres e-mail.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_birthdate_id", columnList = "birthdate, id"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -53,6 +55,29 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Adres e-mail sprowadzony do postaci kanonicznej ({@link #normalizeEmail(String)}). Unikalny indeks na tej
+     * kolumnie pozwala wyszukiwać użytkownika po adresie bez względu na wielkość liter jednym odczytem indeksu.
+     */
+    @Column(name = "normalized_email", nullable = false, unique = true)
+    private String normalizedEmail;
+
+    /**
+     * Wersja danych użytkownika, zwiększana przez Hibernate przy każdej zmianie (blokowanie optymistyczne). Wyznacza
+     * znacznik ETag odpowiedzi z danymi użytkownika i jest porównywana z nagłówkiem {@code If-Match} aktualizacji.
+     */
+    @Version
+    private long version;
+
+    /**
+     * Licznik zmian treningów użytkownika, zwiększany w transakcji zapisu treningu. Wyznacza znacznik ETag listy
+     * treningów użytkownika bez jej wczytywania. Kolumnę zmienia wyłącznie zapytanie modułu treningów, więc nie jest
+     * zapisywana razem z encją.
+     */
+    @Column(name = "trainings_version", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long trainingsVersion;
+
     /**
      * Konstruktor tworzący obiekt użytkownika z pełnym zestawem informacji.
      *
@@ -71,6 +96,31 @@ public class User {
         this.lastName = lastName;
         this.birthdate = birthdate;
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+
+    /**
+     * Przepisuje dane użytkownika z podanego obiektu, z pominięciem identyfikatora i wersji. Zmiana zarządzanej encji
+     * zwiększa jej wersję przy zapisie.
+     *
+     * @param source Obiekt z nowymi danymi użytkownika.
+     */
+    public void update(User source) {
+        this.firstName = source.firstName;
+        this.lastName = source.lastName;
+        this.birthdate = source.birthdate;
+        this.email = source.email;
+        this.normalizedEmail = normalizeEmail(source.email);
+    }
+
+    /**
+     * Sprowadza adres e-mail do postaci kanonicznej: bez białych znaków na końcach i małymi literami.
+     *
+     * @param email Adres e-mail.
+     * @return Znormalizowany adres e-mail.
+     */
+    public static String normalizeEmail(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
     }
 
 }
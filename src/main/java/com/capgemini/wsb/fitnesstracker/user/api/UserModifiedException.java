@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.PreconditionFailedException;
+
+/**
+ * Exception indicating that the {@link User} was modified since the version the client based its update on.
+ */
+@SuppressWarnings("squid:S110")
+public class UserModifiedException extends PreconditionFailedException {
+
+    public UserModifiedException(Long id) {
+        super("User with ID=%s was modified by another request".formatted(id));
+    }
+
+}
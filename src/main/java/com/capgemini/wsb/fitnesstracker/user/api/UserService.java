@@ -1,5 +1,8 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import jakarta.annotation.Nullable;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +23,15 @@ public interface UserService {
      */
     List<User> findAllUsers();
 
+    /**
+     * Zwraca jedną stronę użytkowników w stabilnym porządku rosnących identyfikatorów.
+     *
+     * @param after kursor zwrócony z poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return strona użytkowników wraz z kursorem kolejnej strony
+     */
+    CursorPage<User> findUsersPage(@Nullable String after, @Nullable Integer limit);
+
     /**
      * Zwraca użytkownika o określonym identyfikatorze.
      *
@@ -28,6 +40,14 @@ public interface UserService {
      */
     Optional<User> getUser(Long id);
 
+    /**
+     * Zwraca wersję użytkownika o określonym identyfikatorze, bez wczytywania jego danych.
+     *
+     * @param id unikalny identyfikator użytkownika
+     * @return Optional zawierający wersję, jeśli użytkownik istnieje; w przeciwnym razie Optional.empty()
+     */
+    Optional<Long> findUserVersion(Long id);
+
     /**
      * Tworzy nowego użytkownika w systemie z danymi podanymi w obiekcie User.
      *
@@ -48,9 +68,12 @@ public interface UserService {
      *
      * @param id identyfikator użytkownika do zaktualizowania
      * @param user nowe dane użytkownika
+     * @param expectedVersion wersja, na której klient oparł zmianę, lub {@code null} dla zmiany bezwarunkowej
      * @return zaktualizowany obiekt użytkownika
+     * @throws UserModifiedException jeśli wersja użytkownika jest inna niż oczekiwana albo użytkownik został
+     *                               zmieniony równolegle
      */
-    User updateUser(Long id, User user);
+    User updateUser(Long id, User user, @Nullable Long expectedVersion);
 
     /**
      * Znajduje użytkowników, których adresy e-mail zawierają podany ciąg znaków, niezależnie od wielkości liter.
@@ -60,6 +83,16 @@ public interface UserService {
      */
     List<User> findByEmailContainingIgnoreCase(String email);
 
+    /**
+     * Wyszukuje użytkowników po fragmencie adresu e-mail lub początkach imienia i nazwiska (autouzupełnianie).
+     * Wyniki są uporządkowane od najlepiej dopasowanych.
+     *
+     * @param query fragment adresu e-mail albo początki imienia i/lub nazwiska
+     * @param limit maksymalna liczba wyników lub {@code null} dla wartości domyślnej
+     * @return lista najlepiej dopasowanych użytkowników
+     */
+    List<User> searchUsers(String query, @Nullable Integer limit);
+
     /**
      * Znajduje użytkowników, którzy są starsi niż określona liczba lat.
      *
@@ -67,4 +100,24 @@ public interface UserService {
      * @return lista użytkowników starszych niż podana liczba lat
      */
     List<User> findUsersOlderThan(int age);
+
+    /**
+     * Zwraca jedną stronę użytkowników w podanym przedziale wieku, w porządku daty urodzenia i identyfikatora.
+     *
+     * @param minAge najmniejszy wiek w latach (włącznie)
+     * @param maxAge największy wiek w latach (włącznie)
+     * @param after kursor zwrócony z poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return strona użytkowników wraz z kursorem kolejnej strony
+     */
+    CursorPage<User> findUsersByAge(int minAge, int maxAge, @Nullable String after, @Nullable Integer limit);
+
+    /**
+     * Zlicza użytkowników w podanym przedziale wieku.
+     *
+     * @param minAge najmniejszy wiek w latach (włącznie)
+     * @param maxAge największy wiek w latach (włącznie)
+     * @return liczba użytkowników
+     */
+    long countUsersByAge(int minAge, int maxAge);
 }
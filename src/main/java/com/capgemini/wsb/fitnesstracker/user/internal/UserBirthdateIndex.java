@@ -0,0 +1,128 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indeks dat urodzenia w pamięci, odpowiadający na pytanie "ilu użytkowników urodziło się w danym przedziale dat"
+ * w czasie O(log n) bez zapytania do bazy. Liczniki użytkowników dla kolejnych dni od {@link #FIRST_DAY} do
+ * {@link #LAST_DAY} przechowywane są w drzewie Fenwicka; daty spoza zakresu zliczane są w dniu granicznym.
+ * Indeks można wyłączyć właściwością {@code fitnesstracker.users.birthdate-index.enabled=false} - liczniki są
+ * wtedy wyznaczane zapytaniem korzystającym z indeksu bazy danych.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fitnesstracker.users.birthdate-index", name = "enabled", havingValue = "true", matchIfMissing = true)
+class UserBirthdateIndex {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+    static final LocalDate LAST_DAY = LocalDate.of(2100, 12, 31);
+
+    private static final long FIRST_EPOCH_DAY = FIRST_DAY.toEpochDay();
+    private static final int DAYS = (int) (LAST_DAY.toEpochDay() - FIRST_EPOCH_DAY + 1);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int[] tree = new int[DAYS + 1];
+    private final Map<Long, Integer> dayByUser = new HashMap<>();
+
+    /**
+     * Dodaje użytkownika do indeksu lub przenosi go na nową datę urodzenia.
+     *
+     * @param user zapisany użytkownik (z identyfikatorem)
+     */
+    void put(User user) {
+        int day = day(user.getBirthdate());
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Integer previous = dayByUser.put(user.getId(), day);
+            if (previous != null) {
+                add(previous, -1);
+            }
+            add(day, 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Usuwa użytkownika z indeksu.
+     *
+     * @param userId identyfikator użytkownika
+     */
+    void remove(long userId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Integer previous = dayByUser.remove(userId);
+            if (previous != null) {
+                add(previous, -1);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Usuwa wszystkich użytkowników z indeksu.
+     */
+    void clear() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Arrays.fill(tree, 0);
+            dayByUser.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Zlicza użytkowników urodzonych w podanym przedziale dat.
+     *
+     * @param from pierwszy dzień przedziału (włącznie)
+     * @param to ostatni dzień przedziału (włącznie)
+     * @return liczba użytkowników
+     */
+    long count(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        int first = day(from);
+        int last = day(to);
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return prefixSum(last) - prefixSum(first - 1);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void add(int day, int delta) {
+        for (int i = day + 1; i <= DAYS; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private long prefixSum(int day) {
+        long sum = 0;
+        for (int i = day + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private static int day(LocalDate date) {
+        long day = date.toEpochDay() - FIRST_EPOCH_DAY;
+        return (int) Math.max(0, Math.min(DAYS - 1, day));
+    }
+}
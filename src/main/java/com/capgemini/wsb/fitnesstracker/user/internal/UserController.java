@@ -1,10 +1,18 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.etag.api.EntityTag;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserModifiedException;
 import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +26,11 @@ import java.util.stream.Collectors;
 @RequestMapping("/v1/users")
 public class UserController {
 
+    /**
+     * Nagłówek odpowiedzi HTTP z liczbą wszystkich użytkowników spełniających kryteria (na wszystkich stronach).
+     */
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final UserServiceImpl userService;
     private final UserMapper userMapper;
 
@@ -33,28 +46,38 @@ public class UserController {
     }
 
     /**
-     * Pobiera listę wszystkich użytkowników.
+     * Pobiera stronę użytkowników w porządku rosnących identyfikatorów.
+     * Kursor kolejnej strony zwracany jest w nagłówku {@value Cursor#NEXT_CURSOR_HEADER};
+     * jego brak oznacza ostatnią stronę.
      *
-     * @return Lista DTO użytkowników.
+     * @param after Kursor zwrócony z poprzedniej strony; pominięty dla pierwszej strony.
+     * @param limit Rozmiar strony, ograniczony do {@value Cursor#MAX_LIMIT}.
+     * @return ResponseEntity z listą DTO użytkowników z bieżącej strony.
      */
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.findAllUsers()
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit) {
+        CursorPage<UserDto> page = userService.findUsersPage(after, limit).map(userMapper::toDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(Cursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     /**
-     * Tworzy nowego użytkownika na podstawie danych przesłanych w formacie DTO.
+     * Tworzy nowego użytkownika na podstawie danych przesłanych w formacie DTO. Odpowiedź zawiera znacznik ETag
+     * utworzonego użytkownika, tak jak odpowiedź na jego aktualizację.
      *
      * @param userDto DTO z danymi nowego użytkownika.
-     * @return Stworzony obiekt użytkownika.
+     * @return ResponseEntity z DTO utworzonego użytkownika.
      */
     @PostMapping
-    public User addUser(@RequestBody UserDto userDto) {
-        User newUser = userMapper.toEntity(userDto);
-        return userService.createUser(newUser);
+    public ResponseEntity<UserDto> addUser(@RequestBody UserDto userDto) {
+        User newUser = userService.createUser(userMapper.toEntity(userDto));
+        return ResponseEntity.ok()
+                .eTag(EntityTag.of(newUser.getId(), newUser.getVersion()))
+                .body(userMapper.toDto(newUser));
     }
 
     /**
@@ -70,17 +93,29 @@ public class UserController {
     }
 
     /**
-     * Aktualizuje dane użytkownika na podstawie przesłanych informacji w formacie DTO.
+     * Aktualizuje dane użytkownika na podstawie przesłanych informacji w formacie DTO. Jeżeli żądanie zawiera nagłówek
+     * {@code If-Match}, zmiana jest zapisywana tylko wtedy, gdy pasuje on do bieżącego znacznika ETag użytkownika;
+     * w przeciwnym razie zwracany jest kod 412.
      *
      * @param id Identyfikator użytkownika do zaktualizowania.
      * @param userDto DTO z nowymi danymi użytkownika.
+     * @param ifMatch Opcjonalny nagłówek {@code If-Match} ze znacznikiem ETag, na którym klient oparł zmianę.
      * @return ResponseEntity z DTO zaktualizowanego użytkownika.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody UserDto userDto) {
+    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody UserDto userDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            expectedVersion = userService.findUserVersion(id)
+                    .filter(version -> EntityTag.matches(ifMatch, EntityTag.of(id, version)))
+                    .orElseThrow(() -> new UserModifiedException(id));
+        }
         User updatedUser = userMapper.toEntity(userDto);
-        updatedUser = userService.updateUser(id, updatedUser);
-        return ResponseEntity.ok(userMapper.toDto(updatedUser));
+        updatedUser = userService.updateUser(id, updatedUser, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(EntityTag.of(id, updatedUser.getVersion()))
+                .body(userMapper.toDto(updatedUser));
     }
 
     /**
@@ -95,6 +130,20 @@ public class UserController {
         return ResponseEntity.ok(users.stream().map(userMapper::toDto).collect(Collectors.toList()));
     }
 
+    /**
+     * Wyszukuje użytkowników po fragmencie adresu e-mail lub początkach imienia i nazwiska (autouzupełnianie),
+     * korzystając z indeksu w pamięci zamiast zapytania {@code LIKE}.
+     *
+     * @param query Fragment adresu e-mail albo początki imienia i/lub nazwiska.
+     * @param limit Maksymalna liczba wyników, domyślnie {@value UserSearchIndex#DEFAULT_LIMIT}, najwyżej {@value UserSearchIndex#MAX_LIMIT}.
+     * @return ResponseEntity z listą DTO użytkowników od najlepiej dopasowanego.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDto>> search(@RequestParam String query, @RequestParam(required = false) Integer limit) {
+        List<User> users = userService.searchUsers(query, limit);
+        return ResponseEntity.ok(users.stream().map(userMapper::toDto).collect(Collectors.toList()));
+    }
+
     /**
      * Wyszukuje użytkowników starszych niż podany wiek.
      *
@@ -108,14 +157,62 @@ public class UserController {
     }
 
     /**
-     * Pobiera użytkownika na podstawie identyfikatora.
+     * Pobiera stronę użytkowników w podanym przedziale wieku, w porządku daty urodzenia i identyfikatora.
+     * Liczba wszystkich użytkowników z przedziału zwracana jest w nagłówku {@value #TOTAL_COUNT_HEADER},
+     * a kursor kolejnej strony w nagłówku {@value Cursor#NEXT_CURSOR_HEADER}.
+     *
+     * @param minAge Najmniejszy wiek w latach (włącznie).
+     * @param maxAge Największy wiek w latach (włącznie).
+     * @param after Kursor zwrócony z poprzedniej strony; pominięty dla pierwszej strony.
+     * @param limit Rozmiar strony, ograniczony do {@value Cursor#MAX_LIMIT}.
+     * @return ResponseEntity z listą DTO użytkowników z bieżącej strony.
+     */
+    @GetMapping("/age")
+    public ResponseEntity<List<UserDto>> getUsersByAge(@RequestParam int minAge,
+                                                       @RequestParam int maxAge,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer limit) {
+        CursorPage<UserDto> page = userService.findUsersByAge(minAge, maxAge, after, limit).map(userMapper::toDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, Long.toString(userService.countUsersByAge(minAge, maxAge)));
+        if (page.nextCursor() != null) {
+            response.header(Cursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Zlicza użytkowników w podanym przedziale wieku, np. na potrzeby paneli demograficznych.
+     *
+     * @param minAge Najmniejszy wiek w latach (włącznie).
+     * @param maxAge Największy wiek w latach (włącznie).
+     * @return Liczba użytkowników.
+     */
+    @GetMapping("/age/count")
+    public long countUsersByAge(@RequestParam int minAge, @RequestParam int maxAge) {
+        return userService.countUsersByAge(minAge, maxAge);
+    }
+
+    /**
+     * Pobiera użytkownika na podstawie identyfikatora. Odpowiedź zawiera znacznik ETag wyznaczony z wersji użytkownika;
+     * jeżeli zgadza się on z nagłówkiem {@code If-None-Match}, zwracany jest kod 304 bez wczytywania danych użytkownika.
      *
      * @param id Identyfikator użytkownika do pobrania.
-     * @return ResponseEntity z DTO użytkownika.
+     * @param request Bieżące żądanie, z którego odczytywany jest nagłówek {@code If-None-Match}.
+     * @return ResponseEntity z DTO użytkownika albo odpowiedź 304 ze znacznikiem ETag i bez treści.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getUser(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = userService.findUserVersion(id);
+        if (version.isPresent()) {
+            String eTag = EntityTag.of(id, version.get());
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
         User user = userService.getUser(id).orElseThrow(() -> new UserNotFoundException(id));
-        return ResponseEntity.ok(userMapper.toDto(user));
+        return ResponseEntity.ok()
+                .eTag(EntityTag.of(id, user.getVersion()))
+                .body(userMapper.toDto(user));
     }
 }
@@ -0,0 +1,78 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pamięć podręczna wyszukiwań użytkowników po znormalizowanym adresie e-mail. Zapamiętywany jest identyfikator
+ * użytkownika, a nie encja - trafienie wczytuje użytkownika po kluczu głównym, więc każdy odczyt dostaje własny,
+ * aktualny obiekt (np. licznik {@code trainingsVersion}, zmieniany z pominięciem encji). Zapamiętywany jest również
+ * brak użytkownika, więc powtarzane zapytania o nieistniejący adres nie trafiają do bazy.
+ * <p>
+ * Każde unieważnienie zwiększa licznik generacji. Wynik odczytany z bazy trafia do pamięci tylko wtedy, gdy
+ * w trakcie odczytu nie było unieważnienia - inaczej odczyt sprzed zatwierdzenia zapisu mógłby nadpisać
+ * unieważniony wpis nieaktualną wartością. Po przekroczeniu {@value #MAX_ENTRIES} wpisów pamięć jest czyszczona.
+ */
+@Component
+class UserEmailCache {
+
+    static final int MAX_ENTRIES = 100_000;
+
+    private final Map<String, Optional<Long>> ids = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Zwraca użytkownika o identyfikatorze zapamiętanym dla adresu lub wczytuje go po adresie i zapamiętuje
+     * jego identyfikator. Jeżeli użytkownik o zapamiętanym identyfikatorze nie istnieje albo ma już inny adres,
+     * wpis jest pomijany i użytkownik wczytywany jest ponownie po adresie.
+     *
+     * @param normalizedEmail znormalizowany adres e-mail
+     * @param loader funkcja wczytująca użytkownika z bazy po adresie
+     * @param byId funkcja wczytująca użytkownika z bazy po kluczu głównym
+     * @return użytkownik o podanym adresie lub {@link Optional#empty()}
+     */
+    Optional<User> get(String normalizedEmail, Function<String, Optional<User>> loader,
+                       Function<Long, Optional<User>> byId) {
+        Optional<Long> cached = ids.get(normalizedEmail);
+        if (cached != null) {
+            if (cached.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<User> user = byId.apply(cached.get());
+            if (user.isPresent() && normalizedEmail.equals(user.get().getNormalizedEmail())) {
+                return user;
+            }
+            ids.remove(normalizedEmail, cached);
+        }
+        long before = generation.get();
+        Optional<User> loaded = loader.apply(normalizedEmail);
+        Optional<Long> id = loaded.map(User::getId);
+        if (generation.get() == before) {
+            if (ids.size() >= MAX_ENTRIES) {
+                ids.clear();
+            }
+            ids.put(normalizedEmail, id);
+            if (generation.get() != before) {
+                ids.remove(normalizedEmail, id);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Usuwa wpis dla podanego adresu.
+     *
+     * @param normalizedEmail znormalizowany adres e-mail
+     */
+    void invalidate(String normalizedEmail) {
+        generation.incrementAndGet();
+        ids.remove(normalizedEmail);
+    }
+
+}
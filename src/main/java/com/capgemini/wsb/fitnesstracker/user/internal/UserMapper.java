@@ -3,7 +3,8 @@ package com.capgemini.wsb.fitnesstracker.user.internal;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * Komponent odpowiedzialny za mapowanie pomiędzy obiektami domenowymi a obiektami transferu danych (DTO).
@@ -14,6 +15,21 @@ import java.lang.reflect.Field;
 @Component
 class UserMapper {
 
+    /**
+     * Uchwyt do pola {@code id} encji {@link User}, wyznaczany raz przy ładowaniu klasy. Encja nie udostępnia settera
+     * identyfikatora, a wyszukiwanie pola przez refleksję przy każdym mapowaniu było kosztowne.
+     */
+    private static final VarHandle USER_ID;
+
+    static {
+        try {
+            USER_ID = MethodHandles.privateLookupIn(User.class, MethodHandles.lookup())
+                    .findVarHandle(User.class, "id", Long.class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * Konwertuje obiekt encji User na obiekt DTO UserDto.
      *
@@ -44,15 +60,9 @@ class UserMapper {
         return user;
     }
 
-    private void setId(User user, Long id) {
+    private static void setId(User user, Long id) {
         if (id != null) {
-            try {
-                Field idField = User.class.getDeclaredField("id");
-                idField.setAccessible(true);
-                idField.set(user, id);
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+            USER_ID.set(user, id);
         }
     }
 }
@@ -1,13 +1,20 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repozytorium JPA dla obiektów typu {@link User}, oferujące standardowe operacje CRUD
  * oraz metody do wyszukiwania użytkowników na podstawie emaila i daty urodzenia.
+ * Metody wyszukujące ładują encje tylko do odczytu - zmiany w zwróconych obiektach nie są utrwalane.
  * @author Wiktor Marciniak
  * @version 1.0
  */
@@ -20,13 +27,74 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email Fragment adresu e-mail do wyszukiwania, ignorujący wielkość liter.
      * @return Lista użytkowników, których e-mail zawiera podany fragment.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<User> findByEmailContainingIgnoreCase(String email);
 
+    /**
+     * Znajduje użytkownika po znormalizowanym adresie e-mail, korzystając z unikalnego indeksu kolumny
+     * {@code normalized_email}.
+     *
+     * @param normalizedEmail Adres e-mail w postaci zwracanej przez {@link User#normalizeEmail(String)}.
+     * @return Użytkownik o podanym adresie lub {@link Optional#empty()}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+
     /**
      * Znajduje wszystkich użytkowników, którzy są starsi niż podana data urodzenia.
      *
      * @param cutoffDate Data, przed którą użytkownicy musieli się urodzić, aby zostać zwróconymi.
      * @return Lista użytkowników urodzonych przed określoną datą.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<User> findByBirthdateBefore(LocalDate cutoffDate);
+
+    /**
+     * Pobiera kolejną stronę użytkowników urodzonych w podanym przedziale dat, w porządku daty urodzenia
+     * i identyfikatora. Strona zaczyna się za pozycją {@code (afterBirthdate, afterId)} ostatniego użytkownika
+     * poprzedniej strony, więc zapytanie czyta indeks {@code idx_users_birthdate_id} od tej pozycji i kończy po
+     * {@code limit} wierszach, bez sortowania.
+     *
+     * @param from Pierwszy dzień przedziału (włącznie).
+     * @param to Ostatni dzień przedziału (włącznie).
+     * @param afterBirthdate Data urodzenia ostatniego użytkownika poprzedniej strony.
+     * @param afterId Identyfikator ostatniego użytkownika poprzedniej strony.
+     * @param limit Maksymalna liczba zwracanych użytkowników.
+     * @return Lista użytkowników z przedziału położonych za podaną pozycją.
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate between :from and :to
+              and (u.birthdate > :afterBirthdate or u.birthdate = :afterBirthdate and u.id > :afterId)
+            order by u.birthdate asc, u.id asc""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<User> findByBirthdateBetweenAfter(LocalDate from, LocalDate to, LocalDate afterBirthdate, Long afterId, Limit limit);
+
+    /**
+     * Zlicza użytkowników urodzonych w podanym przedziale dat, przeglądając jedynie indeks {@code idx_users_birthdate_id}.
+     *
+     * @param from Pierwszy dzień przedziału (włącznie).
+     * @param to Ostatni dzień przedziału (włącznie).
+     * @return Liczba użytkowników.
+     */
+    long countByBirthdateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Pobiera kolejną stronę użytkowników w porządku rosnących identyfikatorów (stronicowanie kursorowe).
+     *
+     * @param afterId Identyfikator ostatniego użytkownika poprzedniej strony (wyłącznie).
+     * @param limit Maksymalna liczba zwracanych użytkowników.
+     * @return Lista użytkowników o identyfikatorach większych niż {@code afterId}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Odczytuje wersję użytkownika bez wczytywania encji, jednym odczytem klucza głównego.
+     *
+     * @param id Identyfikator użytkownika.
+     * @return Wersja użytkownika lub {@link Optional#empty()}, jeśli użytkownik nie istnieje.
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -0,0 +1,423 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Indeks wyszukiwania użytkowników w pamięci, zastępujący zapytanie {@code LOWER(email) LIKE '%x%'}, które
+ * przegląda całą tabelę. Fragmenty adresów e-mail (od 3 znaków) wyszukiwane są indeksem trigramów - kandydaci
+ * to część wspólna posortowanych list wszystkich trigramów zapytania (od najkrótszej), weryfikowana na pełnym
+ * adresie, bo trigramy mogą występować w adresie w innej kolejności niż w zapytaniu. Krótsze zapytania
+ * dopasowują początek adresu. Imiona i nazwiska wyszukiwane są po prefiksach słów (autouzupełnianie).
+ * <p>
+ * Wyniki są rangowane: dokładny adres e-mail, początek adresu lub całe słowo imienia/nazwiska, prefiks imienia lub
+ * nazwiska, fragment adresu; w obrębie grupy krótsze dopasowane pole, a następnie mniejszy identyfikator.
+ * Odczyty mogą przebiegać równolegle, zapisy są wzajemnie wykluczające.
+ */
+@Component
+class UserSearchIndex {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final int EMAIL_EXACT = 0;
+    private static final int PREFIX_OR_WORD = 1;
+    private static final int NAME_PREFIX = 2;
+    private static final int EMAIL_SUBSTRING = 3;
+
+    private static final int TRIGRAM = 3;
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[\\s-]+");
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> emails = new TreeMap<>();
+    private final TreeMap<String, Postings> nameTokens = new TreeMap<>();
+
+    /**
+     * Dodaje użytkownika do indeksu lub zastępuje jego poprzednie dane.
+     *
+     * @param user zapisany użytkownik (z identyfikatorem)
+     * @throws IllegalArgumentException jeśli użytkownik nie ma jeszcze identyfikatora
+     */
+    void put(User user) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("Only saved users can be indexed");
+        }
+        Document document = Document.of(user);
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Document previous = documents.put(document.id(), document);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(document);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Usuwa użytkownika z indeksu.
+     *
+     * @param userId identyfikator użytkownika
+     */
+    void remove(long userId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Document previous = documents.remove(userId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Usuwa wszystkich użytkowników z indeksu.
+     */
+    void clear() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            documents.clear();
+            trigrams.clear();
+            emails.clear();
+            nameTokens.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return documents.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Wyszukuje użytkowników pasujących do zapytania: fragmentu adresu e-mail lub prefiksów imienia i nazwiska.
+     *
+     * @param query zapytanie, wielkość liter nie ma znaczenia
+     * @param limit maksymalna liczba wyników
+     * @return identyfikatory użytkowników od najlepiej dopasowanego
+     */
+    List<Long> search(String query, int limit) {
+        String normalized = normalize(query).strip();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        TopMatches top = new TopMatches(limit);
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            searchNames(NAME_SEPARATORS.split(normalized), top);
+            if (normalized.chars().noneMatch(Character::isWhitespace)) {
+                searchEmails(normalized, top);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return top.ids();
+    }
+
+    private void searchNames(String[] tokens, TopMatches top) {
+        for (Postings postings : prefixRange(nameTokens, tokens[0]).values()) {
+            for (int i = 0; i < postings.size(); i++) {
+                Document document = documents.get(postings.get(i));
+                int rank = document.nameRank(tokens);
+                if (rank >= 0) {
+                    top.offer(new Match(document.id(), rank, document.nameLength()));
+                }
+            }
+        }
+    }
+
+    private void searchEmails(String query, TopMatches top) {
+        if (query.length() < TRIGRAM) {
+            for (Postings postings : prefixRange(emails, query).values()) {
+                for (int i = 0; i < postings.size(); i++) {
+                    Document document = documents.get(postings.get(i));
+                    top.offer(new Match(document.id(), emailRank(document.email(), query), document.email().length()));
+                }
+            }
+            return;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : trigrams(query)) {
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                return;
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+        long[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainIn(candidates, count);
+        }
+        for (int i = 0; i < count; i++) {
+            Document document = documents.get(candidates[i]);
+            if (document.email().contains(query)) {
+                top.offer(new Match(document.id(), emailRank(document.email(), query), document.email().length()));
+            }
+        }
+    }
+
+    private void index(Document document) {
+        for (long trigram : trigrams(document.email())) {
+            trigrams.computeIfAbsent(trigram, key -> new Postings()).add(document.id());
+        }
+        emails.computeIfAbsent(document.email(), key -> new Postings()).add(document.id());
+        for (String token : document.nameTokens()) {
+            nameTokens.computeIfAbsent(token, key -> new Postings()).add(document.id());
+        }
+    }
+
+    private void unindex(Document document) {
+        for (long trigram : trigrams(document.email())) {
+            removePosting(trigrams, trigram, document.id());
+        }
+        removePosting(emails, document.email(), document.id());
+        for (String token : document.nameTokens()) {
+            removePosting(nameTokens, token, document.id());
+        }
+    }
+
+    private static <K> void removePosting(Map<K, Postings> index, K key, long id) {
+        Postings postings = index.get(key);
+        if (postings != null && postings.remove(id) && postings.size() == 0) {
+            index.remove(key);
+        }
+    }
+
+    private static NavigableMap<String, Postings> prefixRange(TreeMap<String, Postings> index, String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static int emailRank(String email, String query) {
+        if (email.equals(query)) {
+            return EMAIL_EXACT;
+        }
+        return email.startsWith(query) ? PREFIX_OR_WORD : EMAIL_SUBSTRING;
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + TRIGRAM <= text.length(); i++) {
+            result.add(trigram(text, i));
+        }
+        return result;
+    }
+
+    /**
+     * Koduje trzy znaki w jednej liczbie. Mnożenie przez nieparzystą stałą jest odwracalne, więc klucze pozostają
+     * unikalne, a rozpraszają się w {@link HashMap} - bez niego {@link Long#hashCode()} sklejał pierwszy znak
+     * z ostatnim i trigramy masowo kolidowały.
+     */
+    private static long trigram(String text, int start) {
+        long packed = ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+        return packed * 0x9E3779B97F4A7C15L;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Znormalizowane pola użytkownika przechowywane w indeksie.
+     */
+    private record Document(long id, String email, String[] nameTokens) {
+
+        static Document of(User user) {
+            String firstName = normalize(user.getFirstName()).strip();
+            String lastName = normalize(user.getLastName()).strip();
+            String[] tokens = NAME_SEPARATORS.split(firstName + " " + lastName);
+            return new Document(user.getId(), normalize(user.getEmail()), Arrays.stream(tokens)
+                    .filter(token -> !token.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new));
+        }
+
+        /**
+         * Zwraca rangę dopasowania imienia i nazwiska lub -1, jeżeli któreś słowo zapytania nie jest prefiksem
+         * żadnego słowa imienia ani nazwiska.
+         */
+        int nameRank(String[] queryTokens) {
+            boolean wholeWords = true;
+            for (String queryToken : queryTokens) {
+                boolean prefix = false;
+                boolean word = false;
+                for (String token : nameTokens) {
+                    if (token.startsWith(queryToken)) {
+                        prefix = true;
+                        word |= token.length() == queryToken.length();
+                    }
+                }
+                if (!prefix) {
+                    return -1;
+                }
+                wholeWords &= word;
+            }
+            return wholeWords ? PREFIX_OR_WORD : NAME_PREFIX;
+        }
+
+        int nameLength() {
+            int length = 0;
+            for (String token : nameTokens) {
+                length += token.length();
+            }
+            return length;
+        }
+    }
+
+    private record Match(long id, int rank, int length) {
+    }
+
+    /**
+     * Najlepsze dopasowania ograniczone do limitu; użytkownik dopasowany kilkukrotnie zachowuje najlepszą rangę.
+     */
+    private static final class TopMatches {
+
+        private final int limit;
+        private final PriorityQueue<Match> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+        private final Map<Long, Match> byId = new HashMap<>();
+
+        TopMatches(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(Match match) {
+            Match existing = byId.get(match.id());
+            if (existing != null) {
+                if (BEST_FIRST.compare(match, existing) >= 0) {
+                    return;
+                }
+                worstFirst.remove(existing);
+                byId.remove(existing.id());
+            } else if (worstFirst.size() == limit) {
+                if (BEST_FIRST.compare(match, worstFirst.peek()) >= 0) {
+                    return;
+                }
+                byId.remove(worstFirst.poll().id());
+            }
+            worstFirst.add(match);
+            byId.put(match.id(), match);
+        }
+
+        List<Long> ids() {
+            List<Match> matches = new ArrayList<>(worstFirst);
+            matches.sort(BEST_FIRST);
+            return matches.stream().map(Match::id).toList();
+        }
+    }
+
+    /**
+     * Posortowana lista identyfikatorów bez powtórzeń. Identyfikatory nowych użytkowników są rosnące,
+     * więc dodawanie zwykle dopisuje element na końcu.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || id > ids[size - 1]) {
+                append(id);
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        private void append(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        /**
+         * Pozostawia na początku {@code candidates} tylko identyfikatory obecne na tej liście. Obie listy są
+         * posortowane, więc każde kolejne wyszukiwanie binarne zaczyna się od pozycji poprzedniego trafienia.
+         *
+         * @param candidates posortowane identyfikatory, nadpisywane częścią wspólną
+         * @param count liczba identyfikatorów w {@code candidates}
+         * @return liczba identyfikatorów części wspólnej
+         */
+        int retainIn(long[] candidates, int count) {
+            int retained = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (index >= 0) {
+                    candidates[retained++] = candidates[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return retained;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
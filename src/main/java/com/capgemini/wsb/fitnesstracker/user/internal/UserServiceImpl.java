@@ -1,27 +1,67 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserModifiedException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
  * Implementacja serwisu użytkowników, zapewniająca funkcje zarządzania użytkownikami w aplikacji.
  * Obsługuje podstawowe operacje CRUD oraz specyficzne zapytania dotyczące użytkowników.
+ * Metody odczytu działają w transakcjach tylko do odczytu, bez migawek encji do wykrywania zmian.
+ * Zmiany użytkowników trafiają do {@link UserSearchIndex} i {@link UserBirthdateIndex} oraz unieważniają wpisy
+ * {@link UserEmailCache} dopiero po zatwierdzeniu transakcji.
  * @author Wiktor Marciniak
  * @version 1.0
  */
 @Service
-public class UserServiceImpl implements UserService {
+@Transactional(readOnly = true)
+public class UserServiceImpl implements UserService, UserProvider {
+
+    private static final int SEARCH_INDEX_PAGE_SIZE = 10_000;
+
+    /**
+     * Największy obsługiwany wiek; ogranicza przedział dat urodzenia do zakresu {@link LocalDate}.
+     */
+    static final int MAX_AGE = 150;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserEmailCache userEmailCache;
+
+    @Autowired
+    private ObjectProvider<UserBirthdateIndex> userBirthdateIndex;
+
     /**
      * Znajduje wszystkich użytkowników zarejestrowanych w systemie.
      *
@@ -33,6 +73,22 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Zwraca stronę użytkowników, pobierając z bazy jeden rekord ponad rozmiar strony,
+     * aby bez dodatkowego zapytania ustalić, czy istnieje kolejna strona.
+     *
+     * @param after Kursor poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit Żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return Strona użytkowników
+     */
+
+    @Override
+    public CursorPage<User> findUsersPage(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decode(after), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, User::getId);
+    }
+
     /**
      * Znajduje użytkownika na podstawie podanego identyfikatora.
      *
@@ -45,6 +101,33 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Odczytuje wersję użytkownika zapytaniem o jedną kolumnę, bez wczytywania encji.
+     *
+     * @param id Identyfikator użytkownika
+     * @return Opcjonalna wersja użytkownika, jeśli istnieje
+     */
+
+    @Override
+    public Optional<Long> findUserVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    /**
+     * Znajduje użytkownika po adresie e-mail, bez względu na wielkość liter i białe znaki na końcach.
+     * Identyfikator użytkownika pochodzi z {@link UserEmailCache}, a użytkownik z odczytu po kluczu głównym;
+     * przy braku wpisu - z jednego odczytu unikalnego indeksu {@code normalized_email}.
+     *
+     * @param email Adres e-mail użytkownika
+     * @return Opcjonalny obiekt użytkownika, jeśli istnieje
+     */
+
+    @Override
+    public Optional<User> getUserByEmail(String email) {
+        return userEmailCache.get(User.normalizeEmail(email), userRepository::findByNormalizedEmail,
+                userRepository::findById);
+    }
+
     /**
      * Tworzy nowego użytkownika w bazie danych.
      *
@@ -53,8 +136,15 @@ public class UserServiceImpl implements UserService {
      */
 
     @Override
+    @Transactional
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        afterCommit(() -> {
+            userSearchIndex.put(saved);
+            userBirthdateIndex.ifAvailable(index -> index.put(saved));
+            userEmailCache.invalidate(saved.getNormalizedEmail());
+        });
+        return saved;
     }
 
     /**
@@ -64,21 +154,56 @@ public class UserServiceImpl implements UserService {
      */
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
+        Optional<String> previousEmail = userRepository.findById(id).map(User::getNormalizedEmail);
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            userSearchIndex.remove(id);
+            userBirthdateIndex.ifAvailable(index -> index.remove(id));
+            previousEmail.ifPresent(userEmailCache::invalidate);
+        });
     }
 
     /**
-     * Aktualizuje informacje o użytkowniku na podstawie podanego identyfikatora.
+     * Aktualizuje informacje o użytkowniku na podstawie podanego identyfikatora. Nowe dane przepisywane są do encji
+     * wczytanej w tej transakcji, więc zapis zwiększa jej wersję, a równoległa zmiana zatwierdzona w międzyczasie
+     * kończy zapis konfliktem wersji.
      *
      * @param id Identyfikator użytkownika, którego dane mają być zaktualizowane
      * @param user Obiekt użytkownika z nowymi danymi
+     * @param expectedVersion Wersja, na której klient oparł zmianę, lub {@code null} dla zmiany bezwarunkowej
      * @return Zaktualizowany obiekt użytkownika
+     * @throws UserModifiedException jeśli wersja użytkownika jest inna niż oczekiwana albo użytkownik został
+     *                               zmieniony równolegle
      */
 
     @Override
-    public User updateUser(Long id, User user) {
-        return userRepository.save(user);
+    @Transactional
+    public User updateUser(Long id, User user, @Nullable Long expectedVersion) {
+        Optional<User> previous = userRepository.findById(id);
+        Optional<String> previousEmail = previous.map(User::getNormalizedEmail);
+        if (expectedVersion != null && previous.map(User::getVersion).filter(expectedVersion::equals).isEmpty()) {
+            throw new UserModifiedException(id);
+        }
+        User saved;
+        if (previous.isPresent()) {
+            previous.get().update(user);
+            try {
+                saved = userRepository.saveAndFlush(previous.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new UserModifiedException(id);
+            }
+        } else {
+            saved = userRepository.save(user);
+        }
+        afterCommit(() -> {
+            userSearchIndex.put(saved);
+            userBirthdateIndex.ifAvailable(index -> index.put(saved));
+            previousEmail.ifPresent(userEmailCache::invalidate);
+            userEmailCache.invalidate(saved.getNormalizedEmail());
+        });
+        return saved;
     }
 
     /**
@@ -105,4 +230,126 @@ public class UserServiceImpl implements UserService {
         LocalDate cutoffDate = LocalDate.now().minusYears(age);
         return userRepository.findByBirthdateBefore(cutoffDate);
     }
+
+    /**
+     * Zwraca stronę użytkowników w podanym przedziale wieku. Przedział wieku zamieniany jest na przedział dat urodzenia,
+     * a strony wyznacza pozycja {@code (birthdate, id)} ostatniego użytkownika, więc każda strona jest odczytem
+     * kolejnego fragmentu indeksu {@code idx_users_birthdate_id}.
+     *
+     * @param minAge Najmniejszy wiek w latach (włącznie)
+     * @param maxAge Największy wiek w latach (włącznie)
+     * @param after Kursor poprzedniej strony lub {@code null} dla pierwszej strony
+     * @param limit Żądany rozmiar strony lub {@code null} dla rozmiaru domyślnego
+     * @return Strona użytkowników
+     * @throws BusinessException jeśli przedział wieku lub kursor są niepoprawne
+     */
+
+    @Override
+    public CursorPage<User> findUsersByAge(int minAge, int maxAge, @Nullable String after, @Nullable Integer limit) {
+        LocalDate today = LocalDate.now();
+        int pageSize = Cursor.limit(limit);
+        LocalDate from = earliestBirthdate(today, minAge, maxAge);
+        Cursor.Position position = Cursor.decodePosition(after, from.toEpochDay());
+        LocalDate afterBirthdate;
+        try {
+            afterBirthdate = LocalDate.ofEpochDay(position.key());
+        } catch (DateTimeException e) {
+            throw new BusinessException("Invalid cursor: " + after);
+        }
+        List<User> rows = userRepository.findByBirthdateBetweenAfter(from, latestBirthdate(today, minAge),
+                afterBirthdate, position.id(), Limit.of(pageSize + 1));
+        return CursorPage.ofKeyset(rows, pageSize, user -> user.getBirthdate().toEpochDay(), User::getId);
+    }
+
+    /**
+     * Zlicza użytkowników w podanym przedziale wieku. Jeżeli {@link UserBirthdateIndex} jest włączony, wynik pochodzi
+     * z pamięci; w przeciwnym razie z zapytania zliczającego po indeksie na kolumnie {@code birthdate}.
+     *
+     * @param minAge Najmniejszy wiek w latach (włącznie)
+     * @param maxAge Największy wiek w latach (włącznie)
+     * @return Liczba użytkowników
+     * @throws BusinessException jeśli przedział wieku jest niepoprawny
+     */
+
+    @Override
+    public long countUsersByAge(int minAge, int maxAge) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = earliestBirthdate(today, minAge, maxAge);
+        LocalDate to = latestBirthdate(today, minAge);
+        UserBirthdateIndex index = userBirthdateIndex.getIfAvailable();
+        return index != null ? index.count(from, to) : userRepository.countByBirthdateBetween(from, to);
+    }
+
+    private static LocalDate earliestBirthdate(LocalDate today, int minAge, int maxAge) {
+        if (minAge < 0 || maxAge < minAge || maxAge > MAX_AGE) {
+            throw new BusinessException("Invalid age range: %d-%d".formatted(minAge, maxAge));
+        }
+        return today.minusYears(maxAge + 1L).plusDays(1);
+    }
+
+    private static LocalDate latestBirthdate(LocalDate today, int minAge) {
+        return today.minusYears(minAge);
+    }
+
+    /**
+     * Wyszukuje użytkowników w indeksie {@link UserSearchIndex} i pobiera ich z bazy jednym zapytaniem,
+     * zachowując kolejność wyników indeksu.
+     *
+     * @param query Fragment adresu e-mail albo początki imienia i/lub nazwiska
+     * @param limit Maksymalna liczba wyników lub {@code null} dla wartości domyślnej
+     * @return Lista najlepiej dopasowanych użytkowników
+     */
+
+    @Override
+    public List<User> searchUsers(String query, @Nullable Integer limit) {
+        int maxResults = limit == null ? UserSearchIndex.DEFAULT_LIMIT : Math.max(1, Math.min(limit, UserSearchIndex.MAX_LIMIT));
+        List<Long> ids = userSearchIndex.search(query, maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Buduje indeksy użytkowników w pamięci po starcie aplikacji, czytając użytkowników stronami,
+     * każdą w osobnej transakcji.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildIndexes() {
+        userSearchIndex.clear();
+        UserBirthdateIndex birthdateIndex = userBirthdateIndex.getIfAvailable();
+        if (birthdateIndex != null) {
+            birthdateIndex.clear();
+        }
+        long afterId = 0L;
+        List<User> page;
+        do {
+            page = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(SEARCH_INDEX_PAGE_SIZE));
+            for (User user : page) {
+                userSearchIndex.put(user);
+                if (birthdateIndex != null) {
+                    birthdateIndex.put(user);
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == SEARCH_INDEX_PAGE_SIZE);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.web.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Konwerter odpowiedzi i żądań w formacie CBOR ({@code application/cbor}), wybierany przez negocjację treści
+ * na podstawie nagłówka {@code Accept} lub {@code Content-Type}. Binarne kodowanie list treningów jest mniejsze
+ * i szybsze od JSON-a: liczby zapisywane są binarnie, a nie jako tekst.
+ * <p>
+ * Mapper jest kopią mappera JSON aplikacji z fabryką CBOR, więc obie reprezentacje mają te same pola i ten sam
+ * format dat.
+ * Konwerter zastępuje domyślny konwerter CBOR Spring MVC, ale nie wyprzedza JSON-a dla {@code Accept: *}{@code /*}.
+ */
+@Component
+class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    CborHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper.copyWith(new CBORFactory()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.web.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Konwerter odpowiedzi i żądań w formacie Smile ({@code application/x-jackson-smile}), binarnym odpowiedniku
+ * JSON-a z Jacksona. Powtarzające się nazwy pól, a po włączeniu {@code CHECK_SHARED_STRING_VALUES} także krótkie
+ * wartości tekstowe (np. typy aktywności), zapisywane są jako odwołania do wcześniejszych wystąpień, co najbardziej
+ * zmniejsza długie listy treningów.
+ * <p>
+ * Mapper jest kopią mappera JSON aplikacji z fabryką Smile, więc obie reprezentacje mają te same pola i ten sam
+ * format dat; konwerter zastępuje domyślny konwerter Smile Spring MVC.
+ */
+@Component
+class SmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    SmileHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper.copyWith(
+                new SmileFactory().configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AchievementController.class)
+class AchievementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AchievementServiceImpl achievementService;
+
+    @MockBean
+    private AchievementMapper achievementMapper;
+
+    @Test
+    void testGetAchievements() throws Exception {
+        User user = new User("John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        Achievement achievement = new Achievement(user, "FIRST_10K_RUN", new Date());
+        when(achievementService.findAchievementsByUserId(1L)).thenReturn(List.of(achievement));
+        when(achievementMapper.toDto(any(Achievement.class))).thenReturn(new AchievementDto("FIRST_10K_RUN", new Date()));
+
+        mockMvc.perform(get("/v1/achievements/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].code", is("FIRST_10K_RUN")));
+    }
+}
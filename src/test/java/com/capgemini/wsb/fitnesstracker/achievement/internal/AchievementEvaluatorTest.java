@@ -0,0 +1,93 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AchievementEvaluatorTest {
+
+    private static final AchievementRule FIRST_10K_RUN =
+            new AchievementRule("FIRST_10K_RUN", AchievementRuleKind.SINGLE_TRAINING_DISTANCE, ActivityType.RUNNING, 10);
+    private static final AchievementRule CYCLING_100KM_MONTH =
+            new AchievementRule("CYCLING_100KM_MONTH", AchievementRuleKind.MONTHLY_DISTANCE, ActivityType.CYCLING, 100);
+    private static final AchievementRule STREAK_7_DAYS =
+            new AchievementRule("STREAK_7_DAYS", AchievementRuleKind.DAILY_STREAK, null, 7);
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    private final AchievementEvaluator evaluator = new AchievementEvaluator(ZoneOffset.UTC);
+
+    @Test
+    void singleTrainingDistance_requiresMatchingActivityAndDistance() {
+        AchievementProgress progress = new AchievementProgress(1L, FIRST_10K_RUN.code());
+
+        assertFalse(evaluator.evaluate(FIRST_10K_RUN, progress, null, training(START, ActivityType.RUNNING, 9.9)));
+        assertFalse(evaluator.evaluate(FIRST_10K_RUN, progress, null, training(START, ActivityType.CYCLING, 40.0)));
+        assertTrue(evaluator.evaluate(FIRST_10K_RUN, progress, null, training(START, ActivityType.RUNNING, 10.0)));
+    }
+
+    @Test
+    void monthlyDistance_resetsWithNewMonthAndAppliesUpdates() {
+        AchievementProgress progress = new AchievementProgress(1L, CYCLING_100KM_MONTH.code());
+        TrainingSnapshot ride = training(START, ActivityType.CYCLING, 60.0);
+
+        assertFalse(evaluator.evaluate(CYCLING_100KM_MONTH, progress, null, ride));
+        assertFalse(evaluator.evaluate(CYCLING_100KM_MONTH, progress, null, training(START.plusMonths(1), ActivityType.CYCLING, 50.0)));
+        assertEquals(50.0, progress.getAmount());
+        TrainingSnapshot nextRide = training(START.plusMonths(1).plusDays(3), ActivityType.CYCLING, 30.0);
+        assertFalse(evaluator.evaluate(CYCLING_100KM_MONTH, progress, null, nextRide));
+        assertTrue(evaluator.evaluate(CYCLING_100KM_MONTH, progress, nextRide,
+                training(START.plusMonths(1).plusDays(3), ActivityType.CYCLING, 55.0)));
+        assertEquals(105.0, progress.getAmount());
+    }
+
+    @Test
+    void dailyStreak_countsConsecutiveDaysOnly() {
+        AchievementProgress progress = new AchievementProgress(1L, STREAK_7_DAYS.code());
+
+        for (int day = 0; day < 3; day++) {
+            assertFalse(evaluator.evaluate(STREAK_7_DAYS, progress, null, training(START.plusDays(day), ActivityType.WALKING, 1.0)));
+        }
+        evaluator.evaluate(STREAK_7_DAYS, progress, null, training(START.plusDays(2), ActivityType.RUNNING, 1.0));
+        assertEquals(3, progress.getStreak());
+        evaluator.evaluate(STREAK_7_DAYS, progress, null, training(START.plusDays(5), ActivityType.RUNNING, 1.0));
+        assertEquals(1, progress.getStreak());
+
+        boolean awarded = false;
+        for (int day = 6; day < 12; day++) {
+            awarded = evaluator.evaluate(STREAK_7_DAYS, progress, null, training(START.plusDays(day), ActivityType.RUNNING, 1.0));
+        }
+        assertTrue(awarded);
+    }
+
+    @Test
+    void evaluate_keepsConstantStateRegardlessOfHistoryLength() {
+        AchievementProgress monthly = new AchievementProgress(1L, CYCLING_100KM_MONTH.code());
+        AchievementProgress streak = new AchievementProgress(1L, STREAK_7_DAYS.code());
+
+        for (int day = 0; day < 10_000; day++) {
+            TrainingSnapshot training = training(START.plusDays(day), ActivityType.CYCLING, 1.0);
+            evaluator.evaluate(CYCLING_100KM_MONTH, monthly, null, training);
+            evaluator.evaluate(STREAK_7_DAYS, streak, null, training);
+        }
+
+        LocalDate lastDay = START.plusDays(9_999);
+        assertEquals(lastDay.withDayOfMonth(1), monthly.getPeriodStart());
+        assertEquals((double) lastDay.getDayOfMonth(), monthly.getAmount());
+        assertEquals(lastDay, streak.getLastDay());
+        assertEquals(10_000, streak.getStreak());
+    }
+
+    private TrainingSnapshot training(LocalDate day, ActivityType activityType, double distance) {
+        Date start = Date.from(day.atTime(7, 30).toInstant(ZoneOffset.UTC));
+        return new TrainingSnapshot(1L, 1L, start, start, activityType, distance, 10.0);
+    }
+}
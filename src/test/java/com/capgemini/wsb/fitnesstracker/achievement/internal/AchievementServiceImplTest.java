@@ -0,0 +1,84 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.Achievement;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AchievementServiceImplTest {
+
+    @Mock
+    private AchievementRepository achievementRepository;
+
+    @Mock
+    private AchievementProgressRepository progressRepository;
+
+    @Mock
+    private AchievementProperties properties;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private AchievementServiceImpl achievementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(properties.getRules()).thenReturn(List.of(
+                new AchievementRule("FIRST_10K_RUN", AchievementRuleKind.SINGLE_TRAINING_DISTANCE, ActivityType.RUNNING, 10),
+                new AchievementRule("STREAK_7_DAYS", AchievementRuleKind.DAILY_STREAK, null, 7)));
+        when(entityManager.getReference(eq(User.class), any())).thenReturn(mock(User.class));
+        when(achievementRepository.save(any(Achievement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void evaluate_awardsSatisfiedRuleAndStoresProgressOfOthers() {
+        when(achievementRepository.findCodesByUserId(1L)).thenReturn(Set.of());
+        when(progressRepository.findByUserId(1L)).thenReturn(List.of());
+
+        List<Achievement> awarded = achievementService.evaluate(new TrainingSavedEvent(null, training(12.0)));
+
+        assertEquals(List.of("FIRST_10K_RUN"), awarded.stream().map(Achievement::getCode).toList());
+        verify(progressRepository, times(1)).save(any(AchievementProgress.class));
+    }
+
+    @Test
+    void evaluate_skipsRulesAlreadyAwarded() {
+        when(achievementRepository.findCodesByUserId(1L)).thenReturn(Set.of("FIRST_10K_RUN", "STREAK_7_DAYS"));
+
+        List<Achievement> awarded = achievementService.evaluate(new TrainingSavedEvent(null, training(12.0)));
+
+        assertTrue(awarded.isEmpty());
+        verify(achievementRepository, never()).save(any(Achievement.class));
+        verify(progressRepository, never()).save(any(AchievementProgress.class));
+    }
+
+    @Test
+    void evaluate_ignoresTrainingsWithoutUser() {
+        TrainingSnapshot anonymous = new TrainingSnapshot(1L, null, new Date(), new Date(), ActivityType.RUNNING, 12.0, 10.0);
+
+        assertTrue(achievementService.evaluate(new TrainingSavedEvent(null, anonymous)).isEmpty());
+        verifyNoInteractions(achievementRepository, progressRepository);
+    }
+
+    private TrainingSnapshot training(double distance) {
+        return new TrainingSnapshot(1L, 1L, new Date(), new Date(), ActivityType.RUNNING, distance, 10.0);
+    }
+}
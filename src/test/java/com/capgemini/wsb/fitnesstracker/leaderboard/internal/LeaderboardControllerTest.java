@@ -0,0 +1,59 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardService;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LeaderboardController.class)
+class LeaderboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @Test
+    void testGetTopUsesDefaults() throws Exception {
+        when(leaderboardService.findTop(ActivityType.RUNNING, LeaderboardWindow.WEEK, LeaderboardService.DEFAULT_LIMIT))
+                .thenReturn(List.of(new LeaderboardEntry(1, 7L, 42.5)));
+
+        mockMvc.perform(get("/v1/leaderboards/RUNNING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank", is(1)))
+                .andExpect(jsonPath("$[0].userId", is(7)))
+                .andExpect(jsonPath("$[0].distance", is(42.5)));
+    }
+
+    @Test
+    void testGetEntry() throws Exception {
+        when(leaderboardService.findEntry(ActivityType.CYCLING, LeaderboardWindow.MONTH, 7L))
+                .thenReturn(Optional.of(new LeaderboardEntry(12, 7L, 120.0)));
+
+        mockMvc.perform(get("/v1/leaderboards/CYCLING/users/7").param("window", "MONTH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank", is(12)));
+    }
+
+    @Test
+    void testGetEntryNotRanked() throws Exception {
+        when(leaderboardService.findEntry(ActivityType.CYCLING, LeaderboardWindow.WEEK, 7L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/v1/leaderboards/CYCLING/users/7"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,124 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardWindow;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LeaderboardServiceImplTest {
+
+    @Mock
+    private TrainingService trainingService;
+
+    @InjectMocks
+    private LeaderboardServiceImpl leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void onTrainingSaved_updatesCurrentLeaderboards() {
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, ActivityType.RUNNING, 5.0, Instant.now())));
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(2L, ActivityType.RUNNING, 8.0, Instant.now())));
+
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            List<LeaderboardEntry> top = leaderboardService.findTop(ActivityType.RUNNING, window, 10);
+            assertEquals(List.of(2L, 1L), top.stream().map(LeaderboardEntry::userId).toList());
+        }
+        assertEquals(2, leaderboardService.findEntry(ActivityType.RUNNING, LeaderboardWindow.DAY, 1L).orElseThrow().rank());
+        assertTrue(leaderboardService.findTop(ActivityType.CYCLING, LeaderboardWindow.DAY, 10).isEmpty());
+    }
+
+    @Test
+    void onTrainingSaved_replacesContributionOfUpdatedTraining() {
+        TrainingSnapshot original = snapshot(1L, ActivityType.RUNNING, 5.0, Instant.now());
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, original));
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(original, snapshot(1L, ActivityType.CYCLING, 5.0, Instant.now())));
+
+        assertTrue(leaderboardService.findEntry(ActivityType.RUNNING, LeaderboardWindow.WEEK, 1L).isEmpty());
+        assertEquals(5.0, leaderboardService.findEntry(ActivityType.CYCLING, LeaderboardWindow.WEEK, 1L).orElseThrow().distance());
+    }
+
+    @Test
+    void onTrainingSaved_ignoresTrainingsOutsideRetainedPeriods() {
+        Instant longAgo = Instant.now().minus(Duration.ofDays(400));
+
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, ActivityType.RUNNING, 5.0, longAgo)));
+
+        assertTrue(leaderboardService.findTop(ActivityType.RUNNING, LeaderboardWindow.MONTH, 10).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_replacesLeaderboardsWithTrainingsFromRetainedPeriods() {
+        leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(9L, ActivityType.RUNNING, 50.0, Instant.now())));
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<Training> consumer = invocation.getArgument(1);
+            consumer.accept(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 3.0, 10.0));
+            consumer.accept(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 4.0, 10.0));
+            return null;
+        }).when(trainingService).exportTrainingsEndedAfter(any(Date.class), any(Consumer.class));
+
+        leaderboardService.rebuild();
+
+        List<LeaderboardEntry> top = leaderboardService.findTop(ActivityType.RUNNING, LeaderboardWindow.DAY, 10);
+        assertEquals(List.of(new LeaderboardEntry(1, 1L, 7.0)), top);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_replaysTrainingsSavedDuringExport() {
+        Instant now = Instant.now();
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<Training> consumer = invocation.getArgument(1);
+            Training training = new Training(user, Date.from(now), Date.from(now), ActivityType.RUNNING, 3.0, 10.0);
+            training.setId(5L);
+            consumer.accept(training);
+            // Zapisy zatwierdzone w trakcie odczytu: zmiana odczytanego już treningu i nowy trening.
+            leaderboardService.onTrainingSaved(new TrainingSavedEvent(
+                    snapshot(5L, 1L, ActivityType.RUNNING, 3.0, now),
+                    snapshot(5L, 1L, ActivityType.RUNNING, 6.0, now)));
+            leaderboardService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(6L, 2L, ActivityType.RUNNING, 4.0, now)));
+            return null;
+        }).when(trainingService).exportTrainingsEndedAfter(any(Date.class), any(Consumer.class));
+
+        leaderboardService.rebuild();
+
+        List<LeaderboardEntry> top = leaderboardService.findTop(ActivityType.RUNNING, LeaderboardWindow.DAY, 10);
+        assertEquals(List.of(new LeaderboardEntry(1, 1L, 6.0), new LeaderboardEntry(2, 2L, 4.0)), top);
+    }
+
+    private TrainingSnapshot snapshot(Long userId, ActivityType activityType, double distance, Instant start) {
+        return snapshot(1L, userId, activityType, distance, start);
+    }
+
+    private TrainingSnapshot snapshot(Long trainingId, Long userId, ActivityType activityType, double distance, Instant start) {
+        return new TrainingSnapshot(trainingId, userId, Date.from(start), Date.from(start), activityType, distance, 10.0);
+    }
+}
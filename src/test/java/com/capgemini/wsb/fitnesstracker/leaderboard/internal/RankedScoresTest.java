@@ -0,0 +1,71 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedScoresTest {
+
+    private RankedScores scores;
+
+    @BeforeEach
+    void setUp() {
+        scores = new RankedScores();
+    }
+
+    @Test
+    void top_ordersByScoreThenUserId() {
+        scores.add(1L, 10.0);
+        scores.add(2L, 30.0);
+        scores.add(3L, 10.0);
+
+        List<LeaderboardEntry> top = scores.top(10);
+
+        assertEquals(List.of(new LeaderboardEntry(1, 2L, 30.0),
+                new LeaderboardEntry(2, 1L, 10.0),
+                new LeaderboardEntry(3, 3L, 10.0)), top);
+    }
+
+    @Test
+    void add_accumulatesAndRemovesUsersWithoutScore() {
+        scores.add(1L, 10.0);
+        scores.add(2L, 5.0);
+        scores.add(2L, 7.0);
+        scores.add(1L, -10.0);
+
+        assertEquals(1, scores.size());
+        assertTrue(scores.entry(1L).isEmpty());
+        assertEquals(new LeaderboardEntry(1, 2L, 12.0), scores.entry(2L).orElseThrow());
+    }
+
+    @Test
+    void entry_matchesSortedOrderAfterRandomUpdates() {
+        Random random = new Random(42);
+        Map<Long, Double> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextInt(300);
+            double delta = random.nextInt(10) + 1;
+            scores.add(userId, delta);
+            expected.merge(userId, delta, Double::sum);
+        }
+        List<Map.Entry<Long, Double>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        assertEquals(sorted.size(), scores.size());
+        for (int rank = 1; rank <= sorted.size(); rank++) {
+            assertEquals(rank, scores.entry(sorted.get(rank - 1).getKey()).orElseThrow().rank());
+        }
+        assertEquals(sorted.get(0).getKey(), scores.top(1).get(0).userId());
+    }
+}
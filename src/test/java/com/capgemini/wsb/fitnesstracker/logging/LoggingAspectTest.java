@@ -0,0 +1,132 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoggingAspectTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void logMethodCall_logsSignatureAndSizeInsteadOfElements() throws Throwable {
+        LoggingAspect aspect = new LoggingAspect(new LoggingProperties(1.0, Map.of()));
+        List<SampleEntity> result = List.of(new SampleEntity(), new SampleEntity());
+        ProceedingJoinPoint joinPoint = joinPoint("findAll", result);
+
+        assertSame(result, aspect.logMethodCall(joinPoint));
+
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("Method: SampleService.findAll(..) returned: "));
+        assertTrue(message.contains("[size=2]"));
+        assertTrue(!message.contains("SampleEntity@"));
+    }
+
+    @Test
+    void logMethodCall_skipsMethodsWithZeroSampleRate() throws Throwable {
+        LoggingAspect aspect = new LoggingAspect(new LoggingProperties(1.0, Map.of("SampleService.findAll", 0.0)));
+        ProceedingJoinPoint joinPoint = joinPoint("findAll", List.of());
+
+        aspect.logMethodCall(joinPoint);
+
+        verify(joinPoint).proceed();
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void logMethodCall_onlyProceedsWhenInfoIsDisabled() throws Throwable {
+        logger.setLevel(Level.WARN);
+        LoggingAspect aspect = new LoggingAspect(new LoggingProperties(1.0, Map.of()));
+        ProceedingJoinPoint joinPoint = joinPoint("findAll", List.of());
+
+        aspect.logMethodCall(joinPoint);
+
+        verify(joinPoint).proceed();
+        verify(joinPoint, never()).getSignature();
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void logMethodCall_logsAndRethrowsExceptions() throws Throwable {
+        LoggingAspect aspect = new LoggingAspect(new LoggingProperties(1.0, Map.of()));
+        ProceedingJoinPoint joinPoint = joinPoint("findAll", null);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.logMethodCall(joinPoint));
+
+        assertEquals("Method: SampleService.findAll(..) threw: IllegalStateException in: ",
+                appender.list.get(0).getFormattedMessage().replaceAll("\\d+ µs$", ""));
+    }
+
+    @Test
+    void summary_neverCallsToStringOnDomainObjects() {
+        assertEquals("null", LoggingAspect.summary(null));
+        assertEquals("Optional.empty", LoggingAspect.summary(Optional.empty()));
+        assertEquals("Optional[SampleEntity]", LoggingAspect.summary(Optional.of(new SampleEntity())));
+        assertEquals("42", LoggingAspect.summary(42L));
+        assertEquals("String[length=5]", LoggingAspect.summary("hello"));
+        assertEquals("int[length=3]", LoggingAspect.summary(new int[3]));
+        assertEquals("SampleEntity", LoggingAspect.summary(new SampleEntity()));
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Object result) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod(methodName));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    static class SampleService {
+
+        public List<SampleEntity> findAll() {
+            return List.of();
+        }
+    }
+
+    static class SampleEntity {
+
+        @Override
+        public String toString() {
+            throw new AssertionError("toString() must not be called");
+        }
+    }
+}
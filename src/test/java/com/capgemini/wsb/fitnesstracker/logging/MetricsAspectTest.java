@@ -0,0 +1,93 @@
+package com.capgemini.wsb.fitnesstracker.logging;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void timeMethodCall_recordsTimerPerMethodAndOutcome() throws Throwable {
+        MetricsAspect aspect = new MetricsAspect(meterRegistry, recorder(Duration.ofHours(1), 10));
+
+        aspect.timeMethodCall(joinPoint());
+        aspect.timeMethodCall(joinPoint());
+        ProceedingJoinPoint failing = joinPoint();
+        when(failing.proceed()).thenThrow(new IllegalStateException());
+        assertThrows(IllegalStateException.class, () -> aspect.timeMethodCall(failing));
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("error").count());
+    }
+
+    @Test
+    void timeMethodCall_recordsSlowInvocationsWithSummarizedArguments() throws Throwable {
+        SlowInvocationRecorder recorder = recorder(Duration.ZERO, 10);
+        MetricsAspect aspect = new MetricsAspect(meterRegistry, recorder);
+
+        aspect.timeMethodCall(joinPoint(1L, "secret@domain.com", new ArrayList<>(List.of(1, 2, 3))));
+
+        List<SlowInvocation> slowest = recorder.slowest();
+        assertEquals(1, slowest.size());
+        assertEquals("SampleService.find(..)", slowest.get(0).method());
+        assertEquals(List.of("1", "String[length=17]", "ArrayList[size=3]"), slowest.get(0).arguments());
+    }
+
+    @Test
+    void recorder_keepsMostRecentAndSortsBySlowest() {
+        SlowInvocationRecorder recorder = recorder(Duration.ofMillis(1), 2);
+
+        recorder.record("a", new Object[0], TimeUnit.MILLISECONDS.toNanos(50), false);
+        recorder.record("fast", new Object[0], TimeUnit.MICROSECONDS.toNanos(10), false);
+        recorder.record("b", new Object[0], TimeUnit.MILLISECONDS.toNanos(5), false);
+        recorder.record("c", new Object[0], TimeUnit.MILLISECONDS.toNanos(20), true);
+
+        List<SlowInvocation> slowest = recorder.slowest();
+        assertEquals(List.of("c", "b"), slowest.stream().map(SlowInvocation::method).toList());
+        assertTrue(slowest.get(0).failed());
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(MetricsAspect.TIMER_NAME)
+                .tag("class", "SampleService")
+                .tag("method", "find")
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static SlowInvocationRecorder recorder(Duration threshold, int capacity) {
+        return new SlowInvocationRecorder(new MetricsProperties(threshold, capacity));
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object... args) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod("find"));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn("ok");
+        return joinPoint;
+    }
+
+    static class SampleService {
+
+        public String find() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncEmailSenderTest {
+
+    private static final int MESSAGES = 20_000;
+    private static final int WORKERS = 4;
+    private static final int BATCH_SIZE = 100;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MeterRegistry meterRegistry;
+    private AsyncEmailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null && sender.isRunning()) {
+            sender.stop();
+        }
+    }
+
+    @Test
+    void send_deliversAllMessagesInBatches() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        sender = new AsyncEmailSender(mailSender, properties(MESSAGES, WORKERS, BATCH_SIZE), meterRegistry);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            sender.send(new EmailDto("user" + (i % 100) + "@example.com", "Weekly report " + i, "Body " + i));
+        }
+        sender.start();
+        assertTrue(greenMail.waitForIncomingEmail(TimeUnit.MINUTES.toMillis(5), MESSAGES));
+
+        assertEquals(MESSAGES, greenMail.getReceivedMessages().length);
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertEquals(MESSAGES, meterRegistry.counter("mail.sent").count()));
+        assertEquals(0.0, meterRegistry.get("mail.queue.size").gauge().value());
+        // The queue is full when the workers start, so only the last batch of each worker can be partial.
+        long batches = meterRegistry.timer("mail.batch").count();
+        assertTrue(batches <= MESSAGES / BATCH_SIZE + WORKERS,
+                "each SMTP connection should carry a full batch, batches: " + batches);
+    }
+
+    @Test
+    void send_retriesMessagesRejectedByServer() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doAnswer(invocation -> {
+            SimpleMailMessage first = invocation.getArgument(0);
+            throw new MailSendException(Map.of(first, new RuntimeException("451 try again later")));
+        }).doNothing().when(mailSender).send(any(SimpleMailMessage[].class));
+        sender = new AsyncEmailSender(mailSender, properties(10, 1, 10), meterRegistry);
+
+        CompletableFuture<Void> delivery = sender.send(new EmailDto("john.doe@example.com", "Subject", "Body"));
+        sender.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(delivery::isDone);
+        assertFalse(delivery.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.counter("mail.sent").count());
+        assertEquals(1.0, meterRegistry.counter("mail.retried").count());
+        assertEquals(0.0, meterRegistry.counter("mail.failed").count());
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void send_completesDeliveryExceptionallyWhenEmailIsDropped() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailAuthenticationException("535 authentication failed")).when(mailSender).send(any(SimpleMailMessage[].class));
+        sender = new AsyncEmailSender(mailSender, properties(10, 1, 10), meterRegistry);
+        sender.start();
+
+        CompletableFuture<Void> delivery = sender.send(new EmailDto("john.doe@example.com", "Subject", "Body"));
+
+        await().atMost(Duration.ofSeconds(5)).until(delivery::isDone);
+        assertTrue(delivery.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.counter("mail.failed").count());
+    }
+
+    @Test
+    void send_failsWhenQueueStaysFull() {
+        sender = new AsyncEmailSender(mock(JavaMailSender.class), properties(1, 1, 10), meterRegistry);
+
+        sender.send(new EmailDto("john.doe@example.com", "Subject", "Body"));
+
+        assertThrows(MailSendException.class, () -> sender.send(new EmailDto("jane.doe@example.com", "Subject", "Body")));
+        assertEquals(1.0, meterRegistry.get("mail.queue.size").gauge().value());
+    }
+
+    private MailProperties properties(int queueCapacity, int workers, int batchSize) {
+        return new MailProperties("noreply@fitnesstracker.com", queueCapacity, Duration.ofMillis(100),
+                workers, batchSize, 3, Duration.ofMillis(10));
+    }
+}
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlainTextWeeklyReportFormatterTest {
+
+    private final PlainTextWeeklyReportFormatter formatter = new PlainTextWeeklyReportFormatter();
+
+    @Test
+    void format_includesTrainingCountAndTotalDuration() {
+        WeeklyReport report = new WeeklyReport("john.doe@example.com", "John", LocalDate.of(2024, 5, 13), 3,
+                Duration.ofMinutes(150), 21.0, Map.of(ActivityType.RUNNING, 3));
+
+        EmailDto email = formatter.format(report);
+
+        assertEquals("john.doe@example.com", email.toAddress());
+        assertTrue(email.content().contains("completed 3 trainings (Running: 3)"));
+        assertTrue(email.content().contains("2 h 30 min"));
+    }
+}
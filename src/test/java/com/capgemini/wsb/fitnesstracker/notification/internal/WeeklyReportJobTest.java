@@ -0,0 +1,184 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class WeeklyReportJobTest {
+
+    private static final LocalDate WEEK = LocalDate.of(2024, 5, 13);
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private WeeklyReportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private WeeklyReportProperties properties;
+
+    @Mock
+    private ObjectProvider<EmailSender> emailSenderProvider;
+
+    @Mock
+    private EmailSender emailSender;
+
+    @Mock
+    private WeeklyReportFormatter formatter;
+
+    @InjectMocks
+    private WeeklyReportJob job;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(emailSenderProvider.getIfAvailable()).thenReturn(emailSender);
+        when(properties.getChunkSize()).thenReturn(2);
+        when(properties.getDeliveryTimeout()).thenReturn(Duration.ofSeconds(5));
+        when(emailSender.send(any(EmailDto.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(checkpointRepository.save(any(WeeklyReportCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(formatter.format(any(WeeklyReport.class)))
+                .thenAnswer(invocation -> new EmailDto(invocation.<WeeklyReport>getArgument(0).email(), "Summary", "Body"));
+    }
+
+    @Test
+    void sendReports_queriesTrainingsOncePerChunkAndCheckpointsProgress() {
+        when(checkpointRepository.findById(WEEK)).thenReturn(Optional.empty());
+        CursorPage<User> firstPage = new CursorPage<>(List.of(user(1L), user(2L)), Cursor.encode(2L));
+        CursorPage<User> lastPage = new CursorPage<>(List.of(user(3L)), null);
+        when(userService.findUsersPage(isNull(), eq(2))).thenReturn(firstPage);
+        when(userService.findUsersPage(eq(Cursor.encode(2L)), eq(2))).thenReturn(lastPage);
+        when(trainingService.findTrainingSnapshots(eq(1L), eq(2L), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(training(1L, 5.0), training(1L, 3.0), training(2L, 10.0)));
+        when(trainingService.findTrainingSnapshots(eq(3L), eq(3L), any(Date.class), any(Date.class)))
+                .thenReturn(List.of());
+        ArgumentCaptor<WeeklyReport> reports = ArgumentCaptor.forClass(WeeklyReport.class);
+
+        int sent = job.sendReports(WEEK);
+
+        assertEquals(2, sent);
+        verify(trainingService, times(2)).findTrainingSnapshots(anyLong(), anyLong(), any(Date.class), any(Date.class));
+        verify(emailSender, times(2)).send(any(EmailDto.class));
+        verify(formatter, times(2)).format(reports.capture());
+        assertTrue(reports.getAllValues().stream().anyMatch(report -> report.trainings() == 2 && report.totalDistance() == 8.0));
+        ArgumentCaptor<WeeklyReportCheckpoint> checkpoint = ArgumentCaptor.forClass(WeeklyReportCheckpoint.class);
+        verify(checkpointRepository, times(3)).save(checkpoint.capture());
+        assertEquals(3L, checkpoint.getValue().getLastUserId());
+        assertTrue(checkpoint.getValue().isCompleted());
+    }
+
+    @Test
+    void sendReports_resumesAfterLastCheckpointedUser() {
+        WeeklyReportCheckpoint checkpoint = new WeeklyReportCheckpoint(WEEK);
+        checkpoint.advance(2L, 2);
+        CursorPage<User> lastPage = new CursorPage<>(List.of(user(3L)), null);
+        when(checkpointRepository.findById(WEEK)).thenReturn(Optional.of(checkpoint));
+        when(userService.findUsersPage(eq(Cursor.encode(2L)), eq(2))).thenReturn(lastPage);
+        when(trainingService.findTrainingSnapshots(eq(3L), eq(3L), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(training(3L, 4.0)));
+
+        assertEquals(1, job.sendReports(WEEK));
+        verify(userService, never()).findUsersPage(isNull(), anyInt());
+        assertEquals(3, checkpoint.getReportsSent());
+    }
+
+    @Test
+    void sendReports_retriesWhileSenderQueueIsFull() {
+        givenSingleUserWithTraining();
+        when(emailSender.send(any(EmailDto.class)))
+                .thenThrow(new MailSendException("Email queue is full (1 messages)"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, job.sendReports(WEEK));
+        verify(emailSender, times(2)).send(any(EmailDto.class));
+    }
+
+    @Test
+    void sendReports_keepsCheckpointUntilReportsAreDelivered() {
+        givenSingleUserWithTraining();
+        when(properties.getDeliveryTimeout()).thenReturn(Duration.ofMillis(200));
+        when(emailSender.send(any(EmailDto.class))).thenReturn(new CompletableFuture<>());
+
+        assertThrows(IllegalStateException.class, () -> job.sendReports(WEEK));
+        verify(checkpointRepository, never()).save(any(WeeklyReportCheckpoint.class));
+    }
+
+    @Test
+    void sendReports_countsOnlyDeliveredReports() {
+        givenSingleUserWithTraining();
+        when(emailSender.send(any(EmailDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("550 mailbox unavailable")));
+        ArgumentCaptor<WeeklyReportCheckpoint> checkpoint = ArgumentCaptor.forClass(WeeklyReportCheckpoint.class);
+
+        assertEquals(0, job.sendReports(WEEK));
+        verify(checkpointRepository, times(2)).save(checkpoint.capture());
+        assertEquals(1L, checkpoint.getValue().getLastUserId());
+        assertEquals(0L, checkpoint.getValue().getReportsSent());
+        assertTrue(checkpoint.getValue().isCompleted());
+    }
+
+    @Test
+    void sendReports_skipsCompletedWeekAndMissingSender() {
+        WeeklyReportCheckpoint completed = new WeeklyReportCheckpoint(WEEK);
+        completed.complete();
+        when(checkpointRepository.findById(WEEK)).thenReturn(Optional.of(completed));
+
+        assertEquals(0, job.sendReports(WEEK));
+        when(emailSenderProvider.getIfAvailable()).thenReturn(null);
+        assertEquals(0, job.sendReports(WEEK.minusWeeks(1)));
+        verifyNoInteractions(userService, emailSender);
+    }
+
+    private void givenSingleUserWithTraining() {
+        when(checkpointRepository.findById(WEEK)).thenReturn(Optional.empty());
+        CursorPage<User> page = new CursorPage<>(List.of(user(1L)), null);
+        when(userService.findUsersPage(isNull(), eq(2))).thenReturn(page);
+        when(trainingService.findTrainingSnapshots(eq(1L), eq(1L), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(training(1L, 5.0)));
+    }
+
+    private User user(Long id) {
+        User user = new User("John" + id, "Doe", LocalDate.of(1990, 1, 1), "john" + id + "@example.com");
+        User spy = spy(user);
+        doReturn(id).when(spy).getId();
+        return spy;
+    }
+
+    private TrainingSnapshot training(Long userId, double distance) {
+        Date start = new Date();
+        return new TrainingSnapshot(1L, userId, start, new Date(start.getTime() + 1_800_000), ActivityType.RUNNING, distance, 10.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.queryplan;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Zapamiętuje instrukcje SQL przygotowywane przez Hibernate, aby testy planów zapytań mogły wykonać {@code EXPLAIN}
+ * dla SQL faktycznie wygenerowanego z metod repozytoriów. Rejestrowany właściwością
+ * {@value #PROPERTY}.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    /**
+     * Właściwość Spring Boot rejestrująca inspektor w fabryce sesji Hibernate.
+     */
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.capgemini.wsb.fitnesstracker.queryplan.CapturingStatementInspector";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    /**
+     * Wykonuje wywołanie repozytorium i zwraca ostatnią przygotowaną przez nie instrukcję SQL.
+     *
+     * @param call wywołanie metody repozytorium
+     * @return SQL wygenerowany przez Hibernate, z parametrami w postaci {@code ?}
+     * @throws AssertionError jeśli wywołanie nie przygotowało żadnej instrukcji
+     */
+    public static String capture(Runnable call) {
+        STATEMENTS.clear();
+        call.run();
+        if (STATEMENTS.isEmpty()) {
+            throw new AssertionError("The call did not prepare any SQL statement");
+        }
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
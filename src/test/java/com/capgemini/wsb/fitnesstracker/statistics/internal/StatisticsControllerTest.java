@@ -0,0 +1,145 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatisticsController.class)
+class StatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StatisticsServiceImpl statisticsService;
+
+    @MockBean
+    private StatisticsMapper statisticsMapper;
+
+    @MockBean
+    private TrainingRollupService rollupService;
+
+    @MockBean
+    private TrainingAnalyticsService analyticsService;
+
+    private Statistics statistics;
+    private StatisticsDto statisticsDto;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        statistics = new Statistics(user, 3, 21.5, 1800);
+        statisticsDto = new StatisticsDto(1L, 1L, 3, 21.5, 1800);
+    }
+
+    @Test
+    void testGetStatisticsForUser() throws Exception {
+        when(statisticsService.getStatisticsForUser(1L)).thenReturn(Optional.of(statistics));
+        when(statisticsMapper.toDto(any(Statistics.class))).thenReturn(statisticsDto);
+
+        mockMvc.perform(get("/v1/statistics/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings", is(3)))
+                .andExpect(jsonPath("$.totalDistance", is(21.5)))
+                .andExpect(jsonPath("$.totalCaloriesBurned", is(1800)));
+    }
+
+    @Test
+    void testGetStatisticsForUserNotFound() throws Exception {
+        when(statisticsService.getStatisticsForUser(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/v1/statistics/user/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRebuildStatisticsWithoutTrainings() throws Exception {
+        when(statisticsService.rebuildStatistics(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/v1/statistics/user/1/rebuild"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testRebuildAllStatistics() throws Exception {
+        when(statisticsService.rebuildAllStatistics()).thenReturn(2);
+
+        mockMvc.perform(post("/v1/statistics/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
+    @Test
+    void testGetRollups() throws Exception {
+        when(rollupService.findRollups(isNull(), any(RollupGranularity.class), any(LocalDate.class), any(LocalDate.class), isNull()))
+                .thenReturn(List.of(new RollupBucketDto(LocalDate.of(2024, 5, 13), 4, 42.0, 14_400, 11.5)));
+
+        mockMvc.perform(get("/v1/statistics/rollups")
+                        .param("granularity", "WEEK")
+                        .param("from", "2024-05-13")
+                        .param("to", "2024-05-19"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucketStart", is("2024-05-13")))
+                .andExpect(jsonPath("$[0].trainings", is(4)))
+                .andExpect(jsonPath("$[0].averageSpeed", is(11.5)));
+    }
+
+    @Test
+    void testGetRollupsRejectsUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/v1/statistics/rollups")
+                        .param("granularity", "YEAR")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetActivityAnalytics() throws Exception {
+        when(analyticsService.aggregateByActivity(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 1L, null))
+                .thenReturn(List.of(new ActivityAggregateDto(ActivityType.RUNNING, 12, 120.0, 43_200, 10.5)));
+
+        mockMvc.perform(get("/v1/statistics/analytics/activities")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activityType", is("RUNNING")))
+                .andExpect(jsonPath("$[0].trainings", is(12)))
+                .andExpect(jsonPath("$[0].distance", is(120.0)));
+    }
+
+    @Test
+    void testGetPeriodAnalytics() throws Exception {
+        when(analyticsService.aggregateByPeriod(eq(RollupGranularity.MONTH), any(LocalDate.class), any(LocalDate.class),
+                isNull(), eq(ActivityType.CYCLING)))
+                .thenReturn(List.of(new RollupBucketDto(LocalDate.of(2024, 5, 1), 3, 90.0, 10_800, 24.0)));
+
+        mockMvc.perform(get("/v1/statistics/analytics/periods")
+                        .param("granularity", "MONTH")
+                        .param("from", "2024-05-01")
+                        .param("to", "2024-05-31")
+                        .param("activityType", "CYCLING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucketStart", is("2024-05-01")))
+                .andExpect(jsonPath("$[0].averageSpeed", is(24.0)));
+    }
+}
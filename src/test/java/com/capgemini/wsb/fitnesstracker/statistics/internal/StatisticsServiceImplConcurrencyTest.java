@@ -0,0 +1,106 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Zapisuje pierwsze treningi użytkownika w dwóch współbieżnych transakcjach, które zatwierdzają się jednocześnie,
+ * i sprawdza, że obie są uwzględnione w jednym wierszu statystyk.
+ */
+@DataJpaTest
+@Import({StatisticsServiceImpl.class, AggregateRowInserter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatisticsServiceImplConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private StatisticsServiceImpl statisticsService;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private TrainingService trainingService;
+
+    @AfterEach
+    void tearDown() {
+        statisticsRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void onTrainingSaved_countsConcurrentFirstTrainings() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long userId = userRepository.save(
+                        new User("John", "Doe", LocalDate.of(1990, 1, 1), "john" + round + "@example.com")).getId();
+                CyclicBarrier commit = new CyclicBarrier(2);
+                Callable<Void> firstTraining = () -> {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        statisticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(userId)));
+                        await(commit);
+                    });
+                    return null;
+                };
+                List<Future<Void>> results = executor.invokeAll(List.of(firstTraining, firstTraining));
+                for (Future<Void> result : results) {
+                    result.get();
+                }
+
+                Statistics statistics = statisticsRepository.findByUserId(userId).orElseThrow();
+                assertEquals(2, statistics.getTotalTrainings());
+                assertEquals(20.0, statistics.getTotalDistance());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TrainingSnapshot snapshot(Long userId) {
+        return new TrainingSnapshot(null, userId, new Date(0), new Date(3_600_000L), ActivityType.RUNNING, 10.0, 10.0);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StatisticsServiceImplTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private StatisticsRepository statisticsRepository;
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private AggregateRowInserter rowInserter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private StatisticsServiceImpl statisticsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User("John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(entityManager.getReference(User.class, 1L)).thenReturn(user);
+        when(statisticsRepository.save(any(Statistics.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void onTrainingSaved_appliesDeltaToExistingStatistics() {
+        when(statisticsRepository.applyDelta(anyLong(), anyInt(), anyDouble(), anyInt())).thenReturn(1);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, ActivityType.RUNNING, 10.0, HOUR)));
+
+        verify(statisticsRepository, times(1)).applyDelta(1L, 1, 10.0, 600);
+        verify(statisticsRepository, never()).save(any(Statistics.class));
+    }
+
+    @Test
+    void onTrainingSaved_createsStatisticsForFirstTraining() {
+        when(statisticsRepository.applyDelta(anyLong(), anyInt(), anyDouble(), anyInt())).thenReturn(0);
+        ArgumentCaptor<Statistics> saved = ArgumentCaptor.forClass(Statistics.class);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, ActivityType.WALKING, 4.0, 2 * HOUR)));
+
+        verify(rowInserter, times(1)).insertIfAbsent(any(Runnable.class));
+        verify(statisticsRepository, times(1)).save(saved.capture());
+        assertEquals(1, saved.getValue().getTotalTrainings());
+        assertEquals(4.0, saved.getValue().getTotalDistance());
+        assertEquals(500, saved.getValue().getTotalCaloriesBurned());
+    }
+
+    @Test
+    void onTrainingSaved_appliesDeltaToInsertedRow() {
+        when(statisticsRepository.applyDelta(anyLong(), anyInt(), anyDouble(), anyInt())).thenReturn(0, 1);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, ActivityType.RUNNING, 10.0, HOUR)));
+
+        verify(rowInserter, times(1)).insertIfAbsent(any(Runnable.class));
+        verify(statisticsRepository, times(2)).applyDelta(1L, 1, 10.0, 600);
+        verify(statisticsRepository, never()).save(any(Statistics.class));
+    }
+
+    @Test
+    void onTrainingSaved_appliesOnlyDifferenceForUpdatedTraining() {
+        when(statisticsRepository.applyDelta(anyLong(), anyInt(), anyDouble(), anyInt())).thenReturn(1);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(
+                snapshot(1L, ActivityType.RUNNING, 10.0, HOUR),
+                snapshot(1L, ActivityType.RUNNING, 12.0, HOUR)));
+
+        verify(statisticsRepository, times(1)).applyDelta(1L, 0, 2.0, 0);
+    }
+
+    @Test
+    void onTrainingSaved_movesContributionBetweenUsers() {
+        when(statisticsRepository.applyDelta(anyLong(), anyInt(), anyDouble(), anyInt())).thenReturn(1);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(
+                snapshot(1L, ActivityType.CYCLING, 20.0, HOUR),
+                snapshot(2L, ActivityType.CYCLING, 20.0, HOUR)));
+
+        verify(statisticsRepository, times(1)).applyDelta(1L, -1, -20.0, -500);
+        verify(statisticsRepository, times(1)).applyDelta(2L, 1, 20.0, 500);
+    }
+
+    @Test
+    void onTrainingSaved_skipsUnchangedTraining() {
+        TrainingSnapshot snapshot = snapshot(1L, ActivityType.RUNNING, 10.0, HOUR);
+
+        statisticsService.onTrainingSaved(new TrainingSavedEvent(snapshot, snapshot));
+
+        verifyNoInteractions(statisticsRepository);
+    }
+
+    @Test
+    void rebuildStatistics_recomputesFromTrainings() {
+        List<Training> trainings = List.of(
+                training(ActivityType.RUNNING, 10.0, HOUR),
+                training(ActivityType.SWIMMING, 1.0, HOUR));
+        when(trainingService.findTrainingsByUserId(1L)).thenReturn(trainings);
+
+        Optional<Statistics> rebuilt = statisticsService.rebuildStatistics(1L);
+
+        assertTrue(rebuilt.isPresent());
+        assertEquals(2, rebuilt.get().getTotalTrainings());
+        assertEquals(11.0, rebuilt.get().getTotalDistance());
+        assertEquals(1100, rebuilt.get().getTotalCaloriesBurned());
+        verify(statisticsRepository, times(1)).deleteByUserId(1L);
+    }
+
+    @Test
+    void rebuildStatistics_returnsEmptyForUserWithoutTrainings() {
+        when(trainingService.findTrainingsByUserId(1L)).thenReturn(List.of());
+
+        assertTrue(statisticsService.rebuildStatistics(1L).isEmpty());
+        verify(statisticsRepository, times(1)).deleteByUserId(1L);
+        verify(statisticsRepository, never()).save(any(Statistics.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildAllStatistics_aggregatesExportPerUser() {
+        doAnswer(invocation -> {
+            Consumer<Training> consumer = invocation.getArgument(0);
+            consumer.accept(training(ActivityType.RUNNING, 10.0, HOUR));
+            consumer.accept(training(ActivityType.RUNNING, 5.0, HOUR));
+            return null;
+        }).when(trainingService).exportTrainings(any(Consumer.class));
+
+        int users = statisticsService.rebuildAllStatistics();
+
+        assertEquals(1, users);
+        verify(statisticsRepository, times(1)).deleteAllInBatch();
+        verify(statisticsRepository, times(1)).save(any(Statistics.class));
+    }
+
+    private TrainingSnapshot snapshot(Long userId, ActivityType activityType, double distance, long durationMillis) {
+        return new TrainingSnapshot(1L, userId, new Date(0), new Date(durationMillis), activityType, distance, 10.0);
+    }
+
+    private Training training(ActivityType activityType, double distance, long durationMillis) {
+        User owner = mock(User.class);
+        when(owner.getId()).thenReturn(1L);
+        return new Training(owner, new Date(0), new Date(durationMillis), activityType, distance, 10.0);
+    }
+}
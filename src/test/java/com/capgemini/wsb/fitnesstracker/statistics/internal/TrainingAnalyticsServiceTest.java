@@ -0,0 +1,106 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class TrainingAnalyticsServiceTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2024, 5, 15);
+
+    @Mock
+    private TrainingService trainingService;
+
+    @InjectMocks
+    private TrainingAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void rebuild_replaysTrainingsSavedDuringLoad() {
+        doAnswer(invocation -> {
+            Consumer<TrainingSnapshot> consumer = invocation.getArgument(0);
+            consumer.accept(snapshot(1L, WEDNESDAY, ActivityType.RUNNING, 10.0));
+            // Zapis zatwierdzony w trakcie odczytu, który odczyt widział jeszcze w poprzednim stanie.
+            analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, WEDNESDAY, ActivityType.RUNNING, 12.0)));
+            analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(2L, WEDNESDAY, ActivityType.CYCLING, 30.0)));
+            consumer.accept(snapshot(1L, WEDNESDAY, ActivityType.RUNNING, 10.0));
+            return null;
+        }).when(trainingService).exportTrainingSnapshots(any());
+
+        assertEquals(2, analyticsService.rebuild());
+
+        assertEquals(List.of(
+                new ActivityAggregateDto(ActivityType.RUNNING, 1, 12.0, 3_600, 12.0),
+                new ActivityAggregateDto(ActivityType.CYCLING, 1, 30.0, 3_600, 12.0)),
+                analyticsService.aggregateByActivity(WEDNESDAY, WEDNESDAY, null, null));
+    }
+
+    @Test
+    void onTrainingSaved_updatesStore() {
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, WEDNESDAY, ActivityType.RUNNING, 10.0)));
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(
+                snapshot(1L, WEDNESDAY, ActivityType.RUNNING, 10.0),
+                snapshot(1L, WEDNESDAY.plusDays(1), ActivityType.RUNNING, 15.0)));
+        analyticsService.awaitPendingWrites();
+
+        assertEquals(List.of(), analyticsService.aggregateByActivity(WEDNESDAY, WEDNESDAY, 7L, null));
+        assertEquals(List.of(new ActivityAggregateDto(ActivityType.RUNNING, 1, 15.0, 3_600, 12.0)),
+                analyticsService.aggregateByActivity(WEDNESDAY, WEDNESDAY.plusDays(1), 7L, ActivityType.RUNNING));
+    }
+
+    @Test
+    void aggregateByPeriod_coversWholeBucketsOfRange() {
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(1L, LocalDate.of(2024, 4, 30), ActivityType.RUNNING, 5.0)));
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(2L, LocalDate.of(2024, 5, 1), ActivityType.RUNNING, 10.0)));
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(3L, LocalDate.of(2024, 6, 30), ActivityType.WALKING, 4.0)));
+        analyticsService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(4L, LocalDate.of(2024, 7, 1), ActivityType.RUNNING, 8.0)));
+        analyticsService.awaitPendingWrites();
+
+        List<RollupBucketDto> buckets = analyticsService.aggregateByPeriod(RollupGranularity.MONTH, WEDNESDAY,
+                LocalDate.of(2024, 6, 2), null, null);
+
+        assertEquals(List.of(
+                new RollupBucketDto(LocalDate.of(2024, 5, 1), 1, 10.0, 3_600, 12.0),
+                new RollupBucketDto(LocalDate.of(2024, 6, 1), 1, 4.0, 3_600, 12.0)), buckets);
+    }
+
+    @Test
+    void aggregateByPeriod_rejectsTooManyBuckets() {
+        assertThrows(BusinessException.class, () -> analyticsService.aggregateByPeriod(RollupGranularity.DAY,
+                WEDNESDAY, WEDNESDAY.plusDays(TrainingRollupService.MAX_BUCKETS), null, null));
+    }
+
+    private static TrainingSnapshot snapshot(Long id, LocalDate day, ActivityType activityType, double distance) {
+        Date start = Date.from(day.atTime(8, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Date end = new Date(start.getTime() + 3_600_000L);
+        return new TrainingSnapshot(id, 7L, start, end, activityType, distance, 12.0);
+    }
+}
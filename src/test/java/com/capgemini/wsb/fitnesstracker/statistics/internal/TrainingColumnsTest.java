@@ -0,0 +1,115 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrainingColumnsTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void put_overwritesExistingTraining() {
+        TrainingColumns columns = new TrainingColumns();
+        columns.put(training(1L, 7L, 0, ActivityType.RUNNING, 10.0, 12.0));
+        columns.put(training(1L, 8L, HOUR, ActivityType.CYCLING, 30.0, 25.0));
+
+        ColumnAggregates aggregates = columns.aggregateByActivity(0, 2 * HOUR, null, null);
+
+        assertEquals(1, columns.size());
+        assertEquals(0, aggregates.trainings(ActivityType.RUNNING.ordinal()));
+        assertEquals(1, aggregates.trainings(ActivityType.CYCLING.ordinal()));
+        assertEquals(30.0, aggregates.distance(ActivityType.CYCLING.ordinal()));
+        assertEquals(0, columns.aggregateByActivity(0, 2 * HOUR, 7L, null).trainings(ActivityType.CYCLING.ordinal()));
+    }
+
+    @Test
+    void aggregateByActivity_appliesAllFilters() {
+        TrainingColumns columns = new TrainingColumns();
+        columns.put(training(1L, 7L, 0, ActivityType.RUNNING, 10.0, 12.0));
+        columns.put(training(2L, 7L, HOUR, ActivityType.RUNNING, 5.0, 10.0));
+        columns.put(training(3L, 8L, HOUR, ActivityType.RUNNING, 20.0, 14.0));
+        columns.put(training(4L, null, HOUR, ActivityType.RUNNING, 1.0, 4.0));
+        columns.put(training(5L, 7L, 2 * HOUR, ActivityType.SWIMMING, 1.5, 2.0));
+
+        ColumnAggregates all = columns.aggregateByActivity(0, 3 * HOUR, null, null);
+        ColumnAggregates user = columns.aggregateByActivity(HOUR, 3 * HOUR, 7L, ActivityType.RUNNING);
+
+        int running = ActivityType.RUNNING.ordinal();
+        assertEquals(4, all.trainings(running));
+        assertEquals(36.0, all.distance(running));
+        assertEquals(4 * 3_600L, all.durationSeconds(running));
+        assertEquals(10.0, all.averageSpeed(running));
+        assertEquals(1, all.trainings(ActivityType.SWIMMING.ordinal()));
+        assertEquals(1, user.trainings(running));
+        assertEquals(5.0, user.distance(running));
+        assertEquals(0, user.trainings(ActivityType.SWIMMING.ordinal()));
+    }
+
+    @Test
+    void aggregateByPeriod_groupsByStartTime() {
+        TrainingColumns columns = new TrainingColumns();
+        columns.put(training(1L, 7L, -HOUR, ActivityType.RUNNING, 100.0, 10.0));
+        columns.put(training(2L, 7L, 0, ActivityType.RUNNING, 10.0, 10.0));
+        columns.put(training(3L, 7L, 2 * HOUR - 1, ActivityType.WALKING, 2.0, 4.0));
+        columns.put(training(4L, 7L, 2 * HOUR, ActivityType.RUNNING, 8.0, 12.0));
+        columns.put(training(5L, 7L, 3 * HOUR, ActivityType.RUNNING, 100.0, 10.0));
+
+        ColumnAggregates aggregates = columns.aggregateByPeriod(new long[]{0, 2 * HOUR, 3 * HOUR}, null, null);
+
+        assertEquals(2, aggregates.groups());
+        assertEquals(2, aggregates.trainings(0));
+        assertEquals(12.0, aggregates.distance(0));
+        assertEquals(7.0, aggregates.averageSpeed(0));
+        assertEquals(1, aggregates.trainings(1));
+        assertEquals(8.0, aggregates.distance(1));
+    }
+
+    @Test
+    void aggregateByPeriod_supportsBoundariesBetweenFullHours() {
+        TrainingColumns columns = new TrainingColumns();
+        columns.put(training(1L, 7L, HOUR, ActivityType.RUNNING, 10.0, 10.0));
+        columns.put(training(2L, 7L, 3 * HOUR / 2, ActivityType.RUNNING, 8.0, 12.0));
+
+        ColumnAggregates aggregates = columns.aggregateByPeriod(new long[]{0, 3 * HOUR / 2, 3 * HOUR}, null, null);
+
+        assertEquals(1, aggregates.trainings(0));
+        assertEquals(10.0, aggregates.distance(0));
+        assertEquals(1, aggregates.trainings(1));
+        assertEquals(8.0, aggregates.distance(1));
+    }
+
+    @Test
+    void aggregateByActivity_mergesParallelChunks() {
+        int trainings = 3 * TrainingColumns.CHUNK_ROWS + 17;
+        TrainingColumns columns = new TrainingColumns();
+        SplittableRandom random = new SplittableRandom(42);
+        long[] expectedTrainings = new long[ActivityType.values().length];
+        double[] expectedDistance = new double[ActivityType.values().length];
+        for (long id = 1; id <= trainings; id++) {
+            ActivityType activityType = ActivityType.values()[random.nextInt(ActivityType.values().length)];
+            double distance = random.nextInt(1, 50);
+            columns.put(training(id, id % 100, random.nextLong(0, 24 * HOUR), activityType, distance, 10.0));
+            expectedTrainings[activityType.ordinal()]++;
+            expectedDistance[activityType.ordinal()] += distance;
+        }
+
+        ColumnAggregates aggregates = columns.aggregateByActivity(0, 25 * HOUR, null, null);
+
+        assertEquals(trainings, columns.size());
+        for (ActivityType activityType : ActivityType.values()) {
+            assertEquals(expectedTrainings[activityType.ordinal()], aggregates.trainings(activityType.ordinal()));
+            assertEquals(expectedDistance[activityType.ordinal()], aggregates.distance(activityType.ordinal()));
+        }
+    }
+
+    private static TrainingSnapshot training(long id, Long userId, long start, ActivityType activityType,
+                                             double distance, double averageSpeed) {
+        return new TrainingSnapshot(id, userId, new Date(start), new Date(start + HOUR), activityType, distance, averageSpeed);
+    }
+}
@@ -0,0 +1,71 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class TrainingRollupRepositoryTest {
+
+    private static final LocalDate MAY = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private TrainingRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(rollup(MAY, ActivityType.RUNNING, 10.0, 12.0));
+        entityManager.persist(rollup(MAY, ActivityType.CYCLING, 30.0, 24.0));
+        entityManager.persist(rollup(MAY.plusMonths(1), ActivityType.RUNNING, 5.0, 10.0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findBuckets_sumsActivityTypesPerBucket() {
+        List<RollupBucketDto> buckets = rollupRepository.findBuckets(RollupGranularity.MONTH, 7L, MAY, MAY.plusMonths(6));
+
+        assertEquals(2, buckets.size());
+        assertEquals(MAY, buckets.get(0).bucketStart());
+        assertEquals(2, buckets.get(0).trainings());
+        assertEquals(40.0, buckets.get(0).distance());
+        assertEquals(18.0, buckets.get(0).averageSpeed());
+    }
+
+    @Test
+    void findBuckets_filtersByActivityType() {
+        List<RollupBucketDto> buckets = rollupRepository.findBuckets(RollupGranularity.MONTH, 7L, MAY, MAY.plusMonths(6), ActivityType.CYCLING);
+
+        assertEquals(1, buckets.size());
+        assertEquals(30.0, buckets.get(0).distance());
+    }
+
+    @Test
+    void applyDelta_updatesExistingBucketOnly() {
+        int updated = rollupRepository.applyDelta(RollupGranularity.MONTH, MAY, 7L, ActivityType.RUNNING, 1L, 2.0, 600L, 8.0);
+        int missing = rollupRepository.applyDelta(RollupGranularity.MONTH, MAY, 8L, ActivityType.RUNNING, 1L, 2.0, 600L, 8.0);
+
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        assertEquals(12.0, rollupRepository.findBuckets(RollupGranularity.MONTH, 7L, MAY, MAY, ActivityType.RUNNING).get(0).distance());
+    }
+
+    private TrainingRollup rollup(LocalDate month, ActivityType activityType, double distance, double speed) {
+        RollupDelta delta = new RollupDelta();
+        delta.add(new TrainingSnapshot(null, 7L, new Date(0), new Date(3_600_000), activityType, distance, speed));
+        return new TrainingRollup(new RollupKey(RollupGranularity.MONTH, month, 7L, activityType), delta);
+    }
+}
@@ -0,0 +1,110 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Zapisuje treningi z tego samego, nowego przedziału w dwóch współbieżnych transakcjach, które zatwierdzają się
+ * jednocześnie, i sprawdza, że oba treningi trafiają do przedziałów użytkownika i przedziałów globalnych.
+ */
+@DataJpaTest
+@Import({TrainingRollupService.class, AggregateRowInserter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrainingRollupServiceConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+    private static final long USER_ID = 7L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private TrainingRollupService rollupService;
+
+    @Autowired
+    private TrainingRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private TrainingService trainingService;
+
+    @AfterEach
+    void tearDown() {
+        rollupRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void onTrainingSaved_countsConcurrentTrainingsInFreshBucket() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDate day = FIRST_DAY.plusDays(round);
+                CyclicBarrier commit = new CyclicBarrier(2);
+                Callable<Void> training = () -> {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        rollupService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(day)));
+                        await(commit);
+                    });
+                    return null;
+                };
+                List<Future<Void>> results = executor.invokeAll(List.of(training, training));
+                for (Future<Void> result : results) {
+                    result.get();
+                }
+
+                assertTrainings(2, USER_ID, day);
+                assertTrainings(2, TrainingRollup.GLOBAL_USER_ID, day);
+            }
+            assertEquals(2L * ROUNDS, rollupRepository
+                    .findBuckets(RollupGranularity.MONTH, USER_ID, FIRST_DAY, FIRST_DAY.plusDays(ROUNDS)).get(0).trainings());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertTrainings(long expected, long userId, LocalDate day) {
+        List<RollupBucketDto> buckets = rollupRepository.findBuckets(RollupGranularity.DAY, userId, day, day);
+        assertEquals(1, buckets.size());
+        assertEquals(expected, buckets.get(0).trainings());
+    }
+
+    private static TrainingSnapshot snapshot(LocalDate day) {
+        Date start = Date.from(day.atTime(8, 0).atZone(ZoneId.systemDefault()).toInstant());
+        return new TrainingSnapshot(null, USER_ID, start, new Date(start.getTime() + 3_600_000L),
+                ActivityType.RUNNING, 10.0, 12.0);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
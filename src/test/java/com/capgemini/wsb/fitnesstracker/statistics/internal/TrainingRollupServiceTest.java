@@ -0,0 +1,125 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TrainingRollupServiceTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2024, 5, 15);
+
+    @Mock
+    private TrainingRollupRepository rollupRepository;
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private AggregateRowInserter rowInserter;
+
+    @InjectMocks
+    private TrainingRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void onTrainingSaved_updatesUserAndGlobalBucketsForEveryGranularity() {
+        when(rollupRepository.applyDelta(any(), any(), anyLong(), any(), anyLong(), anyDouble(), anyLong(), anyDouble()))
+                .thenReturn(1);
+
+        rollupService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(7L, WEDNESDAY, ActivityType.RUNNING, 10.0)));
+
+        verify(rollupRepository, times(6))
+                .applyDelta(any(), any(), anyLong(), any(), eq(1L), eq(10.0), eq(3_600L), eq(12.0));
+        verify(rollupRepository).applyDelta(RollupGranularity.DAY, WEDNESDAY, 7L, ActivityType.RUNNING, 1L, 10.0, 3_600L, 12.0);
+        verify(rollupRepository).applyDelta(RollupGranularity.WEEK, LocalDate.of(2024, 5, 13), 7L, ActivityType.RUNNING, 1L, 10.0, 3_600L, 12.0);
+        verify(rollupRepository).applyDelta(RollupGranularity.MONTH, LocalDate.of(2024, 5, 1), 0L, ActivityType.RUNNING, 1L, 10.0, 3_600L, 12.0);
+    }
+
+    @Test
+    void onTrainingSaved_insertsMissingBucket() {
+        when(rollupRepository.applyDelta(any(), any(), anyLong(), any(), anyLong(), anyDouble(), anyLong(), anyDouble()))
+                .thenReturn(0);
+
+        rollupService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(7L, WEDNESDAY, ActivityType.RUNNING, 10.0)));
+
+        verify(rowInserter, times(6)).insertIfAbsent(any(Runnable.class));
+        verify(rollupRepository, times(6)).save(any(TrainingRollup.class));
+    }
+
+    @Test
+    void onTrainingSaved_appliesDeltaToInsertedBucket() {
+        when(rollupRepository.applyDelta(any(), any(), anyLong(), any(), anyLong(), anyDouble(), anyLong(), anyDouble()))
+                .thenReturn(0, 1);
+
+        rollupService.onTrainingSaved(new TrainingSavedEvent(null, snapshot(7L, WEDNESDAY, ActivityType.RUNNING, 10.0)));
+
+        verify(rowInserter, times(1)).insertIfAbsent(any(Runnable.class));
+        verify(rollupRepository, times(7))
+                .applyDelta(any(), any(), anyLong(), any(), eq(1L), eq(10.0), eq(3_600L), eq(12.0));
+        verify(rollupRepository, never()).save(any(TrainingRollup.class));
+    }
+
+    @Test
+    void onTrainingSaved_movesTrainingBetweenDays() {
+        when(rollupRepository.applyDelta(any(), any(), anyLong(), any(), anyLong(), anyDouble(), anyLong(), anyDouble()))
+                .thenReturn(1);
+
+        rollupService.onTrainingSaved(new TrainingSavedEvent(
+                snapshot(7L, WEDNESDAY, ActivityType.RUNNING, 10.0),
+                snapshot(7L, WEDNESDAY.plusDays(1), ActivityType.RUNNING, 10.0)));
+
+        verify(rollupRepository).applyDelta(RollupGranularity.DAY, WEDNESDAY, 7L, ActivityType.RUNNING, -1L, -10.0, -3_600L, -12.0);
+        verify(rollupRepository).applyDelta(RollupGranularity.DAY, WEDNESDAY.plusDays(1), 7L, ActivityType.RUNNING, 1L, 10.0, 3_600L, 12.0);
+        verify(rollupRepository, never())
+                .applyDelta(eq(RollupGranularity.WEEK), any(), anyLong(), any(), anyLong(), anyDouble(), anyLong(), anyDouble());
+    }
+
+    @Test
+    void findRollups_alignsStartAndUsesGlobalScopeWithoutUser() {
+        List<RollupBucketDto> buckets = List.of(new RollupBucketDto(LocalDate.of(2024, 5, 1), 3, 30.0, 10_800, 12.0));
+        when(rollupRepository.findBuckets(RollupGranularity.MONTH, 0L, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 12, 31)))
+                .thenReturn(buckets);
+
+        List<RollupBucketDto> result = rollupService.findRollups(null, RollupGranularity.MONTH, WEDNESDAY, LocalDate.of(2024, 12, 31), null);
+
+        assertEquals(buckets, result);
+    }
+
+    @Test
+    void findRollups_rejectsInvalidRange() {
+        assertThrows(BusinessException.class,
+                () -> rollupService.findRollups(1L, RollupGranularity.DAY, WEDNESDAY, WEDNESDAY.minusDays(1), null));
+        assertThrows(BusinessException.class,
+                () -> rollupService.findRollups(1L, RollupGranularity.DAY, WEDNESDAY, WEDNESDAY.plusYears(3), null));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    private TrainingSnapshot snapshot(Long userId, LocalDate day, ActivityType activityType, double distance) {
+        Date start = Date.from(day.atTime(8, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Date end = new Date(start.getTime() + 3_600_000L);
+        return new TrainingSnapshot(1L, userId, start, end, activityType, distance, 12.0);
+    }
+}
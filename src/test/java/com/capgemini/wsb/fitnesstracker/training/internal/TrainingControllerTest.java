@@ -1,7 +1,16 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.etag.api.EntityTag;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchResult;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,15 +21,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,12 +51,18 @@ public class TrainingControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
-    private TrainingService trainingService;
+    private TrainingServiceImpl trainingService;
 
     @MockBean
     private TrainingMapper trainingMapper;
 
+    @MockBean
+    private TrainingFeed trainingFeed;
+
     private Training training;
     private TrainingDto trainingDto;
 
@@ -74,27 +101,100 @@ public class TrainingControllerTest {
     }
 
     @Test
-    void getAllTrainings_returnsTrainings() throws Exception {
-        List<Training> trainings = Arrays.asList(training);
-        List<TrainingDto> trainingDtos = Arrays.asList(trainingDto);
+    void createTrainings_reportsRejectedItemsByRequestIndex() throws Exception {
+        given(trainingMapper.toEntity(any(TrainingDto.class)))
+                .willReturn(training)
+                .willThrow(new BusinessException("Unknown activity type: DANCING"))
+                .willReturn(training);
+        given(trainingService.createTrainings(any())).willReturn(
+                new TrainingBatchResult(1, List.of(new TrainingBatchResult.Rejection(1, "End time must not be before start time"))));
 
-        given(trainingService.findAllTrainings()).willReturn(trainings);
-        given(trainingMapper.toDto(any(Training.class))).willReturn(trainingDto);
+        mockMvc.perform(post("/api/trainings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"activityType\":\"RUNNING\"},{\"activityType\":\"DANCING\"},{\"activityType\":\"RUNNING\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejected[0].index", is(1)))
+                .andExpect(jsonPath("$.rejected[0].reason", is("Unknown activity type: DANCING")))
+                .andExpect(jsonPath("$.rejected[1].index", is(2)))
+                .andExpect(jsonPath("$.rejected[1].reason", is("End time must not be before start time")));
+    }
+
+    @Test
+    void createTrainings_rejectsNullItem() throws Exception {
+        given(trainingMapper.toEntity(any(TrainingDto.class))).willReturn(training);
+        given(trainingService.createTrainings(any())).willReturn(new TrainingBatchResult(1, List.of()));
+
+        mockMvc.perform(post("/api/trainings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null,{\"activityType\":\"RUNNING\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejected[0].index", is(0)))
+                .andExpect(jsonPath("$.rejected[0].reason", is("Training is required")));
+    }
+
+    @Test
+    void createTrainings_rejectsOversizedBatchBeforeMapping() throws Exception {
+        String items = String.join(",", Collections.nCopies(TrainingService.MAX_BATCH_SIZE + 1, "{}"));
+
+        mockMvc.perform(post("/api/trainings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + items + "]"))
+                .andExpect(status().isBadRequest());
+
+        verify(trainingMapper, never()).toEntity(any(TrainingDto.class));
+        verify(trainingService, never()).createTrainings(any());
+    }
+
+    @Test
+    void getAllTrainings_returnsTrainings() throws Exception {
+        given(trainingService.findTrainingDtosPage(isNull(), isNull())).willReturn(new CursorPage<>(List.of(trainingDto), null));
 
         mockMvc.perform(get("/api/trainings")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].activityType", is("RUNNING")));
     }
 
+    @Test
+    void getAllTrainings_returnsNextCursorHeader() throws Exception {
+        given(trainingService.findTrainingDtosPage(eq("MQ"), eq(1))).willReturn(new CursorPage<>(List.of(trainingDto), "Mg"));
+
+        mockMvc.perform(get("/api/trainings?after=MQ&limit=1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void exportTrainings_streamsNdjson() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<Training> consumer = invocation.getArgument(0);
+            consumer.accept(training);
+            consumer.accept(training);
+            return null;
+        }).given(trainingService).exportTrainings(any());
+        given(trainingMapper.toDto(any(Training.class))).willReturn(trainingDto);
+
+        MvcResult result = mockMvc.perform(get("/api/trainings/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"id\":1[^\\n]*}\\n){2}")));
+    }
+
     @Test
     void getTrainingsByUserId_returnsTrainings() throws Exception {
-        List<Training> trainings = Arrays.asList(training);
         List<TrainingDto> trainingDtos = Arrays.asList(trainingDto);
 
-        given(trainingService.findTrainingsByUserId(anyLong())).willReturn(trainings);
-        given(trainingMapper.toDto(any(Training.class))).willReturn(trainingDto);
+        given(trainingService.findTrainingDtosByUserId(anyLong())).willReturn(trainingDtos);
 
         mockMvc.perform(get("/api/trainings/user/1")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -103,13 +203,33 @@ public class TrainingControllerTest {
                 .andExpect(jsonPath("$[0].activityType", is("RUNNING")));
     }
 
+    @Test
+    void getTrainingsByUserId_returnsETagFromUserTrainingsVersion() throws Exception {
+        given(trainingService.findUserTrainingsVersion(1L)).willReturn(Optional.of(5L));
+        given(trainingService.findTrainingDtosByUserId(1L)).willReturn(List.of(trainingDto));
+
+        mockMvc.perform(get("/api/trainings/user/1").header("If-None-Match", EntityTag.of(1L, 4L)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTag.of(1L, 5L)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void getTrainingsByUserId_returnsNotModifiedWithoutLoadingTrainings() throws Exception {
+        given(trainingService.findUserTrainingsVersion(1L)).willReturn(Optional.of(5L));
+
+        mockMvc.perform(get("/api/trainings/user/1").header("If-None-Match", EntityTag.of(1L, 5L)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(trainingService, never()).findTrainingDtosByUserId(anyLong());
+    }
+
     @Test
     void getCompletedTrainings_returnsTrainings() throws Exception {
-        List<Training> trainings = Arrays.asList(training);
         List<TrainingDto> trainingDtos = Arrays.asList(trainingDto);
 
-        given(trainingService.findCompletedTrainings(any(String.class))).willReturn(trainings);
-        given(trainingMapper.toDto(any(Training.class))).willReturn(trainingDto);
+        given(trainingService.findCompletedTrainingDtos(any(String.class))).willReturn(trainingDtos);
 
         mockMvc.perform(get("/api/trainings/completed?date=2023-06-01T10:15:30")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -120,11 +240,9 @@ public class TrainingControllerTest {
 
     @Test
     void getTrainingsByActivity_returnsTrainings() throws Exception {
-        List<Training> trainings = Arrays.asList(training);
         List<TrainingDto> trainingDtos = Arrays.asList(trainingDto);
 
-        given(trainingService.findTrainingsByActivityType(any(String.class))).willReturn(trainings);
-        given(trainingMapper.toDto(any(Training.class))).willReturn(trainingDto);
+        given(trainingService.findTrainingDtosByActivityType(any(String.class))).willReturn(trainingDtos);
 
         mockMvc.perform(get("/api/trainings/activity/RUNNING")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -133,6 +251,33 @@ public class TrainingControllerTest {
                 .andExpect(jsonPath("$[0].activityType", is("RUNNING")));
     }
 
+    @Test
+    void getTrainingsByActivity_returnsCborWhenRequested() throws Exception {
+        assertBinaryTrainings("application/cbor", new CBORFactory());
+    }
+
+    @Test
+    void getTrainingsByActivity_returnsSmileWhenRequested() throws Exception {
+        assertBinaryTrainings("application/x-jackson-smile", new SmileFactory());
+    }
+
+    private void assertBinaryTrainings(String mediaType, JsonFactory factory) throws Exception {
+        given(trainingService.findTrainingDtosByActivityType("RUNNING")).willReturn(List.of(trainingDto));
+
+        byte[] body = mockMvc.perform(get("/api/trainings/activity/RUNNING").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode trainings = objectMapper.copyWith(factory).readTree(body);
+        JsonNode json = objectMapper.valueToTree(trainingDto);
+        assertEquals(1, trainings.size());
+        assertEquals(1L, trainings.get(0).get("id").asLong());
+        assertEquals("RUNNING", trainings.get(0).get("activityType").asText());
+        assertEquals(json.get("startTime"), trainings.get(0).get("startTime"));
+        assertEquals(trainingDto.getStartTime(), objectMapper.treeToValue(trainings.get(0).get("startTime"), Date.class));
+    }
+
     @Test
     void updateTraining_updatesTraining() throws Exception {
         given(trainingService.updateTraining(anyLong(), any(Training.class))).willReturn(training);
@@ -146,4 +291,30 @@ public class TrainingControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.activityType", is("RUNNING")));
     }
+
+    @Test
+    void streamTrainings_subscribesWithFilters() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        given(trainingFeed.subscribe(7L, ActivityType.RUNNING)).willReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/trainings/stream?userId=7&activityType=RUNNING")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name(TrainingFeed.CREATED).data("{\"id\":1}"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("event:training-created\ndata:{\"id\":1}\n\n"));
+    }
+
+    @Test
+    void streamTrainings_rejectsUnknownActivityType() throws Exception {
+        mockMvc.perform(get("/api/trainings/stream?activityType=CLIMBING")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+
+        verify(trainingFeed, never()).subscribe(any(), any());
+    }
 }
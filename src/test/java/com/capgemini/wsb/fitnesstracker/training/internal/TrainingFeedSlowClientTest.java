@@ -0,0 +1,133 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sprawdza strumień treningów z prawdziwymi połączeniami HTTP: klient, który nie odbiera danych, zapełnia bufory
+ * gniazda i blokuje zapis jedynego wątku wysyłającego. Po przekroczeniu terminu wysyłania musi zostać rozłączony,
+ * a klient odbierający dane - dostawać kolejne zdarzenia.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "fitnesstracker.trainings.feed.sender-threads=1",
+        "fitnesstracker.trainings.feed.buffer-size=100000",
+        "fitnesstracker.trainings.feed.send-timeout=500ms"
+})
+class TrainingFeedSlowClientTest {
+
+    private static final long STALLED_USER = 1L;
+    private static final long READING_USER = 2L;
+    private static final long MARKER_ID = 999_999L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TrainingFeed trainingFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void stream_evictsClientThatNeverReadsAndKeepsServingOthers() throws IOException, InterruptedException {
+        double evictedBefore = evicted();
+        int subscribersBefore = trainingFeed.subscriberCount();
+        subscribe(STALLED_USER);
+        BlockingQueue<String> received = read(subscribe(READING_USER));
+        await().atMost(Duration.ofSeconds(5)).until(() -> trainingFeed.subscriberCount() == subscribersBefore + 2);
+
+        long[] ids = {0};
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                trainingFeed.onTrainingSaved(new TrainingSavedEvent(null, training(++ids[0], STALLED_USER)));
+            }
+            return evicted() > evictedBefore;
+        });
+        trainingFeed.onTrainingSaved(new TrainingSavedEvent(null, training(MARKER_ID, READING_USER)));
+
+        assertTrue(receives(received, "\"id\":" + MARKER_ID, Duration.ofSeconds(5)));
+    }
+
+    private Socket subscribe(long userId) throws IOException {
+        Socket socket = new Socket();
+        sockets.add(socket);
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream output = socket.getOutputStream();
+        output.write(("GET /api/trainings/stream?userId=" + userId + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        output.flush();
+        return socket;
+    }
+
+    private static BlockingQueue<String> read(Socket socket) throws IOException {
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Thread thread = new Thread(() -> {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                // Gniazdo zamknięte po zakończeniu testu.
+            }
+        }, "training-feed-reader");
+        thread.setDaemon(true);
+        thread.start();
+        return lines;
+    }
+
+    private static boolean receives(BlockingQueue<String> lines, String fragment, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            String line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (line != null && line.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double evicted() {
+        return meterRegistry.get("fitnesstracker.feed.evicted").counter().count();
+    }
+
+    private static TrainingSnapshot training(long id, long userId) {
+        return new TrainingSnapshot(id, userId, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0);
+    }
+}
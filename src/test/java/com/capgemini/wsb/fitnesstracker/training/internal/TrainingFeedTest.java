@@ -0,0 +1,117 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrainingFeedTest {
+
+    private MeterRegistry meterRegistry;
+    private TrainingFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (feed != null) {
+            feed.shutdown();
+        }
+    }
+
+    @Test
+    void subscribe_rejectsSubscribersOverLimit() {
+        feed = feed(16, 2);
+        feed.subscribe(null, null);
+        feed.subscribe(1L, ActivityType.RUNNING);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> feed.subscribe(null, null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertEquals(2, feed.subscriberCount());
+    }
+
+    @Test
+    void onTrainingSaved_evictsSubscriberThatDoesNotKeepUp() {
+        feed = feed(2, 10);
+        SseEmitter slow = feed.subscribe(1L, null);
+        feed.subscribe(2L, null);
+        feed.subscribe(1L, ActivityType.CYCLING);
+
+        // Wysyłanie do emitera wymaga jego blokady, więc jedyny wątek wysyłający czeka na pierwszym zdarzeniu,
+        // a kolejne zapełniają bufor.
+        synchronized (slow) {
+            for (long id = 1; id <= 4; id++) {
+                feed.onTrainingSaved(new TrainingSavedEvent(null, training(id, 1L, ActivityType.RUNNING)));
+            }
+        }
+
+        assertEquals(1.0, meterRegistry.get("fitnesstracker.feed.evicted").counter().count());
+        assertEquals(2, feed.subscriberCount());
+    }
+
+    @Test
+    void onTrainingSaved_evictsSubscriberWhoseSendMissesDeadline() {
+        feed = feed(16, 10, Duration.ofMillis(100));
+        SseEmitter stalled = feed.subscribe(1L, null);
+        SseEmitter alsoStalled = feed.subscribe(2L, null);
+
+        // Zablokowany emiter udaje klienta, który nie odbiera danych. Jedyny wątek wysyłający utyka na pierwszym
+        // subskrybencie; drugi dostaje zdarzenie dopiero od wątku zastępczego dodanego po rozłączeniu pierwszego.
+        synchronized (stalled) {
+            synchronized (alsoStalled) {
+                feed.onTrainingSaved(new TrainingSavedEvent(null, training(1L, 1L, ActivityType.RUNNING)));
+                await().atMost(Duration.ofSeconds(5))
+                        .until(() -> meterRegistry.get("fitnesstracker.feed.evicted").counter().count() == 1.0);
+                feed.onTrainingSaved(new TrainingSavedEvent(null, training(2L, 2L, ActivityType.RUNNING)));
+                await().atMost(Duration.ofSeconds(5))
+                        .until(() -> meterRegistry.get("fitnesstracker.feed.evicted").counter().count() == 2.0);
+            }
+        }
+
+        assertEquals(0, feed.subscriberCount());
+    }
+
+    @Test
+    void shutdown_disconnectsAllSubscribers() throws InterruptedException {
+        feed = feed(16, 10);
+        feed.subscribe(null, null);
+        feed.subscribe(1L, null);
+
+        feed.shutdown();
+
+        assertEquals(0, feed.subscriberCount());
+        assertEquals(0.0, meterRegistry.get("fitnesstracker.feed.subscribers").gauge().value());
+    }
+
+    private TrainingFeed feed(int bufferSize, int maxSubscribers) {
+        return feed(bufferSize, maxSubscribers, Duration.ofMinutes(1));
+    }
+
+    private TrainingFeed feed(int bufferSize, int maxSubscribers, Duration sendTimeout) {
+        TrainingFeedProperties properties = new TrainingFeedProperties(bufferSize, 1, Duration.ofMinutes(1), maxSubscribers,
+                sendTimeout);
+        return new TrainingFeed(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private static TrainingSnapshot training(long id, Long userId, ActivityType activityType) {
+        return new TrainingSnapshot(id, userId, new Date(0), new Date(3_600_000), activityType, 10.0, 10.0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TrainingMapperTest {
 
@@ -63,4 +65,29 @@ class TrainingMapperTest {
         assertEquals(trainingDto.getDistance(), entity.getDistance());
         assertEquals(trainingDto.getAverageSpeed(), entity.getAverageSpeed());
     }
+
+    @Test
+    void toEntity_rejectsMissingActivityType() {
+        trainingDto.setActivityType(null);
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> trainingMapper.toEntity(trainingDto));
+
+        assertEquals("Activity type is required", exception.getMessage());
+    }
+
+    @Test
+    void toEntity_rejectsUnknownActivityType() {
+        trainingDto.setActivityType("DANCING");
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> trainingMapper.toEntity(trainingDto));
+
+        assertEquals("Unknown activity type: DANCING", exception.getMessage());
+    }
+
+    @Test
+    void toEntity_rejectsMissingDistance() {
+        trainingDto.setDistance(null);
+
+        assertThrows(BusinessException.class, () -> trainingMapper.toEntity(trainingDto));
+    }
 }
@@ -0,0 +1,163 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.queryplan.CapturingStatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Testy regresji planów zapytań {@link TrainingRepository}.
+ * Każdy test wywołuje metodę repozytorium, przechwytuje SQL wygenerowany przez Hibernate
+ * ({@link CapturingStatementInspector}), wykonuje dla niego w H2 {@code EXPLAIN} z przykładowymi wartościami
+ * parametrów i kończy się niepowodzeniem, jeśli plan zamiast oczekiwanego indeksu używa pełnego skanu tabeli.
+ * Zmiana zapytania JPQL lub nazwy metody pochodnej, po której zapytanie przestaje korzystać z indeksu,
+ * jest więc wykrywana tak samo jak usunięcie indeksu.
+ */
+@DataJpaTest(properties = CapturingStatementInspector.PROPERTY)
+class TrainingRepositoryQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final String PRIMARY_KEY = "PRIMARY_KEY";
+    private static final String USER_ID_LOOKUP = ": USER_ID = ?1 */";
+    private static final Timestamp TIME = Timestamp.valueOf("2024-01-01 00:00:00");
+    private static final Timestamp LATER = Timestamp.valueOf("2024-01-08 00:00:00");
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Przy samej równości na {@code user_id} H2 wybiera jednokolumnowy indeks, który tworzy dla klucza obcego,
+     * a nie {@code idx_training_user_end_time} - obydwa wyszukują te same wiersze, więc test sprawdza wyszukiwanie
+     * po {@code user_id} bez pełnego skanu.
+     */
+    @Test
+    void findByUserId_looksUpTrainingsByUserId() {
+        String plan = explain(() -> trainingRepository.findByUserId(1L), 1L);
+
+        assertUsesIndex(plan, USER_ID_LOOKUP);
+    }
+
+    @Test
+    void findDtosByUserId_looksUpTrainingsByUserId() {
+        String plan = explain(() -> trainingRepository.findDtosByUserId(1L), 1L);
+
+        assertUsesIndex(plan, USER_ID_LOOKUP);
+    }
+
+    @Test
+    void findSnapshotsByUserIdRange_usesUserEndTimeIndex() {
+        String plan = explain(() -> trainingRepository.findSnapshotsByUserIdRange(1L, 100L, TIME, LATER),
+                1L, 100L, TIME, LATER);
+
+        assertUsesIndex(plan, "idx_training_user_end_time");
+    }
+
+    @Test
+    void findByEndTimeAfter_usesEndTimeIndex() {
+        String plan = explain(() -> trainingRepository.findByEndTimeAfter(TIME), TIME);
+
+        assertUsesIndex(plan, "idx_training_end_time");
+    }
+
+    @Test
+    void findDtosByEndTimeAfter_usesEndTimeIndex() {
+        String plan = explain(() -> trainingRepository.findDtosByEndTimeAfter(TIME), TIME);
+
+        assertUsesIndex(plan, "idx_training_end_time");
+    }
+
+    @Test
+    void streamByEndTimeAfter_usesEndTimeIndex() {
+        String plan = explain(() -> consume(trainingRepository.streamByEndTimeAfter(TIME)), TIME);
+
+        assertUsesIndex(plan, "idx_training_end_time");
+    }
+
+    @Test
+    void findByActivityType_usesActivityEndTimeIndex() {
+        String plan = explain(() -> trainingRepository.findByActivityType(ActivityType.RUNNING), "RUNNING");
+
+        assertUsesIndex(plan, "idx_training_activity_end_time");
+    }
+
+    @Test
+    void findDtosByActivityType_usesActivityEndTimeIndex() {
+        String plan = explain(() -> trainingRepository.findDtosByActivityType(ActivityType.RUNNING), "RUNNING");
+
+        assertUsesIndex(plan, "idx_training_activity_end_time");
+    }
+
+    @Test
+    void findByIdGreaterThanOrderByIdAsc_usesPrimaryKeyWithoutSorting() {
+        String plan = explain(() -> trainingRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)), 0L, 10);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void findDtosAfter_usesPrimaryKeyWithoutSorting() {
+        String plan = explain(() -> trainingRepository.findDtosAfter(0L, Limit.of(10)), 0L, 10);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void streamAllByOrderByIdAsc_readsInPrimaryKeyOrder() {
+        String plan = explain(() -> consume(trainingRepository.streamAllByOrderByIdAsc()));
+
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void streamSnapshotsOrderedById_readsInPrimaryKeyOrder() {
+        String plan = explain(() -> consume(trainingRepository.streamSnapshotsOrderedById()));
+
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void findTrainingsVersionByUserId_usesUserPrimaryKey() {
+        String plan = explain(() -> trainingRepository.findTrainingsVersionByUserId(1L), 1L);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+    }
+
+    @Test
+    void incrementTrainingsVersions_usesUserPrimaryKey() {
+        String plan = explain(() -> trainingRepository.incrementTrainingsVersions(List.of(1L)), 1L);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+    }
+
+    private String explain(Runnable call, Object... parameters) {
+        String sql = CapturingStatementInspector.capture(call);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertThat(plan, allOf(containsStringIgnoringCase(index), not(containsStringIgnoringCase(TABLE_SCAN))));
+    }
+
+    private static void consume(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class TrainingRepositoryTest {
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com"));
+        entityManager.persist(new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        entityManager.persist(new Training(user, new Date(0), new Date(3_600_000), ActivityType.CYCLING, 30.0, 30.0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listQueries_loadEntitiesReadOnly() {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+
+        List<Training> byUser = trainingRepository.findByUserId(user.getId());
+        List<Training> page = trainingRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10));
+
+        assertEquals(2, byUser.size());
+        assertEquals(2, page.size());
+        byUser.forEach(training -> assertTrue(session.isReadOnly(training)));
+        page.forEach(training -> assertTrue(session.isReadOnly(training)));
+    }
+
+    @Test
+    void changesToReadOnlyEntities_areNotFlushed() {
+        Training training = trainingRepository.findByUserId(user.getId()).get(0);
+        training.setDistance(999.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNotEquals(999.0, entityManager.find(Training.class, training.getId()).getDistance());
+    }
+}
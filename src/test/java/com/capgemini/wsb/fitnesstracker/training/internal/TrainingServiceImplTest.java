@@ -1,18 +1,31 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchResult;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -23,6 +36,12 @@ class TrainingServiceImplTest {
     @Mock
     private TrainingRepository trainingRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TrainingServiceImpl trainingService;
 
@@ -50,6 +69,54 @@ class TrainingServiceImplTest {
         verify(trainingRepository, times(1)).save(training);
     }
 
+    @Test
+    void createTraining_publishesSavedEventWithoutPreviousState() {
+        when(trainingRepository.save(any(Training.class))).thenReturn(training);
+        ArgumentCaptor<TrainingSavedEvent> event = ArgumentCaptor.forClass(TrainingSavedEvent.class);
+
+        trainingService.createTraining(training);
+
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertNull(event.getValue().previous());
+        assertEquals(5.0, event.getValue().current().distance());
+    }
+
+    @Test
+    void createTrainings_persistsValidAndReportsInvalidItems() {
+        Training valid = new Training(null, new Date(0), new Date(60_000), ActivityType.RUNNING, 5.0, 10.0);
+        Training endsBeforeStart = new Training(null, new Date(60_000), new Date(0), ActivityType.RUNNING, 5.0, 10.0);
+        Training negativeDistance = new Training(null, new Date(0), new Date(60_000), ActivityType.CYCLING, -1.0, 10.0);
+
+        TrainingBatchResult result = trainingService.createTrainings(List.of(valid, endsBeforeStart, negativeDistance));
+
+        assertEquals(1, result.accepted());
+        assertEquals(List.of(1, 2), result.rejected().stream().map(TrainingBatchResult.Rejection::index).toList());
+        verify(entityManager, times(1)).persist(valid);
+        verify(entityManager, never()).persist(endsBeforeStart);
+    }
+
+    @Test
+    void createTrainings_flushesAndClearsEveryBatch() {
+        List<Training> trainings = IntStream.range(0, 120)
+                .mapToObj(i -> new Training(null, new Date(0), new Date(60_000), ActivityType.WALKING, 1.0, 4.0))
+                .toList();
+
+        TrainingBatchResult result = trainingService.createTrainings(trainings);
+
+        assertEquals(120, result.accepted());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(120)).publishEvent(any(TrainingSavedEvent.class));
+    }
+
+    @Test
+    void createTrainings_rejectsOversizedBatch() {
+        List<Training> trainings = Collections.nCopies(TrainingService.MAX_BATCH_SIZE + 1, training);
+
+        assertThrows(BusinessException.class, () -> trainingService.createTrainings(trainings));
+        verifyNoInteractions(entityManager);
+    }
+
     @Test
     void findAllTrainings_returnsAllTrainings() {
         List<Training> trainings = Arrays.asList(training);
@@ -61,6 +128,37 @@ class TrainingServiceImplTest {
         verify(trainingRepository, times(1)).findAll();
     }
 
+    @Test
+    void findTrainingsPage_returnsPageWithNextCursor() {
+        Training second = new Training();
+        second.setId(2L);
+        when(trainingRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(Arrays.asList(training, second));
+
+        CursorPage<Training> page = trainingService.findTrainingsPage(null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(Cursor.encode(1L), page.nextCursor());
+    }
+
+    @Test
+    void findTrainingsPage_returnsLastPageWithoutCursor() {
+        when(trainingRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(Cursor.DEFAULT_LIMIT + 1))).thenReturn(List.of(training));
+
+        CursorPage<Training> page = trainingService.findTrainingsPage(Cursor.encode(0L), null);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findTrainingsPage_clampsLimitAndRejectsInvalidCursor() {
+        trainingService.findTrainingsPage(null, 100_000);
+
+        verify(trainingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(Cursor.MAX_LIMIT + 1));
+        assertThrows(BusinessException.class, () -> trainingService.findTrainingsPage("not-a-cursor", 10));
+        assertThrows(BusinessException.class, () -> trainingService.findTrainingsPage(null, 0));
+    }
+
     @Test
     void findTrainingsByUserId_returnsTrainings() {
         List<Training> trainings = Arrays.asList(training);
@@ -86,12 +184,55 @@ class TrainingServiceImplTest {
     @Test
     void findTrainingsByActivityType_returnsTrainings() {
         List<Training> trainings = Arrays.asList(training);
-        when(trainingRepository.findByActivityType(any(String.class))).thenReturn(trainings);
+        when(trainingRepository.findByActivityType(any(ActivityType.class))).thenReturn(trainings);
 
         List<Training> foundTrainings = trainingService.findTrainingsByActivityType("RUNNING");
 
         assertEquals(1, foundTrainings.size());
-        verify(trainingRepository, times(1)).findByActivityType("RUNNING");
+        verify(trainingRepository, times(1)).findByActivityType(ActivityType.RUNNING);
+    }
+
+    @Test
+    void findTrainingDtosPage_returnsPageOfProjections() {
+        TrainingDto first = new TrainingDto(1L, new Date(), new Date(), ActivityType.RUNNING, 5.0, 10.0);
+        TrainingDto second = new TrainingDto(2L, new Date(), new Date(), ActivityType.CYCLING, 20.0, 25.0);
+        when(trainingRepository.findDtosAfter(0L, Limit.of(2))).thenReturn(Arrays.asList(first, second));
+
+        CursorPage<TrainingDto> page = trainingService.findTrainingDtosPage(null, 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(Cursor.encode(1L), page.nextCursor());
+    }
+
+    @Test
+    void findTrainingDtosByUserId_usesProjectionQuery() {
+        TrainingDto dto = new TrainingDto(1L, new Date(), new Date(), ActivityType.RUNNING, 5.0, 10.0);
+        when(trainingRepository.findDtosByUserId(1L)).thenReturn(List.of(dto));
+
+        List<TrainingDto> found = trainingService.findTrainingDtosByUserId(1L);
+
+        assertEquals(1, found.size());
+        verify(trainingRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void findCompletedTrainingDtos_usesProjectionQuery() {
+        when(trainingRepository.findDtosByEndTimeAfter(any(Date.class))).thenReturn(List.of(new TrainingDto()));
+
+        List<TrainingDto> found = trainingService.findCompletedTrainingDtos("2023-06-01");
+
+        assertEquals(1, found.size());
+        verify(trainingRepository, times(1)).findDtosByEndTimeAfter(any(Date.class));
+    }
+
+    @Test
+    void findTrainingDtosByActivityType_parsesActivityType() {
+        when(trainingRepository.findDtosByActivityType(ActivityType.RUNNING)).thenReturn(List.of(new TrainingDto()));
+
+        List<TrainingDto> found = trainingService.findTrainingDtosByActivityType("RUNNING");
+
+        assertEquals(1, found.size());
+        assertThrows(BusinessException.class, () -> trainingService.findTrainingDtosByActivityType("DANCING"));
     }
 
     @Test
@@ -106,11 +247,28 @@ class TrainingServiceImplTest {
         verify(trainingRepository, times(1)).save(training);
     }
 
+    @Test
+    void updateTraining_publishesEventWithStateBeforeUpdate() {
+        Training changes = new Training(null, training.getStartTime(), training.getEndTime(), ActivityType.CYCLING, 20.0, 25.0);
+        when(trainingRepository.findById(anyLong())).thenReturn(Optional.of(training));
+        when(trainingRepository.save(any(Training.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<TrainingSavedEvent> event = ArgumentCaptor.forClass(TrainingSavedEvent.class);
+
+        trainingService.updateTraining(1L, changes);
+
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(5.0, event.getValue().previous().distance());
+        assertEquals(ActivityType.RUNNING, event.getValue().previous().activityType());
+        assertEquals(20.0, event.getValue().current().distance());
+        assertEquals(ActivityType.CYCLING, event.getValue().current().activityType());
+    }
+
     @Test
     void updateTraining_throwsExceptionWhenTrainingNotFound() {
         when(trainingRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> trainingService.updateTraining(1L, training));
         verify(trainingRepository, times(1)).findById(1L);
+        verifyNoInteractions(eventPublisher);
     }
 }
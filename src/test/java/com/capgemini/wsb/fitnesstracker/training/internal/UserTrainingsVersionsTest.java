@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSavedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserTrainingsVersionsTest {
+
+    @Mock
+    private TrainingRepository trainingRepository;
+
+    @InjectMocks
+    private UserTrainingsVersions userTrainingsVersions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(userTrainingsVersions);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onTrainingSaved_incrementsPreviousAndCurrentOwner() {
+        userTrainingsVersions.onTrainingSaved(new TrainingSavedEvent(training(1L), training(2L)));
+
+        verify(trainingRepository).incrementTrainingsVersions(Set.of(1L, 2L));
+    }
+
+    @Test
+    void onTrainingSaved_ignoresTrainingsWithoutUser() {
+        userTrainingsVersions.onTrainingSaved(new TrainingSavedEvent(null, training(null)));
+
+        verify(trainingRepository, never()).incrementTrainingsVersions(any());
+    }
+
+    @Test
+    void onTrainingSaved_incrementsOncePerTransactionBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userTrainingsVersions.onTrainingSaved(new TrainingSavedEvent(null, training(1L)));
+        userTrainingsVersions.onTrainingSaved(new TrainingSavedEvent(null, training(1L)));
+        userTrainingsVersions.onTrainingSaved(new TrainingSavedEvent(training(1L), training(3L)));
+        verify(trainingRepository, never()).incrementTrainingsVersions(any());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        verify(trainingRepository, times(1)).incrementTrainingsVersions(Set.of(1L, 3L));
+    }
+
+    private static TrainingSnapshot training(Long userId) {
+        return new TrainingSnapshot(1L, userId, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 5.0, 10.0);
+    }
+}
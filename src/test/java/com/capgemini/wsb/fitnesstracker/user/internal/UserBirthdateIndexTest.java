@@ -0,0 +1,69 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserBirthdateIndexTest {
+
+    private final UserBirthdateIndex index = new UserBirthdateIndex();
+
+    @Test
+    void count_includesBothEndsOfRange() {
+        index.put(user(1L, LocalDate.of(1990, 1, 1)));
+        index.put(user(2L, LocalDate.of(1990, 12, 31)));
+        index.put(user(3L, LocalDate.of(1991, 1, 1)));
+
+        assertEquals(2, index.count(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31)));
+        assertEquals(2, index.count(LocalDate.of(1990, 12, 31), LocalDate.of(1991, 6, 1)));
+        assertEquals(1, index.count(LocalDate.of(1991, 1, 1), LocalDate.of(1991, 6, 1)));
+        assertEquals(0, index.count(LocalDate.of(1991, 6, 1), LocalDate.of(1990, 1, 1)));
+    }
+
+    @Test
+    void put_movesUserAndRemoveDropsIt() {
+        index.put(user(1L, LocalDate.of(1990, 1, 1)));
+        index.put(user(1L, LocalDate.of(2000, 1, 1)));
+        index.put(user(2L, LocalDate.of(2000, 5, 1)));
+        index.remove(2L);
+
+        assertEquals(0, index.count(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31)));
+        assertEquals(1, index.count(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 12, 31)));
+    }
+
+    @Test
+    void count_matchesLinearScan() {
+        Random random = new Random(7);
+        List<LocalDate> birthdates = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            LocalDate birthdate = LocalDate.of(1940, 1, 1).plusDays(random.nextInt(30_000));
+            birthdates.add(birthdate);
+            index.put(user(id, birthdate));
+        }
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = LocalDate.of(1930, 1, 1).plusDays(random.nextInt(40_000));
+            LocalDate to = from.plusDays(random.nextInt(8_000));
+            long expected = birthdates.stream().filter(date -> !date.isBefore(from) && !date.isAfter(to)).count();
+            assertEquals(expected, index.count(from, to));
+        }
+    }
+
+    private static User user(Long id, LocalDate birthdate) {
+        User user = new User("John", "Doe", birthdate, "john" + id + "@example.com");
+        try {
+            Field idField = User.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(user, id);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return user;
+    }
+}
@@ -1,5 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.etag.api.EntityTag;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,16 +10,28 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +51,9 @@ public class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserController userController;
+
     private User user;
     private UserDto userDto;
 
@@ -48,27 +65,46 @@ public class UserControllerTest {
 
     @Test
     void testGetAllUsers() throws Exception {
-        when(userService.findAllUsers()).thenReturn(List.of(user));
+        when(userService.findUsersPage(isNull(), isNull())).thenReturn(new CursorPage<>(List.of(user), null));
         when(userMapper.toDto(any(User.class))).thenReturn(userDto);
 
         mockMvc.perform(get("/v1/users"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].firstName", is("John")))
                 .andExpect(jsonPath("$[0].lastName", is("Doe")));
     }
 
+    @Test
+    void testGetAllUsersWithCursor() throws Exception {
+        when(userService.findUsersPage(eq("MQ"), eq(1))).thenReturn(new CursorPage<>(List.of(user), "Mg"));
+        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+
+        mockMvc.perform(get("/v1/users?after=MQ&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
+                .andExpect(jsonPath("$[0].firstName", is("John")));
+    }
+
     @Test
     void testAddUser() throws Exception {
+        User saved = Mockito.mock(User.class);
+        when(saved.getId()).thenReturn(1L);
+        when(saved.getVersion()).thenReturn(0L);
         when(userMapper.toEntity(any(UserDto.class))).thenReturn(user);
-        when(userService.createUser(any(User.class))).thenReturn(user);
-        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+        when(userService.createUser(any(User.class))).thenReturn(saved);
+        when(userMapper.toDto(saved)).thenReturn(userDto);
 
         mockMvc.perform(post("/v1/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTag.of(1L, 0L)))
                 .andExpect(jsonPath("$.firstName", is("John")))
-                .andExpect(jsonPath("$.lastName", is("Doe")));
+                .andExpect(jsonPath("$.lastName", is("Doe")))
+                .andExpect(jsonPath("$.normalizedEmail").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$.trainingsVersion").doesNotExist());
     }
 
     @Test
@@ -82,6 +118,46 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.lastName", is("Doe")));
     }
 
+    @Test
+    void testGetUserReturnsETag() throws Exception {
+        User versioned = Mockito.mock(User.class);
+        when(versioned.getVersion()).thenReturn(2L);
+        when(userService.findUserVersion(1L)).thenReturn(Optional.of(2L));
+        when(userService.getUser(1L)).thenReturn(Optional.of(versioned));
+        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+
+        mockMvc.perform(get("/v1/users/1").header("If-None-Match", EntityTag.of(1L, 1L)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTag.of(1L, 2L)))
+                .andExpect(jsonPath("$.firstName", is("John")));
+    }
+
+    @Test
+    void testGetUserNotModified() throws Exception {
+        when(userService.findUserVersion(1L)).thenReturn(Optional.of(2L));
+
+        mockMvc.perform(get("/v1/users/1").header("If-None-Match", EntityTag.of(1L, 2L)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", EntityTag.of(1L, 2L)))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUser(any());
+    }
+
+    @Test
+    void getUser_returnsNotModifiedEntityForMatchingETag() {
+        when(userService.findUserVersion(1L)).thenReturn(Optional.of(2L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/users/1");
+        request.addHeader("If-None-Match", EntityTag.of(1L, 2L));
+
+        ResponseEntity<UserDto> response = userController.getUser(1L,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(EntityTag.of(1L, 2L), response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
     @Test
     void testDeleteUser() throws Exception {
         mockMvc.perform(delete("/v1/users/1"))
@@ -91,7 +167,7 @@ public class UserControllerTest {
     @Test
     void testUpdateUser() throws Exception {
         when(userMapper.toEntity(any(UserDto.class))).thenReturn(user);
-        when(userService.updateUser(any(Long.class), any(User.class))).thenReturn(user);
+        when(userService.updateUser(any(Long.class), any(User.class), isNull())).thenReturn(user);
         when(userMapper.toDto(any(User.class))).thenReturn(userDto);
 
         mockMvc.perform(put("/v1/users/1")
@@ -102,6 +178,34 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.lastName", is("Doe")));
     }
 
+    @Test
+    void testUpdateUserWithMatchingIfMatch() throws Exception {
+        when(userService.findUserVersion(1L)).thenReturn(Optional.of(2L));
+        when(userMapper.toEntity(any(UserDto.class))).thenReturn(user);
+        when(userService.updateUser(eq(1L), any(User.class), eq(2L))).thenReturn(user);
+        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+
+        mockMvc.perform(put("/v1/users/1")
+                        .header("If-Match", EntityTag.of(1L, 2L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("John")));
+    }
+
+    @Test
+    void testUpdateUserWithStaleIfMatch() throws Exception {
+        when(userService.findUserVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(put("/v1/users/1")
+                        .header("If-Match", EntityTag.of(1L, 2L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService, never()).updateUser(any(), any(), any());
+    }
+
     @Test
     void testSearchByEmail() throws Exception {
         when(userService.findByEmailContainingIgnoreCase(any(String.class))).thenReturn(List.of(user));
@@ -113,6 +217,39 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].lastName", is("Doe")));
     }
 
+    @Test
+    void testSearch() throws Exception {
+        when(userService.searchUsers(eq("jo"), eq(5))).thenReturn(List.of(user));
+        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+
+        mockMvc.perform(get("/v1/users/search?query=jo&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("john.doe@example.com")));
+    }
+
+    @Test
+    void testGetUsersByAge() throws Exception {
+        when(userService.findUsersByAge(eq(30), eq(39), isNull(), eq(1))).thenReturn(new CursorPage<>(List.of(user), "next"));
+        when(userService.countUsersByAge(30, 39)).thenReturn(12L);
+        when(userMapper.toDto(any(User.class))).thenReturn(userDto);
+
+        mockMvc.perform(get("/v1/users/age?minAge=30&maxAge=39&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "12"))
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].firstName", is("John")));
+    }
+
+    @Test
+    void testCountUsersByAge() throws Exception {
+        when(userService.countUsersByAge(30, 39)).thenReturn(12L);
+
+        mockMvc.perform(get("/v1/users/age/count?minAge=30&maxAge=39"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("12"));
+    }
+
     @Test
     void testSearchByAge() throws Exception {
         when(userService.findUsersOlderThan(any(Integer.class))).thenReturn(List.of(user));
@@ -47,6 +47,16 @@ class UserMapperTest {
         assertEquals(userDto.email(), user.getEmail());
     }
 
+    @Test
+    void toEntity_leavesIdEmptyForNewUser() {
+        UserDto userDto = new UserDto(null, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+
+        User user = userMapper.toEntity(userDto);
+
+        assertNull(user.getId());
+        assertEquals(userDto.email(), user.getEmail());
+    }
+
     private void setId(User user, Long id) throws Exception {
         Field idField = User.class.getDeclaredField("id");
         idField.setAccessible(true);
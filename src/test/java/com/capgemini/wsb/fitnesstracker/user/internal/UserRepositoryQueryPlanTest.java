@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.queryplan.CapturingStatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Testy regresji planów zapytań {@link UserRepository}, wykonujące {@code EXPLAIN} dla SQL wygenerowanego
+ * przez Hibernate z metod repozytorium.
+ */
+@DataJpaTest(properties = CapturingStatementInspector.PROPERTY)
+class UserRepositoryQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final String PRIMARY_KEY = "PRIMARY_KEY";
+    private static final LocalDate FROM = LocalDate.of(1990, 1, 1);
+    private static final LocalDate TO = LocalDate.of(1990, 12, 31);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByNormalizedEmail_usesUniqueIndex() {
+        String plan = explain(() -> userRepository.findByNormalizedEmail("john@example.com"), "john@example.com");
+
+        assertThat(plan, allOf(containsStringIgnoringCase("normalized_email"), not(containsStringIgnoringCase(TABLE_SCAN))));
+    }
+
+    @Test
+    void findByIdGreaterThanOrderByIdAsc_usesPrimaryKeyWithoutSorting() {
+        String plan = explain(() -> userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)), 0L, 10);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void findVersionById_usesPrimaryKey() {
+        String plan = explain(() -> userRepository.findVersionById(1L), 1L);
+
+        assertUsesIndex(plan, PRIMARY_KEY);
+    }
+
+    @Test
+    void findByBirthdateBetweenAfter_usesBirthdateIdIndexWithoutSorting() {
+        String plan = explain(() -> userRepository.findByBirthdateBetweenAfter(FROM, TO, FROM, 0L, Limit.of(10)),
+                Date.valueOf(FROM), Date.valueOf(TO), Date.valueOf(FROM), Date.valueOf(FROM), 0L, 10);
+
+        assertUsesIndex(plan, "idx_users_birthdate_id");
+        assertThat(plan, containsStringIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void countByBirthdateBetween_usesBirthdateIdIndex() {
+        String plan = explain(() -> userRepository.countByBirthdateBetween(FROM, TO), Date.valueOf(FROM), Date.valueOf(TO));
+
+        assertUsesIndex(plan, "idx_users_birthdate_id");
+    }
+
+    private String explain(Runnable call, Object... parameters) {
+        String sql = CapturingStatementInspector.capture(call);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertThat(plan, allOf(containsStringIgnoringCase(index), not(containsStringIgnoringCase(TABLE_SCAN))));
+    }
+}
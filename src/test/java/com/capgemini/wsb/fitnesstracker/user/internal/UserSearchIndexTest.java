@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.put(user(1L, "Jan", "Kowalski", "jan.kowalski@example.com"));
+        index.put(user(2L, "Janina", "Nowak", "nowak@jankowo.pl"));
+        index.put(user(3L, "Piotr", "Janowski", "piotr@example.com"));
+        index.put(user(4L, "Anna", "Kowal", "anna.kowal@example.com"));
+    }
+
+    @Test
+    void search_findsEmailSubstringsIgnoringCase() {
+        assertEquals(List.of(4L), index.search("KOWAL@", 10));
+        assertEquals(List.of(2L), index.search("@jankowo", 10));
+        assertEquals(List.of(), index.search("nothing", 10));
+    }
+
+    @Test
+    void search_ranksExactAndPrefixMatchesFirst() {
+        assertEquals(List.of(3L), index.search("piotr@example.com", 10));
+        assertEquals(List.of(1L, 2L, 3L), index.search("jan", 10));
+        assertEquals(List.of(4L, 1L), index.search("kowal", 10));
+    }
+
+    @Test
+    void search_matchesFirstAndLastNamePrefixes() {
+        assertEquals(List.of(1L), index.search("jan kow", 10));
+        assertEquals(List.of(1L), index.search("Kow Jan", 10));
+        assertEquals(List.of(2L), index.search("jan nowak", 10));
+        assertEquals(List.of(), index.search("piotr kowal", 10));
+    }
+
+    @Test
+    void search_intersectsPostingsOfAllQueryTrigrams() {
+        index.put(user(5L, "Ewa", "Lis", "owalkow@example.com"));
+        index.put(user(6L, "Olga", "Lis", "kowalewska@example.com"));
+
+        assertEquals(List.of(6L), index.search("kowale", 10));
+        assertEquals(List.of(4L), index.search("a.kowal", 10));
+        assertEquals(List.of(), index.search("walkowal", 10));
+    }
+
+    @Test
+    void search_usesEmailPrefixForShortQueries() {
+        assertEquals(List.of(2L), index.search("no", 10));
+    }
+
+    @Test
+    void search_respectsLimit() {
+        assertEquals(List.of(1L, 2L), index.search("jan", 2));
+    }
+
+    @Test
+    void put_replacesPreviousDataAndRemoveDropsUser() {
+        index.put(user(1L, "Adam", "Mickiewicz", "adam@example.com"));
+        index.remove(4L);
+
+        assertEquals(List.of(2L, 3L), index.search("jan", 10));
+        assertEquals(List.of(1L), index.search("adam", 10));
+        assertEquals(List.of(), index.search("kowal", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void put_rejectsUnsavedUser() {
+        User unsaved = user(null, "Adam", "Mickiewicz", "adam@example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(unsaved));
+        assertEquals(4, index.size());
+    }
+
+    private static User user(Long id, String firstName, String lastName, String email) {
+        User user = new User(firstName, lastName, LocalDate.of(1990, 1, 1), email);
+        try {
+            Field idField = User.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.set(user, id);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return user;
+    }
+}
@@ -1,12 +1,20 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.Cursor;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserModifiedException;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
@@ -16,6 +24,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -25,6 +35,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserSearchIndex userSearchIndex = new UserSearchIndex();
+
+    @Spy
+    private UserEmailCache userEmailCache = new UserEmailCache();
+
+    @Mock
+    private ObjectProvider<UserBirthdateIndex> userBirthdateIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -48,6 +67,31 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void findUsersPage_returnsPageWithNextCursor() {
+        List<User> users = Arrays.asList(
+                createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com"),
+                createUser(2L, "Jane", "Smith", LocalDate.of(1985, 5, 5), "jane.smith@example.com")
+        );
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(users);
+
+        CursorPage<User> page = userService.findUsersPage(null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(Cursor.encode(1L), page.nextCursor());
+    }
+
+    @Test
+    void findUsersPage_returnsLastPageWithoutCursor() {
+        User user = createUser(2L, "Jane", "Smith", LocalDate.of(1985, 5, 5), "jane.smith@example.com");
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(Cursor.DEFAULT_LIMIT + 1))).thenReturn(List.of(user));
+
+        CursorPage<User> page = userService.findUsersPage(Cursor.encode(1L), null);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
     @Test
     void getUser_returnsUser() {
         User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
@@ -63,13 +107,15 @@ class UserServiceImplTest {
     @Test
     void createUser_savesAndReturnsUser() {
         User user = createUser(null, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        User saved = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.save(user)).thenReturn(saved);
 
         User result = userService.createUser(user);
 
         assertNotNull(result);
-        assertEquals(user, result);
+        assertEquals(saved, result);
         verify(userRepository, times(1)).save(user);
+        verify(userSearchIndex, times(1)).put(saved);
     }
 
     @Test
@@ -83,14 +129,41 @@ class UserServiceImplTest {
 
     @Test
     void updateUser_updatesAndReturnsUser() {
-        User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        User existing = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User changes = createUser(null, "Johnny", "Doe", LocalDate.of(1991, 2, 3), "Johnny.Doe@example.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.saveAndFlush(existing)).thenReturn(existing);
 
-        User result = userService.updateUser(1L, user);
+        User result = userService.updateUser(1L, changes, null);
 
-        assertNotNull(result);
-        assertEquals(user, result);
-        verify(userRepository, times(1)).save(user);
+        assertEquals(existing, result);
+        assertEquals(1L, result.getId());
+        assertEquals("Johnny", result.getFirstName());
+        assertEquals(LocalDate.of(1991, 2, 3), result.getBirthdate());
+        assertEquals("johnny.doe@example.com", result.getNormalizedEmail());
+        verify(userRepository, times(1)).saveAndFlush(existing);
+    }
+
+    @Test
+    void updateUser_rejectsStaleExpectedVersion() {
+        User existing = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        assertThrows(UserModifiedException.class,
+                () -> userService.updateUser(1L, createUser(null, "Johnny", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com"), 5L));
+
+        assertEquals("John", existing.getFirstName());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateUser_reportsConcurrentModification() {
+        User existing = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.saveAndFlush(existing)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        assertThrows(UserModifiedException.class,
+                () -> userService.updateUser(1L, createUser(null, "Johnny", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com"), 0L));
     }
 
     @Test
@@ -108,6 +181,180 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findByEmailContainingIgnoreCase(anyString());
     }
 
+    @Test
+    void searchUsers_returnsUsersInIndexOrder() {
+        User johnDraft = createUser(null, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User johnnyDraft = createUser(null, "Johnny", "Smith", LocalDate.of(1985, 5, 5), "jsmith@example.com");
+        User john = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User johnny = createUser(2L, "Johnny", "Smith", LocalDate.of(1985, 5, 5), "jsmith@example.com");
+        when(userRepository.save(johnnyDraft)).thenReturn(johnny);
+        when(userRepository.save(johnDraft)).thenReturn(john);
+        userService.createUser(johnnyDraft);
+        userService.createUser(johnDraft);
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(johnny, john));
+
+        List<User> result = userService.searchUsers("john", null);
+
+        assertEquals(List.of(john, johnny), result);
+    }
+
+    @Test
+    void deleteUser_removesUserFromSearchIndex() {
+        User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        userService.createUser(user);
+
+        userService.deleteUser(1L);
+
+        assertEquals(List.of(), userService.searchUsers("john", 10));
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getUserByEmail_normalizesEmailAndCachesResult() {
+        User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "John.Doe@Example.com");
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userService.getUserByEmail(" JOHN.DOE@example.com"));
+        assertEquals(Optional.of(user), userService.getUserByEmail("john.doe@example.com"));
+
+        verify(userRepository, times(1)).findByNormalizedEmail("john.doe@example.com");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getUserByEmail_loadsCachedUserByIdOnEveryCall() {
+        User stale = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User current = createUser(1L, "Johnny", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.of(stale));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        userService.getUserByEmail("john.doe@example.com");
+
+        assertEquals(Optional.of(current), userService.getUserByEmail("john.doe@example.com"));
+    }
+
+    @Test
+    void getUserByEmail_reloadsWhenCachedUserChangedEmail() {
+        User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User moved = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john@doe.com");
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        userService.getUserByEmail("john.doe@example.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(moved));
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), userService.getUserByEmail("john.doe@example.com"));
+    }
+
+    @Test
+    void getUserByEmail_cachedMissIsInvalidatedByCreateUser() {
+        User user = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), userService.getUserByEmail("john.doe@example.com"));
+
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.createUser(user);
+
+        assertEquals(Optional.of(user), userService.getUserByEmail("john.doe@example.com"));
+    }
+
+    @Test
+    void updateUser_invalidatesPreviousAndNewEmail() {
+        User previous = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com");
+        User updated = createUser(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john@doe.com");
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.of(previous));
+        when(userRepository.findByNormalizedEmail("john@doe.com")).thenReturn(Optional.empty());
+        userService.getUserByEmail("john.doe@example.com");
+        userService.getUserByEmail("john@doe.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(previous));
+        when(userRepository.saveAndFlush(previous)).thenReturn(previous);
+        when(userRepository.findByNormalizedEmail("john.doe@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByNormalizedEmail("john@doe.com")).thenReturn(Optional.of(updated));
+        userService.updateUser(1L, updated, null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(updated));
+
+        assertEquals(Optional.empty(), userService.getUserByEmail("john.doe@example.com"));
+        assertEquals(Optional.of(updated), userService.getUserByEmail("john@doe.com"));
+    }
+
+    @Test
+    void findUsersByAge_queriesBirthdateRange() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusYears(40).plusDays(1);
+        User user = createUser(1L, "John", "Doe", today.minusYears(35), "john.doe@example.com");
+        when(userRepository.findByBirthdateBetweenAfter(
+                from, today.minusYears(30), from, 0L, Limit.of(Cursor.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(user));
+
+        CursorPage<User> page = userService.findUsersByAge(30, 39, null, null);
+
+        assertEquals(List.of(user), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findUsersByAge_continuesAfterBirthdateAndIdOfLastUser() {
+        LocalDate today = LocalDate.now();
+        LocalDate birthdate = today.minusYears(35);
+        User first = createUser(7L, "John", "Doe", birthdate, "john.doe@example.com");
+        User second = createUser(3L, "Jane", "Smith", birthdate.plusDays(1), "jane.smith@example.com");
+        when(userRepository.findByBirthdateBetweenAfter(
+                today.minusYears(40).plusDays(1), today.minusYears(30), today.minusYears(40).plusDays(1), 0L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(userRepository.findByBirthdateBetweenAfter(
+                today.minusYears(40).plusDays(1), today.minusYears(30), birthdate, 7L, Limit.of(2)))
+                .thenReturn(List.of(second));
+
+        CursorPage<User> page = userService.findUsersByAge(30, 39, null, 1);
+        CursorPage<User> next = userService.findUsersByAge(30, 39, page.nextCursor(), 1);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(Cursor.encode(birthdate.toEpochDay(), 7L), page.nextCursor());
+        assertEquals(List.of(second), next.items());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void findUsersByAge_rejectsInvalidRange() {
+        assertThrows(BusinessException.class, () -> userService.findUsersByAge(40, 30, null, null));
+        assertThrows(BusinessException.class, () -> userService.countUsersByAge(-1, 30));
+        assertThrows(BusinessException.class, () -> userService.findUsersByAge(0, Integer.MAX_VALUE, null, null));
+        assertThrows(BusinessException.class, () -> userService.countUsersByAge(0, UserServiceImpl.MAX_AGE + 1));
+    }
+
+    @Test
+    void findUsersByAge_rejectsInvalidCursor() {
+        assertThrows(BusinessException.class, () -> userService.findUsersByAge(30, 39, Cursor.encode(7L), null));
+        assertThrows(BusinessException.class,
+                () -> userService.findUsersByAge(30, 39, Cursor.encode(Long.MAX_VALUE, 7L), null));
+    }
+
+    @Test
+    void countUsersByAge_usesBirthdateIndexWhenAvailable() {
+        LocalDate today = LocalDate.now();
+        UserBirthdateIndex index = new UserBirthdateIndex();
+        index.put(createUser(1L, "John", "Doe", today.minusYears(30), "john.doe@example.com"));
+        index.put(createUser(2L, "Jane", "Smith", today.minusYears(40), "jane.smith@example.com"));
+        index.put(createUser(3L, "Jim", "Beam", today.minusYears(40).plusDays(1), "jim.beam@example.com"));
+        when(userBirthdateIndex.getIfAvailable()).thenReturn(index);
+
+        assertEquals(2, userService.countUsersByAge(30, 39));
+        verify(userRepository, never()).countByBirthdateBetween(any(), any());
+    }
+
+    @Test
+    void countUsersByAge_fallsBackToRepository() {
+        LocalDate today = LocalDate.now();
+        when(userRepository.countByBirthdateBetween(today.minusYears(40).plusDays(1), today.minusYears(30))).thenReturn(7L);
+
+        assertEquals(7, userService.countUsersByAge(30, 39));
+    }
+
     @Test
     void findUsersOlderThan_returnsListOfUsers() {
         List<User> users = Arrays.asList(